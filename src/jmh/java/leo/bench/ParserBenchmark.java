@@ -0,0 +1,62 @@
+package leo.bench;
+
+import leo.LeoException;
+import leo.Parser;
+import leo.commands.Command;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link Parser#parse(String)} on the commands users type most.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    @Param({"TODO", "DEADLINE", "EVENT", "MIXED"})
+    public TaskMix mix;
+
+    private String[] commands;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        switch (mix) {
+            case TODO:
+                commands = new String[]{"todo read book t1"};
+                break;
+            case DEADLINE:
+                commands = new String[]{"deadline submit report t2 /by 2024-12-31"};
+                break;
+            case EVENT:
+                commands = new String[]{"event project meeting t3 /from Mon 2pm /to 4pm"};
+                break;
+            default:
+                commands = new String[]{
+                    "todo read book t1",
+                    "deadline submit report t2 /by 2024-12-31",
+                    "event project meeting t3 /from Mon 2pm /to 4pm",
+                    "mark 3",
+                    "delete 1-5,9",
+                    "find report",
+                    "list"
+                };
+        }
+    }
+
+    @Benchmark
+    public Command parse() throws LeoException {
+        String command = commands[next];
+        next = (next + 1) % commands.length;
+        return Parser.parse(command);
+    }
+}
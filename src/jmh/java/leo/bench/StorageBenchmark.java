@@ -0,0 +1,78 @@
+package leo.bench;
+
+import leo.LeoException;
+import leo.storage.Storage;
+import leo.storage.StorageFormat;
+import leo.tasks.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures {@link Storage#load()} and {@link Storage#save(List)} on generated task files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"TODO", "DEADLINE", "EVENT", "MIXED"})
+    public TaskMix mix;
+
+    @Param({"TEXT", "BINARY"})
+    public StorageFormat format;
+
+    private Path directory;
+    private String dataFile;
+    private List<Task> tasks;
+    private Storage savingStorage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, LeoException {
+        directory = Files.createTempDirectory("leo-bench");
+        dataFile = directory.resolve("tasks.txt").toString();
+        tasks = TaskGenerator.generate(taskCount, mix, TaskGenerator.DEFAULT_SEED);
+
+        Storage storage = new Storage(dataFile);
+        storage.save(tasks);
+        if (format != StorageFormat.TEXT) {
+            storage.convertTo(format);
+        }
+        savingStorage = storage;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<Task> load() throws LeoException {
+        return new Storage(dataFile).load();
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        savingStorage.save(tasks);
+    }
+}
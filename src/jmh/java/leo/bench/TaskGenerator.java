@@ -0,0 +1,111 @@
+package leo.bench;
+
+import leo.storage.Storage;
+import leo.tasks.Deadline;
+import leo.tasks.Event;
+import leo.tasks.Task;
+import leo.tasks.ToDo;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible synthetic task lists and task files for benchmarks.
+ *
+ * <p>Descriptions are four words drawn from a small vocabulary followed by a
+ * unique tag such as {@code t12345}, so benchmarks can search for both common
+ * words and a single task.
+ */
+public final class TaskGenerator {
+    static final long DEFAULT_SEED = 42;
+
+    private static final String[] WORDS = {
+        "read", "book", "meeting", "report", "submit", "essay", "project", "lunch",
+        "call", "mom", "review", "code", "fix", "bug", "gym", "shop"
+    };
+    private static final String[] TIMES = {"Mon 2pm", "Tue 9am", "Wed noon", "Thu 4pm", "Fri 10am"};
+    private static final LocalDate FIRST_DATE = LocalDate.of(2024, 1, 1);
+    private static final int DATE_SPAN_DAYS = 3 * 365;
+    private static final int WORDS_PER_DESCRIPTION = 4;
+
+    private TaskGenerator() {
+    }
+
+    /**
+     * Generates a list of tasks.
+     *
+     * @param count the number of tasks
+     * @param mix the kinds of tasks to generate
+     * @param seed the random seed; equal seeds give equal lists
+     * @return the generated tasks, about a third of them marked as done
+     */
+    public static List<Task> generate(int count, TaskMix mix, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = createTask(kindOf(mix, i), description(random, i), random);
+            if (random.nextInt(3) == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the tag that makes the description of the task at the given position unique.
+     *
+     * @param index the position of the task in a generated list
+     * @return the tag, such as {@code t12345}
+     */
+    public static String tagOf(int index) {
+        return "t" + index;
+    }
+
+    /**
+     * Writes a generated task list in the storage file format.
+     * Usage: {@code TaskGenerator <file> <count> [TODO|DEADLINE|EVENT|MIXED]}
+     *
+     * @param args the output file, the task count and optionally the task mix
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TaskGenerator <file> <count> [TODO|DEADLINE|EVENT|MIXED]");
+            System.exit(1);
+        }
+
+        int count = Integer.parseInt(args[1]);
+        TaskMix mix = args.length > 2 ? TaskMix.valueOf(args[2].toUpperCase()) : TaskMix.MIXED;
+        new Storage(args[0]).save(generate(count, mix, DEFAULT_SEED));
+        System.out.println("Wrote " + count + " " + mix + " tasks to " + args[0]);
+    }
+
+    private static TaskMix kindOf(TaskMix mix, int index) {
+        if (mix != TaskMix.MIXED) {
+            return mix;
+        }
+        return TaskMix.values()[index % 3];
+    }
+
+    private static String description(Random random, int index) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < WORDS_PER_DESCRIPTION; i++) {
+            description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return description.append(tagOf(index)).toString();
+    }
+
+    private static Task createTask(TaskMix kind, String description, Random random) {
+        switch (kind) {
+            case DEADLINE:
+                return new Deadline(description, FIRST_DATE.plusDays(random.nextInt(DATE_SPAN_DAYS)));
+            case EVENT:
+                return new Event(description, TIMES[random.nextInt(TIMES.length)], TIMES[random.nextInt(TIMES.length)]);
+            default:
+                return new ToDo(description);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package leo.bench;
+
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+import leo.tasks.ToDo;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link TaskList#find(String)} for rare, common and short keywords,
+ * the add/remove pair that keeps the keyword index up to date, and deleting and
+ * putting back a task mid-list with every index built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"TODO", "DEADLINE", "EVENT", "MIXED"})
+    public TaskMix mix;
+
+    private TaskList tasks;
+    private String rareKeyword;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = new TaskList(TaskGenerator.generate(taskCount, mix, TaskGenerator.DEFAULT_SEED));
+        rareKeyword = TaskGenerator.tagOf(taskCount / 2);
+        // Build the indexes outside the measured calls
+        tasks.find(rareKeyword);
+        tasks.findSimilar("reprot", 1);
+        tasks.findDue(null, LocalDate.MAX);
+    }
+
+    @Benchmark
+    public List<Task> findRareKeyword() {
+        return tasks.find(rareKeyword);
+    }
+
+    @Benchmark
+    public List<Task> findCommonKeyword() {
+        return tasks.find("report");
+    }
+
+    @Benchmark
+    public List<Task> findShortKeyword() {
+        return tasks.find("gy");
+    }
+
+    @Benchmark
+    public Task addThenRemove() {
+        tasks.add(new ToDo("review code benchmark"));
+        return tasks.remove(tasks.size() - 1);
+    }
+
+    @Benchmark
+    public Task removeThenInsertMiddle() {
+        int middle = tasks.size() / 2;
+        Task removed = tasks.remove(middle);
+        tasks.insert(middle, removed);
+        return removed;
+    }
+}
@@ -0,0 +1,11 @@
+package leo.bench;
+
+/**
+ * The kinds of tasks a generated data set contains.
+ */
+public enum TaskMix {
+    TODO,
+    DEADLINE,
+    EVENT,
+    MIXED
+}
@@ -0,0 +1,59 @@
+package leo;
+
+/**
+ * One entry in the GUI conversation: a line from the user, a reply from Leo,
+ * or a long task listing shown as rows.
+ */
+final class ChatMessage {
+    /**
+     * Who a message comes from.
+     */
+    enum Speaker {
+        USER,
+        LEO
+    }
+
+    private final Speaker speaker;
+    private final String text;
+    private final TaskRows rows; // null unless this is a listing
+
+    private ChatMessage(Speaker speaker, String text, TaskRows rows) {
+        this.speaker = speaker;
+        this.text = text;
+        this.rows = rows;
+    }
+
+    static ChatMessage of(Speaker speaker, String text) {
+        return new ChatMessage(speaker, text, null);
+    }
+
+    static ChatMessage fromUser(String text) {
+        return of(Speaker.USER, text);
+    }
+
+    static ChatMessage fromLeo(String text) {
+        return of(Speaker.LEO, text);
+    }
+
+    /**
+     * Creates a listing message; its text summarises the rows for the transcript.
+     *
+     * @param rows the listing
+     * @return the message
+     */
+    static ChatMessage ofRows(TaskRows rows) {
+        return new ChatMessage(Speaker.LEO, "(" + rows.getRows().size() + " tasks listed)", rows);
+    }
+
+    Speaker getSpeaker() {
+        return speaker;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    TaskRows getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,140 @@
+package leo;
+
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Runs a session's commands on a background thread, one at a time and in the
+ * order they were submitted, so the caller's thread never waits on a command.
+ * Read-only commands such as list and find can be cancelled while queued or running.
+ */
+class CommandDispatcher {
+    static final String CANCELLED_MESSAGE = "Cancelled.";
+
+    private final Leo leo;
+    private final Executor replyExecutor;
+    private final ExecutorService worker;
+    private final Deque<Job> pendingJobs = new ConcurrentLinkedDeque<>();
+
+    /**
+     * The reply to one command.
+     */
+    static class Reply {
+        private final String text;
+        private final TaskRows rows; // null unless the command produced a long listing
+
+        Reply(String text, TaskRows rows) {
+            this.text = text;
+            this.rows = rows;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        TaskRows getRows() {
+            return rows;
+        }
+    }
+
+    /**
+     * Creates a dispatcher for a session.
+     *
+     * @param leo the session that executes commands
+     * @param replyExecutor runs reply callbacks, e.g. {@code Platform::runLater} for the GUI
+     */
+    CommandDispatcher(Leo leo, Executor replyExecutor) {
+        this.leo = leo;
+        this.replyExecutor = replyExecutor;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leo-command");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a command; its reply is passed to {@code onReply} through the reply executor.
+     *
+     * @param input the user input
+     * @param onReply receives the reply, or {@link #CANCELLED_MESSAGE} if the command was cancelled
+     */
+    void submit(String input, Consumer<Reply> onReply) {
+        Job job = new Job(input, onReply);
+        pendingJobs.add(job);
+        worker.execute(job);
+    }
+
+    /**
+     * Cancels the oldest unfinished command if it only reads tasks.
+     * Commands that change tasks always run to completion so nothing is half-applied.
+     *
+     * @return true if a command was cancelled
+     */
+    boolean cancel() {
+        Job job = pendingJobs.peekFirst();
+        return job != null && job.isReadOnly && job.cancel(true);
+    }
+
+    /**
+     * Returns whether any submitted command has not replied yet.
+     *
+     * @return true while commands are queued or running
+     */
+    boolean isBusy() {
+        return !pendingJobs.isEmpty();
+    }
+
+    /**
+     * Stops the worker thread once the queued commands have run.
+     */
+    void shutdown() {
+        worker.shutdown();
+    }
+
+    /**
+     * A queued command that posts its reply when it finishes or is cancelled.
+     */
+    private class Job extends FutureTask<Reply> {
+        private final boolean isReadOnly;
+        private final Consumer<Reply> onReply;
+
+        Job(String input, Consumer<Reply> onReply) {
+            super(() -> {
+                String text = leo.getResponse(input);
+                return new Reply(text, leo.takeRows());
+            });
+            this.isReadOnly = Leo.isReadOnlyCommand(input);
+            this.onReply = onReply;
+        }
+
+        @Override
+        protected void done() {
+            pendingJobs.remove(this);
+            Reply reply;
+            try {
+                reply = get();
+            } catch (CancellationException e) {
+                reply = new Reply(CANCELLED_MESSAGE, null);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                reply = new Reply(cause instanceof CancellationException ? CANCELLED_MESSAGE
+                        : "Something went wrong: " + cause, null);
+            } catch (InterruptedException e) {
+                // get() does not block once the job is done
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            Reply finalReply = reply;
+            replyExecutor.execute(() -> onReply.accept(finalReply));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package leo;
+
+import javafx.scene.control.Hyperlink;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Virtualized conversation history for the GUI.
+ *
+ * <p>Only the newest {@code historyLimit} messages are kept in memory. Every message is
+ * also written to a {@link Transcript}, and a link at the top of the view pages older
+ * messages back in from it. The ListView creates cells only for the rows on screen
+ * and each cell reuses one {@link DialogBox} and one {@link TaskRowsView}, so node count
+ * stays flat however long the session runs.
+ */
+public class ConversationView extends ListView<ChatMessage> {
+    private static final int DEFAULT_HISTORY_LIMIT = 200;
+    private static final int PAGE_SIZE = 50;
+    private static final double CELL_INSETS = 20.0;
+
+    // Placeholder row at the top while older messages are only on disk
+    private final ChatMessage earlierMarker = ChatMessage.fromLeo("");
+
+    private Image userImage;
+    private Image leoImage;
+    private Transcript transcript; // null when evicted messages are simply dropped
+    private int historyLimit = DEFAULT_HISTORY_LIMIT;
+    private int firstShownIndex; // transcript index of the oldest message in memory
+
+    /**
+     * Creates an empty conversation view.
+     */
+    public ConversationView() {
+        setCellFactory(view -> new MessageCell());
+        setFocusTraversable(false);
+    }
+
+    /**
+     * Sets the speaker images, the transcript older messages are paged from and how many messages to keep in memory.
+     *
+     * @param userImage the user's image
+     * @param leoImage Leo's image
+     * @param transcript the transcript, or null to drop messages beyond the limit
+     * @param historyLimit the number of messages kept in memory
+     */
+    void configure(Image userImage, Image leoImage, Transcript transcript, int historyLimit) {
+        assert historyLimit > 0 : "History limit must be positive";
+        this.userImage = userImage;
+        this.leoImage = leoImage;
+        this.transcript = transcript;
+        this.historyLimit = historyLimit;
+    }
+
+    /**
+     * Appends a message, trims the oldest ones beyond the history limit and scrolls to the end.
+     *
+     * @param message the message to add
+     */
+    void add(ChatMessage message) {
+        if (transcript != null) {
+            try {
+                transcript.append(message);
+            } catch (IOException e) {
+                // Keep the conversation going without paging
+                System.err.println("Failed to write transcript: " + e.getMessage());
+                transcript = null;
+            }
+        }
+
+        getItems().add(message);
+        trimToLimit();
+        scrollTo(getItems().size() - 1);
+    }
+
+    /**
+     * Drops the oldest messages held in memory until at most {@code historyLimit} remain.
+     * Messages paged back in by the user are trimmed again here when the next message arrives.
+     */
+    private void trimToLimit() {
+        int offset = markerOffset();
+        int excess = getItems().size() - offset - historyLimit;
+        if (excess > 0) {
+            getItems().remove(offset, offset + excess);
+            firstShownIndex += excess;
+        }
+        updateMarker();
+    }
+
+    /**
+     * Pages in the messages just before the oldest one held in memory.
+     */
+    private void loadEarlier() {
+        int fromIndex = Math.max(0, firstShownIndex - PAGE_SIZE);
+        List<ChatMessage> earlier;
+        try {
+            earlier = transcript.read(fromIndex, firstShownIndex);
+        } catch (IOException e) {
+            System.err.println("Failed to read transcript: " + e.getMessage());
+            return;
+        }
+
+        getItems().addAll(markerOffset(), earlier);
+        firstShownIndex = fromIndex;
+        updateMarker();
+        scrollTo(markerOffset() + earlier.size() - 1);
+    }
+
+    private int markerOffset() {
+        return !getItems().isEmpty() && getItems().get(0) == earlierMarker ? 1 : 0;
+    }
+
+    private void updateMarker() {
+        boolean hasEarlier = transcript != null && firstShownIndex > 0;
+        if (hasEarlier && markerOffset() == 0) {
+            getItems().add(0, earlierMarker);
+        } else if (!hasEarlier && markerOffset() == 1) {
+            getItems().remove(0);
+        }
+    }
+
+    /**
+     * Cell that shows a message in its own reusable DialogBox.
+     */
+    private class MessageCell extends ListCell<ChatMessage> {
+        private final DialogBox dialogBox = DialogBox.createEmpty();
+        private final Hyperlink earlierLink = new Hyperlink("Show earlier messages");
+        private TaskRowsView rowsView; // created when the cell first shows a listing
+
+        MessageCell() {
+            dialogBox.prefWidthProperty().bind(ConversationView.this.widthProperty().subtract(CELL_INSETS));
+            dialogBox.maxWidthProperty().bind(dialogBox.prefWidthProperty());
+            earlierLink.setOnAction(e -> loadEarlier());
+        }
+
+        @Override
+        protected void updateItem(ChatMessage message, boolean isEmpty) {
+            super.updateItem(message, isEmpty);
+            setText(null);
+            if (isEmpty || message == null) {
+                setGraphic(null);
+            } else if (message == earlierMarker) {
+                setGraphic(earlierLink);
+            } else if (message.getRows() != null) {
+                if (rowsView == null) {
+                    rowsView = new TaskRowsView();
+                }
+                rowsView.setRows(message.getRows());
+                setGraphic(rowsView);
+            } else {
+                boolean isFromLeo = message.getSpeaker() == ChatMessage.Speaker.LEO;
+                dialogBox.show(message.getText(), isFromLeo ? leoImage : userImage, isFromLeo);
+                setGraphic(dialogBox);
+            }
+        }
+    }
+}
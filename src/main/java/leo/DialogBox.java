@@ -1,74 +1,68 @@
 package leo;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
-
-import java.io.IOException;
-import java.util.Collections;
+import javafx.scene.layout.Region;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * The node is built in code rather than from FXML, and one box can be refilled
+ * with a different message, so conversation cells reuse it as they scroll.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    private static final double PICTURE_SIZE = 99.0;
+    private static final double VERTICAL_PADDING = 15.0;
+    private static final double HORIZONTAL_PADDING = 5.0;
+    private static final double PREF_WIDTH = 400.0;
 
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
 
-        dialog.setText(text);
-        displayPicture.setImage(img);
-    }
+    private DialogBox() {
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
 
-    /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
-     */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        setPrefWidth(PREF_WIDTH);
+        setPadding(new Insets(VERTICAL_PADDING, HORIZONTAL_PADDING, VERTICAL_PADDING, HORIZONTAL_PADDING));
     }
 
     /**
-     * Creates a dialog box for user messages.
+     * Creates an empty dialog box to be filled with {@link #show(String, Image, boolean)}.
      *
-     * @param text the message text
-     * @param img the user image
-     * @return a DialogBox instance for user messages
+     * @return the dialog box
      */
-    public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
+    static DialogBox createEmpty() {
+        return new DialogBox();
     }
 
     /**
-     * Creates a dialog box for Leo's messages.
+     * Fills the box with a message. Leo's messages have the ImageView on the left
+     * and text on the right; the user's are the other way round.
      *
      * @param text the message text
-     * @param img the Leo image
-     * @return a DialogBox instance for Leo's messages
+     * @param img the speaker's image
+     * @param isFromLeo whether Leo is the speaker
      */
-    public static DialogBox getLeoDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        return db;
+    void show(String text, Image img, boolean isFromLeo) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+        if (isFromLeo) {
+            getChildren().setAll(displayPicture, dialog);
+            setAlignment(Pos.TOP_LEFT);
+        } else {
+            getChildren().setAll(dialog, displayPicture);
+            setAlignment(Pos.TOP_RIGHT);
+        }
     }
 }
@@ -7,11 +7,16 @@ import javafx.application.Application;
  */
 public class Launcher {
     /**
-     * Launches the JavaFX application.
+     * Launches the JavaFX application, or imports or exports a file without a window
+     * when started with {@code --import <file>} or {@code --export <file>}.
      *
      * @param args command line arguments
      */
     public static void main(String[] args) {
+        if (Leo.isFileCommand(args)) {
+            Leo.main(args);
+            return;
+        }
         Application.launch(Main.class, args);
     }
 }
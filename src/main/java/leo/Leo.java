@@ -1,13 +1,12 @@
 package leo;
 
 import leo.commands.Command;
-import leo.storage.Storage;
-import leo.tasks.Task;
-import leo.tasks.TaskList;
+import leo.commands.ExportCommand;
+import leo.commands.ImportCommand;
+import leo.metrics.Metrics;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
-import java.util.List;
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
 
 /**
  * Entry point and main application loop for Leo.
@@ -15,10 +14,19 @@ import java.util.List;
 public class Leo {
     // Default file path constant
     private static final String DEFAULT_TASK_FILE_PATH = "data/tasks.txt";
-    
-    private Storage storage;
-    private TaskList tasks;
-    private Ui ui;
+
+    // Command line flags that import or export a file of tasks without starting the interactive loop
+    private static final String IMPORT_FLAG = "--import";
+    private static final String EXPORT_FLAG = "--export";
+
+    // Console output is written in chunks of this many characters while a response is rendered
+    private static final int CONSOLE_CHUNK_CHARS = 1 << 16;
+
+    private final Workspace workspace;
+    private final boolean ownsWorkspace; // false when the workspace is shared through a LeoEngine
+    private final ResponseBuffer response = new ResponseBuffer();
+    private final Ui ui;
+    private TaskRows pendingRows;
 
     /**
      * Creates a Leo instance backed by the given save file path.
@@ -26,17 +34,25 @@ public class Leo {
      * @param filePath path to the storage file
      */
     public Leo(String filePath) {
-        // Initialize UI components
-        this.ui = new Ui();
-        this.storage = new Storage(filePath);
-        
-        // Load existing tasks or start with empty list
-        try {
-            List<Task> loadedTasks = storage.load();
-            this.tasks = new TaskList(loadedTasks);
-        } catch (LeoException e) {
+        this(Workspace.open(filePath), true);
+    }
+
+    /**
+     * Creates a session on a workspace that may be shared with other sessions.
+     *
+     * @param workspace the task list and storage to work on
+     */
+    Leo(Workspace workspace) {
+        this(workspace, false);
+    }
+
+    private Leo(Workspace workspace, boolean ownsWorkspace) {
+        // Initialize UI components; output is rendered into this session's own buffer
+        this.ui = new Ui(response);
+        this.workspace = workspace;
+        this.ownsWorkspace = ownsWorkspace;
+        if (workspace.hasLoadingError()) {
             ui.showLoadingError();
-            this.tasks = new TaskList();
         }
     }
 
@@ -44,71 +60,171 @@ public class Leo {
      * Runs the entire program, from welcome to reading user input to exiting.
      */
     public void run() {
+        response.streamTo(System.out::print, CONSOLE_CHUNK_CHARS);
         ui.showWelcome();
-        
+        printResponse();
+
         boolean shouldExit = false;
         while (!shouldExit) {
             try {
                 String userCommand = ui.readCommand();
                 ui.showLine();
                 
+                long parseStart = Metrics.start();
                 Command parsedCommand = Parser.parse(userCommand);
-                parsedCommand.execute(tasks, ui, storage);
+                Metrics.recordParse(parseStart);
+                workspace.execute(parsedCommand, ui);
                 
                 shouldExit = parsedCommand.isExit();
             } catch (LeoException e) {
                 ui.showError(e.getMessage());
             } finally {
                 ui.showLine();
+                printResponse();
             }
         }
     }
 
+    /**
+     * Prints the rendered response to the console.
+     */
+    private void printResponse() {
+        long start = Metrics.start();
+        System.out.print(response.drain());
+        System.out.flush();
+        Metrics.recordRender(start);
+    }
+
+    /**
+     * Imports or exports a single file, prints the outcome and waits for any changes to be saved.
+     *
+     * @param flag {@code --import} or {@code --export}
+     * @param filePath the file to read or write
+     */
+    void runFileCommand(String flag, String filePath) {
+        try {
+            Command command = flag.equals(IMPORT_FLAG) ? new ImportCommand(filePath) : new ExportCommand(filePath);
+            workspace.execute(command, ui);
+        } catch (LeoException e) {
+            ui.showError(e.getMessage());
+        }
+        printResponse();
+
+        try {
+            workspace.flush();
+        } catch (IOException e) {
+            System.err.println("Could not save: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns whether the arguments ask for a single import or export instead of the interactive loop.
+     *
+     * @param args command line arguments
+     * @return true for {@code --import <file>} or {@code --export <file>}
+     */
+    static boolean isFileCommand(String[] args) {
+        return args.length == 2 && (args[0].equals(IMPORT_FLAG) || args[0].equals(EXPORT_FLAG));
+    }
+
     /**
      * Main entry point for the Leo application.
+     * With {@code --import <file>} or {@code --export <file>}, the file is imported or
+     * written and the program exits.
      *
-     * @param args command line arguments (not used)
+     * @param args command line arguments
      */
     public static void main(String[] args) {
-        new Leo(DEFAULT_TASK_FILE_PATH).run();
+        Leo leo = new Leo(DEFAULT_TASK_FILE_PATH);
+        if (isFileCommand(args)) {
+            leo.runFileCommand(args[0], args[1]);
+        } else {
+            leo.run();
+        }
+
+        try {
+            leo.close();
+        } catch (IOException e) {
+            System.err.println("Could not save: " + e.getMessage());
+        }
     }
 
     /**
-     * Captures the output from a Runnable operation.
+     * Writes any pending changes and, if this session opened its own task file, stops saving in the background.
+     * A session from a {@link LeoEngine} leaves the shared file open for the other sessions.
      *
-     * @param r the runnable to execute
-     * @return the captured output as a string
+     * @throws IOException if writing fails
      */
-    private String captureOutput(Runnable r) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PrintStream prev = System.out;
-        try (PrintStream ps = new PrintStream(baos)) {
-            System.setOut(ps);
-            r.run();
-        } finally {
-            System.setOut(prev);
+    public void close() throws IOException {
+        if (ownsWorkspace) {
+            workspace.close();
+        } else {
+            workspace.flush();
         }
-        return baos.toString().trim();
+    }
+
+    /**
+     * Makes long listings available from {@link #takeRows()} instead of rendering them as text.
+     */
+    synchronized void useRowsView() {
+        ui.setRowsSink((rows, firstNumber, isShowingIds) ->
+                pendingRows = new TaskRows(rows, firstNumber, isShowingIds));
+    }
+
+    /**
+     * Returns the listing produced by the last response, if it was handed over as rows.
+     *
+     * @return the rows, or null if the last response had none
+     */
+    synchronized TaskRows takeRows() {
+        TaskRows rows = pendingRows;
+        pendingRows = null;
+        return rows;
     }
 
     /**
      * Returns the same text the CLI would print at startup.
      */
-    public String getWelcomeMessage() {
-        return captureOutput(() -> ui.showWelcome());
+    public synchronized String getWelcomeMessage() {
+        ui.showWelcome();
+        return response.drain().trim();
     }
 
     /**
-     * Existing getResponse(...) that parses+executes and returns printed text
+     * Parses and executes the input, returning the text the CLI would print.
+     * Each instance renders into its own buffer, so separate instances can serve requests concurrently.
+     *
+     * @throws CancellationException if the thread is interrupted while a read-only command runs;
+     *     the partial output is discarded
      */
-    public String getResponse(String input) {
-        return captureOutput(() -> {
-            try {
-                Command cmd = Parser.parse(input);
-                cmd.execute(tasks, ui, storage);
-            } catch (LeoException e) {
-                ui.showError(e.getMessage());
-            }
-        });
+    public synchronized String getResponse(String input) {
+        pendingRows = null;
+        try {
+            long parseStart = Metrics.start();
+            Command cmd = Parser.parse(input);
+            Metrics.recordParse(parseStart);
+            workspace.execute(cmd, ui);
+        } catch (LeoException e) {
+            ui.showError(e.getMessage());
+        } catch (CancellationException e) {
+            response.drain();
+            throw e;
+        }
+        return response.drain().trim();
+    }
+
+    /**
+     * Returns whether the input is a command that only reads tasks, and so can be
+     * safely cancelled part-way through.
+     *
+     * @param input the user input
+     * @return true for read-only commands such as list and find
+     */
+    static boolean isReadOnlyCommand(String input) {
+        try {
+            return Parser.parse(input).isReadOnly();
+        } catch (LeoException e) {
+            return false;
+        }
     }
 }
@@ -0,0 +1,59 @@
+package leo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hosts many concurrent Leo sessions in one JVM.
+ * Sessions opened on the same file share one task list; each session has its own
+ * output buffer, so different sessions can handle requests in parallel.
+ */
+public class LeoEngine {
+    private final ConcurrentHashMap<Path, Workspace> workspaces = new ConcurrentHashMap<>();
+
+    /**
+     * Opens a new session on the given task file, loading it on first use.
+     *
+     * @param filePath path to the storage file
+     * @return a session whose {@link Leo#getResponse(String)} may be called from any thread
+     */
+    public Leo openSession(String filePath) {
+        Path key = Paths.get(filePath).toAbsolutePath().normalize();
+        Workspace workspace = workspaces.computeIfAbsent(key, path -> Workspace.open(filePath));
+        return new Leo(workspace);
+    }
+
+    /**
+     * Writes pending changes of every open task file to disk.
+     *
+     * @throws IOException if writing any file fails
+     */
+    public void flush() throws IOException {
+        for (Workspace workspace : workspaces.values()) {
+            workspace.flush();
+        }
+    }
+
+    /**
+     * Writes pending changes of every open task file and stops their background savers.
+     * Sessions opened earlier must not be used afterwards.
+     *
+     * @throws IOException if writing any file fails
+     */
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Workspace workspace : workspaces.values()) {
+            try {
+                workspace.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        workspaces.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
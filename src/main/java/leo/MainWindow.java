@@ -4,13 +4,15 @@ import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 /**
  * Controller for the main GUI.
  */
@@ -18,21 +20,32 @@ public class MainWindow extends AnchorPane {
     // Constants for magic numbers
     private static final String BYE_COMMAND = "bye";
     private static final int EXIT_DELAY_MILLIS = 300;
-    
+    // Commands running longer than this show a progress indicator
+    private static final int PROGRESS_DELAY_MILLIS = 250;
+
+    // Conversation history: messages kept in memory (override with -Dleo.historyLimit=N) and older ones on disk
+    private static final int HISTORY_LIMIT = Integer.getInteger("leo.historyLimit", 200);
+    private static final String TRANSCRIPT_PATH = "data/transcript.txt";
+
     // Image paths
     private static final String USER_IMAGE_PATH = "/images/DaUser.png";
     private static final String DUKE_IMAGE_PATH = "/images/DaDuke.png";
     
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ConversationView conversationView;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator progressIndicator;
+    @FXML
+    private Button cancelButton;
 
     private Leo leo;
+    private CommandDispatcher dispatcher;
+    private final PauseTransition progressDelay = new PauseTransition(Duration.millis(PROGRESS_DELAY_MILLIS));
+    private Transcript transcript;
 
     private Image userImage = new Image(this.getClass().getResourceAsStream(USER_IMAGE_PATH));
     private Image dukeImage = new Image(this.getClass().getResourceAsStream(DUKE_IMAGE_PATH));
@@ -42,7 +55,14 @@ public class MainWindow extends AnchorPane {
      */
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        try {
+            transcript = new Transcript(Paths.get(TRANSCRIPT_PATH));
+        } catch (IOException e) {
+            // Without a transcript, messages beyond the history limit are dropped
+            System.err.println("Failed to open transcript: " + e.getMessage());
+        }
+        conversationView.configure(userImage, dukeImage, transcript, HISTORY_LIMIT);
+        progressDelay.setOnFinished(e -> showProgress(dispatcher != null && dispatcher.isBusy()));
     }
 
     /**
@@ -52,33 +72,85 @@ public class MainWindow extends AnchorPane {
      */
     public void setLeo(Leo leoInstance) {
         this.leo = leoInstance;
+        this.dispatcher = new CommandDispatcher(leo, Platform::runLater);
+        leo.useRowsView();
         String welcomeMessage = leo.getWelcomeMessage();
-        DialogBox welcomeDialog = DialogBox.getLeoDialog(welcomeMessage, dukeImage);
-        dialogContainer.getChildren().add(welcomeDialog);
+        conversationView.add(ChatMessage.fromLeo(welcomeMessage));
     }
 
     /**
-     * Handles user input by creating dialog boxes and processing the response.
+     * Handles user input by adding the message to the conversation and running the command in the background.
+     * The reply is added once the command finishes, so the window stays responsive meanwhile.
      */
     @FXML
     private void handleUserInput() {
         String userInputText = userInput.getText();
         userInput.clear();
 
-        String leoResponse = leo.getResponse(userInputText);
-        
-        DialogBox userDialog = DialogBox.getUserDialog(userInputText, userImage);
-        DialogBox leoDialog = DialogBox.getLeoDialog(leoResponse, dukeImage);
-        
-        dialogContainer.getChildren().addAll(userDialog, leoDialog);
+        conversationView.add(ChatMessage.fromUser(userInputText));
+        dispatcher.submit(userInputText, reply -> showReply(userInputText, reply));
+        progressDelay.playFromStart();
+    }
+
+    /**
+     * Cancels the running list or find command.
+     */
+    @FXML
+    private void handleCancel() {
+        dispatcher.cancel();
+    }
+
+    /**
+     * Adds a command's reply to the conversation; runs on the JavaFX application thread.
+     */
+    private void showReply(String userInputText, CommandDispatcher.Reply reply) {
+        conversationView.add(ChatMessage.fromLeo(reply.getText()));
+
+        // Long listings are shown in a virtualized list below the reply
+        if (reply.getRows() != null) {
+            conversationView.add(ChatMessage.ofRows(reply.getRows()));
+        }
+        if (!dispatcher.isBusy()) {
+            progressDelay.stop();
+            showProgress(false);
+        }
 
         String trimmedInput = userInputText.trim();
         boolean isExitCommand = trimmedInput.equalsIgnoreCase(BYE_COMMAND);
         
         if (isExitCommand) {
             PauseTransition exitDelay = new PauseTransition(Duration.millis(EXIT_DELAY_MILLIS));
-            exitDelay.setOnFinished(e -> Platform.exit());
+            exitDelay.setOnFinished(e -> {
+                dispatcher.shutdown();
+                closeTranscript();
+                closeSession();
+                Platform.exit();
+            });
             exitDelay.play();
         }
     }
+
+    private void showProgress(boolean isVisible) {
+        progressIndicator.setVisible(isVisible);
+        cancelButton.setVisible(isVisible);
+    }
+
+    private void closeTranscript() {
+        if (transcript == null) {
+            return;
+        }
+        try {
+            transcript.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close transcript: " + e.getMessage());
+        }
+    }
+
+    private void closeSession() {
+        try {
+            leo.close();
+        } catch (IOException e) {
+            System.err.println("Could not save: " + e.getMessage());
+        }
+    }
 }
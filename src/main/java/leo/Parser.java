@@ -1,21 +1,37 @@
 package leo;
 
 import leo.commands.AddCommand;
+import leo.commands.BatchDeleteCommand;
+import leo.commands.BatchMarkCommand;
+import leo.commands.BatchUnmarkCommand;
+import leo.commands.ClashesCommand;
 import leo.commands.Command;
 import leo.commands.DeleteCommand;
+import leo.commands.DueCommand;
 import leo.commands.ExitCommand;
+import leo.commands.ExportCommand;
 import leo.commands.FindCommand;
 import leo.commands.HelpCommand;
+import leo.commands.ImportCommand;
+import leo.commands.IndexSelection;
 import leo.commands.ListCommand;
 import leo.commands.MarkCommand;
+import leo.commands.RedoCommand;
+import leo.commands.ScheduleCommand;
+import leo.commands.StatsCommand;
+import leo.commands.TaskRef;
+import leo.commands.UndoCommand;
 import leo.commands.UnmarkCommand;
 import leo.tasks.Deadline;
 import leo.tasks.Event;
+import leo.tasks.TaskQuery;
+import leo.tasks.TaskType;
 import leo.tasks.ToDo;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
 
 
 /**
@@ -25,25 +41,48 @@ public class Parser {
     // Command prefixes
     private static final String BYE_COMMAND = "bye";
     private static final String LIST_COMMAND = "list";
-    private static final String MARK_COMMAND = "mark ";
-    private static final String UNMARK_COMMAND = "unmark ";
-    private static final String DELETE_COMMAND = "delete ";
     private static final String HELP_COMMAND = "help";
     private static final String HELP_ALIAS = "h";
+    private static final String OVERDUE_COMMAND = "overdue";
+    private static final String DUE_TODAY_COMMAND = "due today";
+    private static final String DUE_BEFORE_COMMAND = "due before ";
+    private static final String CLASHES_COMMAND = "clashes";
+    private static final String STATS_COMMAND = "stats";
+    private static final String UNDO_COMMAND = "undo";
+    private static final String REDO_COMMAND = "redo";
+    private static final String ON_COMMAND = "on ";
+    private static final String BETWEEN_COMMAND = "between ";
+    private static final String BETWEEN_SEPARATOR = " and ";
+
+    // List paging options, e.g. "list --page 3 --size 50", and "--ids" to show task IDs
+    private static final String PAGE_OPTION = "--page";
+    private static final String SIZE_OPTION = "--size";
+    private static final String IDS_OPTION = "--ids";
+    private static final int DEFAULT_PAGE_SIZE = 50;
 
     // Command parameter separators
     private static final String DEADLINE_SEPARATOR = " /by ";
     private static final String EVENT_FROM_SEPARATOR = " /from ";
     private static final String EVENT_TO_SEPARATOR = " /to ";
 
+    // Flags found by the tokenizer, and their positions in this array
+    private static final String[] FLAGS = {DEADLINE_SEPARATOR, EVENT_FROM_SEPARATOR, EVENT_TO_SEPARATOR};
+    private static final int BY_FLAG = 0;
+    private static final int FROM_FLAG = 1;
+    private static final int TO_FLAG = 2;
+
     // Substring indices for command parsing
     private static final int FIND_KEYWORD_START = 5;
     private static final int TODO_DESC_START = 5;
-    private static final int DEADLINE_BODY_START = 9;
-    private static final int EVENT_BODY_START = 6;
-    private static final int DEADLINE_SEPARATOR_LENGTH = 5;
-    private static final int EVENT_FROM_SEPARATOR_LENGTH = 7;
-    private static final int EVENT_TO_SEPARATOR_LENGTH = 5;
+
+    // "find ~word" ranks tasks by how close their words are to the word
+    private static final String SIMILAR_WORD_PREFIX = "~";
+
+    // "find type:D done:no by<2026-11-01 report" narrows the search by task fields
+    private static final String TYPE_TERM = "type:";
+    private static final String DONE_TERM = "done:";
+    private static final String DUE_TERM = "by";
+    private static final String[] DUE_OPERATORS = {"<=", ">=", "<", ">", ":"};
 
     // Date format
     private static final DateTimeFormatter DEADLINE_IN = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -51,6 +90,13 @@ public class Parser {
     // Index conversion
     private static final int USER_INDEX_TO_ZERO_BASED_OFFSET = 1;
 
+    // Stable task ID syntax, e.g. "#12"
+    private static final char TASK_ID_PREFIX = '#';
+
+    // Batch index syntax, e.g. "1-5,9"
+    private static final char INDEX_LIST_SEPARATOR = ',';
+    private static final char INDEX_RANGE_SEPARATOR = '-';
+
     /**
      * Parses a full user input line into a concrete {@link leo.command.Command}.
      *
@@ -93,65 +139,331 @@ public class Parser {
             return new ListCommand();
         } else if (input.equals(HELP_COMMAND) || input.equals(HELP_ALIAS)) {
             return new HelpCommand();
+        } else if (input.equals(OVERDUE_COMMAND)) {
+            return DueCommand.overdue();
+        } else if (input.equals(CLASHES_COMMAND)) {
+            return new ClashesCommand();
+        } else if (input.equals(STATS_COMMAND)) {
+            return new StatsCommand();
+        } else if (input.equals(UNDO_COMMAND)) {
+            return new UndoCommand();
+        } else if (input.equals(REDO_COMMAND)) {
+            return new RedoCommand();
         } else {
             return null;
         }
     }
 
+    /**
+     * Command words that take parameters.
+     */
+    private enum Keyword {
+        MARK("mark"),
+        UNMARK("unmark"),
+        DELETE("delete"),
+        LIST("list"),
+        FIND("find"),
+        DUE("due"),
+        ON("on"),
+        BETWEEN("between"),
+        TODO("todo"),
+        DEADLINE("deadline"),
+        EVENT("event"),
+        IMPORT("import"),
+        EXPORT("export");
+
+        private final String word;
+
+        Keyword(String word) {
+            this.word = word;
+        }
+    }
+
+    // Keywords grouped by first letter, so dispatch compares against at most a couple of words
+    private static final Keyword[][] KEYWORDS_BY_LETTER = buildKeywordTable();
+
+    private static Keyword[][] buildKeywordTable() {
+        Keyword[][] table = new Keyword[128][0];
+        for (Keyword keyword : Keyword.values()) {
+            char letter = keyword.word.charAt(0);
+            Keyword[] group = Arrays.copyOf(table[letter], table[letter].length + 1);
+            group[group.length - 1] = keyword;
+            table[letter] = group;
+        }
+        return table;
+    }
+
     /**
      * Parses commands that require parameters.
      */
     private static Command parseParameterCommand(String input) throws LeoException {
-        String firstToken = getFirstToken(input);
-
-        switch (firstToken) {
-            case "mark":
-                return parseIndexCommand(input, MARK_COMMAND, MarkCommand::new);
-            case "unmark":
-                return parseIndexCommand(input, UNMARK_COMMAND, UnmarkCommand::new);
-            case "delete":
-                return parseIndexCommand(input, DELETE_COMMAND, DeleteCommand::new);
-            case "find":
+        Tokenizer tokens = new Tokenizer(input, FLAGS);
+        Keyword keyword = findKeyword(tokens);
+        if (keyword == null) {
+            // No parameter command matched - this is expected behavior
+            return null;
+        }
+
+        switch (keyword) {
+            case MARK:
+                return parseIndexCommand(input, tokens, MarkCommand::new, BatchMarkCommand::new);
+            case UNMARK:
+                return parseIndexCommand(input, tokens, UnmarkCommand::new, BatchUnmarkCommand::new);
+            case DELETE:
+                return parseIndexCommand(input, tokens, DeleteCommand::new, BatchDeleteCommand::new);
+            case LIST:
+                return parseListCommand(input, tokens);
+            case FIND:
                 return parseFindCommand(input);
-            case "todo":
+            case DUE:
+                return parseDueCommand(input);
+            case ON:
+                return parseOnCommand(input);
+            case BETWEEN:
+                return parseBetweenCommand(input);
+            case TODO:
                 return parseTodoCommand(input);
-            case "deadline":
-                return parseDeadlineCommand(input);
-            case "event":
-                return parseEventCommand(input);
+            case DEADLINE:
+                return parseDeadlineCommand(input, tokens);
+            case IMPORT:
+                return parseImportCommand(input, tokens);
+            case EXPORT:
+                return parseExportCommand(input, tokens);
             default:
-                // No parameter command matched - this is expected behavior
-                return null;
+                return parseEventCommand(input, tokens);
         }
     }
 
     /**
-     * Extracts the first token (command word) from the input string.
+     * Looks up the command word in the keyword table without copying it out of the input.
      */
-    private static String getFirstToken(String input) {
-        int spaceIndex = input.indexOf(' ');
-        if (spaceIndex == -1) {
-            return input.trim();
+    private static Keyword findKeyword(Tokenizer tokens) {
+        char letter = tokens.wordStart();
+        if (letter >= KEYWORDS_BY_LETTER.length) {
+            return null;
+        }
+        for (Keyword keyword : KEYWORDS_BY_LETTER[letter]) {
+            if (tokens.isWord(keyword.word)) {
+                return keyword;
+            }
         }
-        return input.substring(0, spaceIndex).trim();
+        return null;
     }
 
     /**
      * Parses commands that require an index parameter.
+     * A task ID (e.g. "#12") may be given instead of the index, and a list or range
+     * of indices (e.g. "1-5,9") produces the batch variant of the command.
      */
-    private static Command parseIndexCommand(String input, String commandPrefix,
-                                             IndexCommandFactory factory) throws LeoException {
-        String trimmedCommandPrefix = commandPrefix.trim();
-        int taskIndex = parseIndex(input, trimmedCommandPrefix);
-        return factory.create(taskIndex);
+    private static Command parseIndexCommand(String input, Tokenizer tokens, IndexCommandFactory factory,
+                                             BatchCommandFactory batchFactory) throws LeoException {
+        String indexPart = input.substring(tokens.argumentStart());
+        if (!indexPart.isEmpty() && indexPart.charAt(0) == TASK_ID_PREFIX) {
+            return factory.create(TaskRef.ofId(parseTaskId(indexPart)));
+        }
+        if (isIndexSelection(indexPart)) {
+            return batchFactory.create(parseIndexSelection(indexPart));
+        }
+
+        int taskIndex = parseIndex(indexPart);
+        return factory.create(TaskRef.ofIndex(taskIndex));
     }
 
     /**
-     * Functional interface for creating index-based commands.
+     * Functional interface for creating commands that act on one task.
      */
     @FunctionalInterface
     private interface IndexCommandFactory {
-        Command create(int index) throws LeoException;
+        Command create(TaskRef target) throws LeoException;
+    }
+
+    /**
+     * Functional interface for creating commands that act on several indices.
+     */
+    @FunctionalInterface
+    private interface BatchCommandFactory {
+        Command create(IndexSelection selection) throws LeoException;
+    }
+
+    /**
+     * Checks whether the index part lists several indices rather than a single number.
+     */
+    private static boolean isIndexSelection(String indexPart) {
+        // A leading '-' is a sign, not a range
+        return indexPart.indexOf(INDEX_LIST_SEPARATOR) != -1
+                || indexPart.indexOf(INDEX_RANGE_SEPARATOR, 1) != -1;
+    }
+
+    /**
+     * Parses a comma-separated list of 1-based indices and ranges into 0-based ranges.
+     */
+    private static IndexSelection parseIndexSelection(String indexPart) throws LeoException {
+        IndexSelection selection = new IndexSelection();
+        for (String item : indexPart.split(String.valueOf(INDEX_LIST_SEPARATOR))) {
+            String trimmedItem = item.trim();
+            int rangeIdx = trimmedItem.indexOf(INDEX_RANGE_SEPARATOR, 1);
+
+            int from;
+            int to;
+            try {
+                if (rangeIdx == -1) {
+                    from = Integer.parseInt(trimmedItem);
+                    to = from;
+                } else {
+                    from = Integer.parseInt(trimmedItem.substring(0, rangeIdx).trim());
+                    to = Integer.parseInt(trimmedItem.substring(rangeIdx + 1).trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new LeoException("Not a valid number");
+            }
+
+            if (from > to) {
+                throw new LeoException("Invalid range: " + trimmedItem);
+            }
+            selection.addRange(from - USER_INDEX_TO_ZERO_BASED_OFFSET, to - USER_INDEX_TO_ZERO_BASED_OFFSET);
+        }
+        return selection;
+    }
+
+    /**
+     * Parses a list command with paging options and the option to show task IDs.
+     */
+    private static Command parseListCommand(String input, Tokenizer tokens) throws LeoException {
+        int page = 1;
+        int pageSize = DEFAULT_PAGE_SIZE;
+        boolean isPaged = false;
+        boolean isShowingIds = false;
+        int position = tokens.argumentStart();
+        while (position < input.length()) {
+            int optionEnd = wordEnd(input, position);
+            String option = input.substring(position, optionEnd);
+            if (option.equals(IDS_OPTION)) {
+                isShowingIds = true;
+                position = Tokenizer.trimStart(input, optionEnd, input.length());
+                continue;
+            }
+            if (!option.equals(PAGE_OPTION) && !option.equals(SIZE_OPTION)) {
+                throw new LeoException("Unknown list option: " + option);
+            }
+            int valueStart = Tokenizer.trimStart(input, optionEnd, input.length());
+            if (valueStart == input.length()) {
+                throw new LeoException("Missing value for " + option);
+            }
+
+            int valueEnd = wordEnd(input, valueStart);
+            int value = parsePositiveNumber(input.substring(valueStart, valueEnd));
+            position = Tokenizer.trimStart(input, valueEnd, input.length());
+            isPaged = true;
+            if (option.equals(PAGE_OPTION)) {
+                page = value;
+            } else {
+                pageSize = value;
+            }
+        }
+        return isPaged ? new ListCommand(page, pageSize, isShowingIds) : new ListCommand(0, 0, isShowingIds);
+    }
+
+    /**
+     * Returns the end of the blank-separated word starting at {@code from}.
+     */
+    private static int wordEnd(String input, int from) {
+        int end = from;
+        while (end < input.length() && input.charAt(end) > ' ') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Parses a number that must be at least 1.
+     */
+    private static int parsePositiveNumber(String token) throws LeoException {
+        try {
+            int value = Integer.parseInt(token);
+            if (value >= 1) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the error below
+        }
+        throw new LeoException("Not a valid number");
+    }
+
+    /**
+     * Parses the due command: "due today" or "due before yyyy-MM-dd".
+     */
+    private static Command parseDueCommand(String input) throws LeoException {
+        if (input.equals(DUE_TODAY_COMMAND)) {
+            return DueCommand.today();
+        }
+        if (!input.startsWith(DUE_BEFORE_COMMAND)) {
+            throw new LeoException("Use: due today, or due before yyyy-MM-dd");
+        }
+
+        String date = input.substring(DUE_BEFORE_COMMAND.length()).trim();
+        try {
+            return DueCommand.before(LocalDate.parse(date, DEADLINE_IN));
+        } catch (DateTimeParseException e) {
+            throw new LeoException("Invalid date format. Enter like yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * Parses the on command: "on yyyy-MM-dd".
+     */
+    private static Command parseOnCommand(String input) throws LeoException {
+        if (!input.startsWith(ON_COMMAND)) {
+            throw new LeoException("Use: on yyyy-MM-dd");
+        }
+
+        return ScheduleCommand.on(parseDate(input.substring(ON_COMMAND.length())));
+    }
+
+    /**
+     * Parses the between command: "between yyyy-MM-dd and yyyy-MM-dd".
+     */
+    private static Command parseBetweenCommand(String input) throws LeoException {
+        int andIdx = input.indexOf(BETWEEN_SEPARATOR);
+        if (!input.startsWith(BETWEEN_COMMAND) || andIdx == -1) {
+            throw new LeoException("Use: between yyyy-MM-dd and yyyy-MM-dd");
+        }
+
+        LocalDate first = parseDate(input.substring(BETWEEN_COMMAND.length(), andIdx));
+        LocalDate last = parseDate(input.substring(andIdx + BETWEEN_SEPARATOR.length()));
+        if (last.isBefore(first)) {
+            throw new LeoException("The second date must not be before the first");
+        }
+        return ScheduleCommand.between(first, last);
+    }
+
+    private static LocalDate parseDate(String date) throws LeoException {
+        try {
+            return LocalDate.parse(date.trim(), DEADLINE_IN);
+        } catch (DateTimeParseException e) {
+            throw new LeoException("Invalid date format. Enter like yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * Parses the import command: "import <file>".
+     */
+    private static Command parseImportCommand(String input, Tokenizer tokens) throws LeoException {
+        String path = input.substring(tokens.argumentStart());
+        if (path.isEmpty()) {
+            throw new LeoException("Import what? Provide a file path!");
+        }
+        return new ImportCommand(path);
+    }
+
+    /**
+     * Parses the export command: "export <file>".
+     */
+    private static Command parseExportCommand(String input, Tokenizer tokens) throws LeoException {
+        String path = input.substring(tokens.argumentStart());
+        if (path.isEmpty()) {
+            throw new LeoException("Export where? Provide a file path!");
+        }
+        return new ExportCommand(path);
     }
 
     /**
@@ -164,7 +476,129 @@ public class Parser {
         }
         
         String searchKeyword = input.substring(FIND_KEYWORD_START);
-        return new FindCommand(searchKeyword);
+        if (searchKeyword.startsWith(SIMILAR_WORD_PREFIX)) {
+            return new FindCommand(searchKeyword.substring(SIMILAR_WORD_PREFIX.length()), true);
+        }
+        TaskQuery query = parseFindQuery(searchKeyword);
+        return query == null ? new FindCommand(searchKeyword) : new FindCommand(query);
+    }
+
+    /**
+     * Parses the field terms of a find query; the other words, joined by single spaces, form the keyword.
+     * A word only counts as a field term if its value is valid, so "find bytes" or "find type:writer"
+     * still search for that word. Returns null if there are no field terms, so a plain keyword is
+     * searched for exactly as typed.
+     */
+    private static TaskQuery parseFindQuery(String text) {
+        TaskQuery query = TaskQuery.all();
+        StringBuilder keyword = new StringBuilder();
+        boolean hasFieldTerm = false;
+        int length = text.length();
+        int termEnd = 0;
+        for (int termStart = Tokenizer.trimStart(text, 0, length); termStart < length;
+                termStart = Tokenizer.trimStart(text, termEnd, length)) {
+            termEnd = termStart;
+            while (termEnd < length && text.charAt(termEnd) > ' ') {
+                termEnd++;
+            }
+            String term = text.substring(termStart, termEnd);
+            TaskQuery narrowed = narrowByTerm(query, term);
+            if (narrowed != null) {
+                query = narrowed;
+                hasFieldTerm = true;
+            } else {
+                if (keyword.length() > 0) {
+                    keyword.append(' ');
+                }
+                keyword.append(term);
+            }
+        }
+
+        if (!hasFieldTerm) {
+            return null;
+        }
+        return keyword.length() == 0 ? query : query.withKeyword(keyword.toString());
+    }
+
+    /**
+     * Narrows a query by a field term such as "type:D", "done:no" or "by<2026-11-01".
+     *
+     * @return the narrowed query, or null if the word is not a valid field term
+     */
+    private static TaskQuery narrowByTerm(TaskQuery query, String term) {
+        if (term.startsWith(TYPE_TERM)) {
+            TaskType type = taskTypeOf(term.substring(TYPE_TERM.length()));
+            return type == null ? null : query.withType(type);
+        }
+        if (term.startsWith(DONE_TERM)) {
+            Boolean isDone = doneStatusOf(term.substring(DONE_TERM.length()));
+            return isDone == null ? null : query.withDone(isDone);
+        }
+
+        String operator = dueOperatorOf(term);
+        LocalDate date = operator == null ? null : dateOf(term.substring(DUE_TERM.length() + operator.length()));
+        if (date == null) {
+            return null;
+        }
+        switch (operator) {
+            case "<":
+                return query.withDueBefore(date);
+            case "<=":
+                return query.withDueBefore(date.plusDays(1));
+            case ">":
+                return query.withDueFrom(date.plusDays(1));
+            case ">=":
+                return query.withDueFrom(date);
+            default:
+                return query.withDueFrom(date).withDueBefore(date.plusDays(1));
+        }
+    }
+
+    private static TaskType taskTypeOf(String value) {
+        switch (value.toLowerCase()) {
+            case "t":
+            case "todo":
+                return TaskType.TODO;
+            case "d":
+            case "deadline":
+                return TaskType.DEADLINE;
+            case "e":
+            case "event":
+                return TaskType.EVENT;
+            default:
+                return null;
+        }
+    }
+
+    private static Boolean doneStatusOf(String value) {
+        switch (value.toLowerCase()) {
+            case "yes":
+                return true;
+            case "no":
+                return false;
+            default:
+                return null;
+        }
+    }
+
+    private static String dueOperatorOf(String term) {
+        if (!term.startsWith(DUE_TERM)) {
+            return null;
+        }
+        for (String operator : DUE_OPERATORS) {
+            if (term.startsWith(operator, DUE_TERM.length())) {
+                return operator;
+            }
+        }
+        return null;
+    }
+
+    private static LocalDate dateOf(String value) {
+        try {
+            return LocalDate.parse(value, DEADLINE_IN);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 
     /**
@@ -179,24 +613,35 @@ public class Parser {
     /**
      * Parses the deadline command.
      */
-    private static Command parseDeadlineCommand(String input) throws LeoException {
-        Deadline newDeadline = parseDeadline(input);
+    private static Command parseDeadlineCommand(String input, Tokenizer tokens) throws LeoException {
+        Deadline newDeadline = parseDeadline(input, tokens);
         return new AddCommand(newDeadline);
     }
 
     /**
      * Parses the event command.
      */
-    private static Command parseEventCommand(String input) throws LeoException {
-        Event newEvent = parseEvent(input);
+    private static Command parseEventCommand(String input, Tokenizer tokens) throws LeoException {
+        Event newEvent = parseEvent(input, tokens);
         return new AddCommand(newEvent);
     }
 
-    private static int parseIndex(String input, String commandWord) throws LeoException {
-        // Extract the index part after the command word
-        int commandWordLength = commandWord.length();
-        String indexPart = input.substring(commandWordLength).trim();
+    /**
+     * Parses a task ID written as "#" followed by a positive number.
+     */
+    private static long parseTaskId(String idPart) throws LeoException {
+        try {
+            long id = Long.parseLong(idPart.substring(1));
+            if (id >= 1) {
+                return id;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the error below
+        }
+        throw new LeoException("Not a valid task ID: " + idPart);
+    }
 
+    private static int parseIndex(String indexPart) throws LeoException {
         if (indexPart.isEmpty()) {
             throw new LeoException("No number was inputted");
         }
@@ -227,21 +672,16 @@ public class Parser {
         return desc;
     }
 
-    private static Deadline parseDeadline(String input) throws LeoException {
-        // Check if input is too short to contain deadline command
-        if (input.length() <= DEADLINE_BODY_START) {
-            throw new LeoException("Wrong format. Input: deadline <description> /by <deadline>");
-        }
-        
-        String body = input.substring(DEADLINE_BODY_START).trim();
-        int byIdx = body.indexOf(DEADLINE_SEPARATOR);
-
+    private static Deadline parseDeadline(String input, Tokenizer tokens) throws LeoException {
+        // The tokenizer already found the first /by in the arguments
+        int bodyStart = tokens.argumentStart();
+        int byIdx = tokens.flagPosition(BY_FLAG);
         if (byIdx == -1) {
             throw new LeoException("Wrong format. Input: deadline <description> /by <deadline>");
         }
 
-        String desc = body.substring(0, byIdx).trim();
-        String by = body.substring(byIdx + DEADLINE_SEPARATOR_LENGTH).trim();
+        String desc = Tokenizer.trimmed(input, bodyStart, byIdx);
+        String by = Tokenizer.trimmed(input, byIdx + DEADLINE_SEPARATOR.length(), input.length());
 
         // Check if description and date are both non-empty
         boolean isDescriptionEmpty = desc.isEmpty();
@@ -258,15 +698,11 @@ public class Parser {
         }
     }
 
-    private static Event parseEvent(String input) throws LeoException {
-        // Check if input is too short to contain event command
-        if (input.length() <= EVENT_BODY_START) {
-            throw new LeoException("Wrong format. Input:  event <description> /from <start> /to <end>");
-        }
-        
-        String body = input.substring(EVENT_BODY_START).trim();
-        int fromIdx = body.indexOf(EVENT_FROM_SEPARATOR);
-        int toIdx = body.indexOf(EVENT_TO_SEPARATOR);
+    private static Event parseEvent(String input, Tokenizer tokens) throws LeoException {
+        // The tokenizer already found the first /from and /to in the arguments
+        int bodyStart = tokens.argumentStart();
+        int fromIdx = tokens.flagPosition(FROM_FLAG);
+        int toIdx = tokens.flagPosition(TO_FLAG);
 
         // Check if separators exist and are in correct order
         boolean isFromSeparatorMissing = fromIdx == -1;
@@ -277,9 +713,9 @@ public class Parser {
             throw new LeoException("Wrong format. Input:  event <description> /from <start> /to <end>");
         }
 
-        String desc = body.substring(0, fromIdx).trim();
-        String from = body.substring(fromIdx + EVENT_FROM_SEPARATOR_LENGTH, toIdx).trim();
-        String to = body.substring(toIdx + EVENT_TO_SEPARATOR_LENGTH).trim();
+        String desc = Tokenizer.trimmed(input, bodyStart, fromIdx);
+        String from = Tokenizer.trimmed(input, fromIdx + EVENT_FROM_SEPARATOR.length(), toIdx);
+        String to = Tokenizer.trimmed(input, toIdx + EVENT_TO_SEPARATOR.length(), input.length());
 
         // Check if all required fields are non-empty
         boolean isDescriptionEmpty = desc.isEmpty();
@@ -0,0 +1,46 @@
+package leo;
+
+/**
+ * Collects rendered output in a reusable in-memory buffer.
+ * Each session owns one, so sessions never share or swap {@code System.out}.
+ * A buffer can also stream to a downstream sink, passing text on in chunks
+ * so a long response never has to be held in memory at once.
+ */
+public class ResponseBuffer implements ResponseSink {
+    private final StringBuilder buffer = new StringBuilder();
+    private ResponseSink downstream; // null when everything is kept until drained
+    private int chunkChars;
+
+    @Override
+    public void print(String text) {
+        buffer.append(text);
+        if (downstream != null && buffer.length() >= chunkChars) {
+            downstream.print(drain());
+        }
+    }
+
+    /**
+     * Passes buffered text on to the given sink whenever at least {@code chunkChars}
+     * characters have accumulated. Whatever is left is still returned by {@link #drain()}.
+     *
+     * @param downstream the sink that receives full chunks
+     * @param chunkChars the chunk size in characters
+     */
+    public void streamTo(ResponseSink downstream, int chunkChars) {
+        assert chunkChars > 0 : "Chunk size must be positive";
+        this.downstream = downstream;
+        this.chunkChars = chunkChars;
+    }
+
+    /**
+     * Returns everything written since the last drain and empties the buffer,
+     * keeping its capacity for the next response.
+     *
+     * @return the buffered text
+     */
+    public String drain() {
+        String text = buffer.toString();
+        buffer.setLength(0);
+        return text;
+    }
+}
@@ -0,0 +1,24 @@
+package leo;
+
+/**
+ * Destination for the text that {@link Ui} renders in response to a command.
+ */
+@FunctionalInterface
+public interface ResponseSink {
+    /**
+     * Writes text without a trailing line break.
+     *
+     * @param text the text to write
+     */
+    void print(String text);
+
+    /**
+     * Writes a line of text followed by a line break.
+     *
+     * @param line the line to write
+     */
+    default void println(String line) {
+        print(line);
+        print(System.lineSeparator());
+    }
+}
@@ -0,0 +1,34 @@
+package leo;
+
+import leo.tasks.Task;
+
+import java.util.List;
+
+/**
+ * A listing of tasks handed to the GUI as rows rather than text.
+ */
+class TaskRows {
+    private final List<Task> rows;
+    private final int firstNumber;
+    private final boolean isShowingIds;
+
+    TaskRows(List<Task> rows, int firstNumber, boolean isShowingIds) {
+        this.rows = rows;
+        this.firstNumber = firstNumber;
+        this.isShowingIds = isShowingIds;
+    }
+
+    List<Task> getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the text of one row as the console would print it, with its ID if the listing shows IDs.
+     *
+     * @param index the 0-based index of the row
+     * @return the row text
+     */
+    String formatRow(int index) {
+        return Ui.formatRow(firstNumber + index, rows.get(index), isShowingIds);
+    }
+}
@@ -0,0 +1,21 @@
+package leo;
+
+import leo.tasks.Task;
+
+import java.util.List;
+
+/**
+ * Destination for long task listings that a front end can display row by row,
+ * instead of receiving every row as text.
+ */
+@FunctionalInterface
+public interface TaskRowsSink {
+    /**
+     * Receives the rows of a listing.
+     *
+     * @param rows the tasks to display, which the receiver must not modify
+     * @param firstNumber the 1-based number shown for the first row
+     * @param isShowingIds whether to show each task's ID before it
+     */
+    void showRows(List<Task> rows, int firstNumber, boolean isShowingIds);
+}
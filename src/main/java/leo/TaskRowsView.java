@@ -0,0 +1,45 @@
+package leo;
+
+import javafx.collections.FXCollections;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import leo.tasks.Task;
+
+/**
+ * Virtualized view of a long task listing.
+ * The ListView only creates cells for the rows on screen, so a task's text is
+ * built when its row scrolls into view rather than for the whole listing up front.
+ */
+public class TaskRowsView extends ListView<Task> {
+    private static final double VIEW_HEIGHT = 320.0;
+    private static final double ROW_HEIGHT = 24.0;
+
+    private TaskRows rows;
+
+    /**
+     * Creates an empty view to be filled with {@link #setRows(TaskRows)}.
+     */
+    TaskRowsView() {
+        setFixedCellSize(ROW_HEIGHT);
+        setPrefHeight(VIEW_HEIGHT);
+        setCellFactory(view -> new ListCell<>() {
+            @Override
+            protected void updateItem(Task task, boolean isEmpty) {
+                super.updateItem(task, isEmpty);
+                setText(isEmpty || task == null ? null : rows.formatRow(getIndex()));
+            }
+        });
+    }
+
+    /**
+     * Shows the given rows without copying them, replacing any shown before,
+     * so a conversation cell can reuse one view as it scrolls.
+     *
+     * @param rows the listing to display
+     */
+    void setRows(TaskRows rows) {
+        this.rows = rows;
+        setItems(FXCollections.observableList(rows.getRows()));
+        scrollTo(0);
+    }
+}
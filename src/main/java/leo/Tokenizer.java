@@ -0,0 +1,169 @@
+package leo;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass scanner for one line of input, shared by {@link Parser} and the storage loader.
+ *
+ * <p>One scan finds the command word, where its arguments start and the first position
+ * of each flag (such as {@code " /by "}), so callers cut out only the substrings they keep.
+ * No regular expressions are used.
+ */
+public final class Tokenizer {
+    private final String line;
+    private final int wordEnd;
+    private final int argumentStart;
+    private final int[] flagPositions;
+
+    /**
+     * Scans a trimmed line.
+     *
+     * @param line the line, already trimmed
+     * @param flags the flags to look for, each starting with {@code " /"}
+     */
+    public Tokenizer(String line, String[] flags) {
+        this.line = line;
+        this.flagPositions = new int[flags.length];
+        Arrays.fill(flagPositions, -1);
+
+        int length = line.length();
+        int spaceIdx = -1;
+        int argStart = length;
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(i) != ' ') {
+                if (spaceIdx != -1 && argStart == length && line.charAt(i) > ' ') {
+                    argStart = i;
+                }
+                continue;
+            }
+            if (spaceIdx == -1) {
+                spaceIdx = i;
+            }
+            // Flags only count inside the arguments, and only their first occurrence is kept
+            if (argStart != length && i + 1 < length && line.charAt(i + 1) == '/') {
+                recordFlag(flags, i);
+            }
+        }
+
+        this.wordEnd = spaceIdx == -1 ? trimEnd(line, 0, length) : trimEnd(line, 0, spaceIdx);
+        this.argumentStart = argStart;
+    }
+
+    private void recordFlag(String[] flags, int position) {
+        for (int f = 0; f < flags.length; f++) {
+            if (flagPositions[f] == -1 && line.startsWith(flags[f], position)) {
+                flagPositions[f] = position;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the command word is exactly the given word, without copying it.
+     *
+     * @param word the word to compare with
+     * @return true if the command word matches
+     */
+    public boolean isWord(String word) {
+        return wordEnd == word.length() && line.startsWith(word);
+    }
+
+    /**
+     * Returns the first character of the command word.
+     *
+     * @return the character, or 0 for an empty line
+     */
+    public char wordStart() {
+        return line.isEmpty() ? 0 : line.charAt(0);
+    }
+
+    /**
+     * Returns where the arguments after the command word start.
+     *
+     * @return the index of the first non-blank character after the first space, or the line length
+     */
+    public int argumentStart() {
+        return argumentStart;
+    }
+
+    /**
+     * Returns where a flag first occurs in the arguments.
+     *
+     * @param flag the index of the flag in the array given when scanning
+     * @return the position of its leading space, or -1 if it does not occur
+     */
+    public int flagPosition(int flag) {
+        return flagPositions[flag];
+    }
+
+    /**
+     * Splits a line on a separator character, trimming each field.
+     * Only the trimmed fields are copied out of the line.
+     *
+     * @param line the line to split
+     * @param separator the field separator
+     * @param expectedFields how many fields a line usually has, to size the result
+     * @return the trimmed fields; a line without separators gives one field
+     */
+    public static String[] split(String line, char separator, int expectedFields) {
+        String[] fields = new String[Math.max(1, expectedFields)];
+        int count = 0;
+        int fieldStart = 0;
+        int length = line.length();
+        for (int i = 0; i <= length; i++) {
+            if (i < length && line.charAt(i) != separator) {
+                continue;
+            }
+            if (count == fields.length) {
+                fields = Arrays.copyOf(fields, count * 2);
+            }
+            fields[count++] = trimmed(line, fieldStart, i);
+            fieldStart = i + 1;
+        }
+        return count == fields.length ? fields : Arrays.copyOf(fields, count);
+    }
+
+    /**
+     * Copies out {@code [from, to)} without leading or trailing blanks.
+     *
+     * @param text the text to copy from
+     * @param from the first index
+     * @param to the end index, exclusive
+     * @return the trimmed text
+     */
+    public static String trimmed(String text, int from, int to) {
+        int start = trimStart(text, from, to);
+        return text.substring(start, trimEnd(text, start, to));
+    }
+
+    /**
+     * Returns the index of the first non-blank character in {@code [from, to)}, or {@code to}.
+     *
+     * @param text the text to scan
+     * @param from the first index
+     * @param to the end index, exclusive
+     * @return the index
+     */
+    public static int trimStart(String text, int from, int to) {
+        int i = from;
+        while (i < to && text.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the end of {@code [from, to)} once trailing blanks are dropped.
+     *
+     * @param text the text to scan
+     * @param from the first index
+     * @param to the end index, exclusive
+     * @return the trimmed end index, exclusive
+     */
+    public static int trimEnd(String text, int from, int to) {
+        int i = to;
+        while (i > from && text.charAt(i - 1) <= ' ') {
+            i--;
+        }
+        return i;
+    }
+}
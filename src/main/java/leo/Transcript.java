@@ -0,0 +1,135 @@
+package leo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only, on-disk record of a GUI conversation.
+ * Every message is written as one line, and the offset of each line is kept in
+ * memory so any range of older messages can be read back with a single read.
+ */
+class Transcript implements Closeable {
+    private static final String SEPARATOR = " | ";
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final FileChannel channel;
+    private long[] offsets = new long[INITIAL_CAPACITY]; // offsets[i] is where message i starts
+    private int size;
+    private long end;
+
+    /**
+     * Starts a new transcript at the given path, replacing any earlier one.
+     *
+     * @param path the transcript file
+     * @throws IOException if the file cannot be created
+     */
+    Transcript(Path path) throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Returns the number of messages written so far.
+     *
+     * @return the message count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Appends a message; listings are recorded by their summary text.
+     *
+     * @param message the message to append
+     * @throws IOException if writing fails
+     */
+    void append(ChatMessage message) throws IOException {
+        String line = message.getSpeaker().name() + SEPARATOR + escape(message.getText()) + "\n";
+        ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        long start = end;
+        while (bytes.hasRemaining()) {
+            end += channel.write(bytes, end);
+        }
+
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+        }
+        offsets[size++] = start;
+    }
+
+    /**
+     * Reads back the messages in the given range.
+     *
+     * @param fromIndex the first message, inclusive
+     * @param toIndex the last message, exclusive
+     * @return the messages, oldest first
+     * @throws IOException if reading fails
+     */
+    List<ChatMessage> read(int fromIndex, int toIndex) throws IOException {
+        assert 0 <= fromIndex && fromIndex <= toIndex && toIndex <= size : "range out of bounds";
+        long start = offsets[fromIndex];
+        long stop = toIndex == size ? end : offsets[toIndex];
+        ByteBuffer bytes = ByteBuffer.allocate((int) (stop - start));
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, start + bytes.position()) < 0) {
+                throw new IOException("Transcript ended unexpectedly");
+            }
+        }
+
+        String text = new String(bytes.array(), StandardCharsets.UTF_8);
+        List<ChatMessage> messages = new ArrayList<>(toIndex - fromIndex);
+        int lineStart = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            messages.add(parse(text.substring(lineStart, lineEnd)));
+            lineStart = lineEnd + 1;
+        }
+        return messages;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static ChatMessage parse(String line) {
+        int separatorIndex = line.indexOf(SEPARATOR);
+        ChatMessage.Speaker speaker = ChatMessage.Speaker.valueOf(line.substring(0, separatorIndex));
+        return ChatMessage.of(speaker, unescape(line.substring(separatorIndex + SEPARATOR.length())));
+    }
+
+    /**
+     * Keeps each message on one line by escaping backslashes and line breaks.
+     */
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\r", "\\r").replace("\n", "\\n");
+    }
+
+    private static String unescape(String text) {
+        StringBuilder unescaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != '\\' || i + 1 == text.length()) {
+                unescaped.append(c);
+                continue;
+            }
+
+            char escaped = text.charAt(++i);
+            unescaped.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+        }
+        return unescaped.toString();
+    }
+}
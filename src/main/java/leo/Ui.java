@@ -5,17 +5,50 @@ import leo.tasks.TaskList;
 
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CancellationException;
 
 /**
- * Console UI helpers for displaying output and reading input.
+ * UI helpers for rendering output into a {@link ResponseSink} and reading console input.
  */
 public class Ui {
 
-    private static final int HELP_COL_WIDTH = 32;
+    private static final int HELP_COL_WIDTH = 40; // fits the longest command form
     private static final String HELP_LINE_FORMAT = "  %-" + HELP_COL_WIDTH + "s %s%n";
 
+    // Listings up to this many rows are always printed as text
+    private static final int INLINE_ROW_LIMIT = 20;
+    private static final int CANCEL_CHECK_MASK = (1 << 12) - 1;
+
     // Create a scanner object
     private final Scanner scanner = new Scanner(System.in);
+    private final ResponseSink out;
+    private TaskRowsSink rowsSink; // null when every row is printed as text
+
+    /**
+     * Creates a Ui that prints straight to the console.
+     */
+    public Ui() {
+        this(System.out::print);
+    }
+
+    /**
+     * Creates a Ui that renders into the given sink.
+     *
+     * @param out the destination for rendered output
+     */
+    public Ui(ResponseSink out) {
+        this.out = out;
+    }
+
+    /**
+     * Hands listings longer than {@value #INLINE_ROW_LIMIT} rows to the given sink instead of printing them,
+     * so a front end can render only the rows on screen.
+     *
+     * @param rowsSink the receiver of long listings
+     */
+    public void setRowsSink(TaskRowsSink rowsSink) {
+        this.rowsSink = rowsSink;
+    }
 
     /**
      * To display any errors
@@ -23,9 +56,9 @@ public class Ui {
      * @param msg the error message
      */
     public void showError(String msg) {
-        System.out.println("__________________________________________________________________");
-        System.out.println(" " + msg);
-        System.out.println("__________________________________________________________________");
+        out.println("__________________________________________________________________");
+        out.println(" " + msg);
+        out.println("__________________________________________________________________");
     }
 
     /**
@@ -41,7 +74,7 @@ public class Ui {
      * Prints a horizontal separator line.
      */
     public void showLine() {
-        System.out.println("__________________________________________________________________");
+        out.println("__________________________________________________________________");
     }
 
     /**
@@ -64,11 +97,11 @@ public class Ui {
             + "███▌    ▄   ███    ███ ███    ███\n"
             + "█████▄▄██   ██████████  ▀██████▀\n"
             + "▀\n";
-        System.out.println(logo);
+        out.println(logo);
 
         showLine();
-        System.out.println(" Hello! I'm Leo");
-        System.out.println(" What can I do for you?");
+        out.println(" Hello! I'm Leo");
+        out.println(" What can I do for you?");
         showLine();
     }
 
@@ -77,7 +110,7 @@ public class Ui {
      */
     public void showBye() {
         showLine();
-        System.out.println(" Bye. Hope to see you again soon!");
+        out.println(" Bye. Hope to see you again soon!");
         showLine();
     }
 
@@ -89,9 +122,90 @@ public class Ui {
      */
     public void showAdded(Task task, int newSize) {
         showLine();
-        System.out.println(" Got it. I've added this task:");
-        System.out.println("   " + task);
-        System.out.println(" Now you have " + newSize + " tasks in the list.");
+        out.println(" Got it. I've added this task:");
+        out.println("   " + task);
+        out.println(" Now you have " + newSize + " tasks in the list.");
+        showLine();
+    }
+
+    /**
+     * Displays the result of importing tasks from a file.
+     *
+     * @param importedCount number of tasks added
+     * @param newSize new size of updated list of tasks
+     * @param errors messages for the first lines that could not be imported
+     * @param errorCount number of lines that could not be imported
+     */
+    public void showImported(int importedCount, int newSize, List<String> errors, int errorCount) {
+        showLine();
+        out.println(" Imported " + importedCount + " tasks. Now you have " + newSize + " tasks in the list.");
+        if (errorCount > 0) {
+            out.println(" Skipped " + errorCount + " lines:");
+            for (String error : errors) {
+                out.println("   " + error);
+            }
+            if (errorCount > errors.size()) {
+                out.println("   ... and " + (errorCount - errors.size()) + " more");
+            }
+        }
+        showLine();
+    }
+
+    /**
+     * Displays the changes made by undoing or redoing a command.
+     *
+     * @param isRedo whether the changes were redone rather than undone
+     * @param changes descriptions of the first changes made
+     * @param changeCount number of changes made
+     * @param newSize new size of updated list of tasks
+     */
+    public void showUndone(boolean isRedo, List<String> changes, int changeCount, int newSize) {
+        showLine();
+        out.println(isRedo ? " Redone. I've:" : " Undone. I've:");
+        for (String change : changes) {
+            out.println("   " + change);
+        }
+        if (changeCount > changes.size()) {
+            out.println("   ... and " + (changeCount - changes.size()) + " more");
+        }
+        out.println(" Now you have " + newSize + " tasks in the list.");
+        showLine();
+    }
+
+    /**
+     * Displays the result of exporting tasks to a file.
+     *
+     * @param exportedCount number of tasks written
+     * @param skippedCount number of tasks the format could not hold
+     * @param filePath the file written
+     */
+    public void showExported(int exportedCount, int skippedCount, String filePath) {
+        showLine();
+        out.println(" Exported " + exportedCount + " tasks to " + filePath + ".");
+        if (skippedCount > 0) {
+            out.println(" Left out " + skippedCount + " events without dates, which this format cannot hold.");
+        }
+        showLine();
+    }
+
+    /**
+     * Displays command counts, latencies and storage I/O.
+     *
+     * @param isEnabled whether metrics are being collected
+     * @param report the report lines
+     */
+    public void showStats(boolean isEnabled, List<String> report) {
+        showLine();
+        if (!isEnabled) {
+            out.println(" Metrics are off. Start Leo with -Dleo.metrics=true to collect them.");
+            showLine();
+            return;
+        }
+
+        out.println(" Here is where the time went:");
+        for (String line : report) {
+            out.println("   " + line);
+        }
         showLine();
     }
 
@@ -103,9 +217,9 @@ public class Ui {
      */
     public void showRemoved(Task task, int newSize) {
         showLine();
-        System.out.println(" Noted. I've removed this task:");
-        System.out.println("   " + task);
-        System.out.println(" Now you have " + newSize + " tasks in the list.");
+        out.println(" Noted. I've removed this task:");
+        out.println("   " + task);
+        out.println(" Now you have " + newSize + " tasks in the list.");
         showLine();
     }
 
@@ -116,8 +230,8 @@ public class Ui {
      */
     public void showMarked(Task task) {
         showLine();
-        System.out.println(" Nice! I've marked this task as done:");
-        System.out.println("   " + task);
+        out.println(" Nice! I've marked this task as done:");
+        out.println("   " + task);
         showLine();
     }
 
@@ -128,24 +242,90 @@ public class Ui {
      */
     public void showUnmarked(Task task) {
         showLine();
-        System.out.println(" OK, I've marked this task as not done yet:");
-        System.out.println("   " + task);
+        out.println(" OK, I've marked this task as not done yet:");
+        out.println("   " + task);
+        showLine();
+    }
+
+    /**
+     * Only displays the message if several tasks are removed at once
+     *
+     * @param removed tasks that were removed.
+     * @param newSize new size of updated list of tasks.
+     */
+    public void showRemoved(List<Task> removed, int newSize) {
+        showLine();
+        out.println(" Noted. I've removed these " + removed.size() + " tasks:");
+        printTasks(removed);
+        out.println(" Now you have " + newSize + " tasks in the list.");
         showLine();
     }
 
+    /**
+     * Only displays the message if several tasks are marked as done at once
+     *
+     * @param marked tasks that were marked as done
+     */
+    public void showMarked(List<Task> marked) {
+        showLine();
+        out.println(" Nice! I've marked these " + marked.size() + " tasks as done:");
+        printTasks(marked);
+        showLine();
+    }
+
+    /**
+     * Only displays the message if several tasks are marked as undone at once
+     *
+     * @param unmarked tasks that were marked as undone
+     */
+    public void showUnmarked(List<Task> unmarked) {
+        showLine();
+        out.println(" OK, I've marked these " + unmarked.size() + " tasks as not done yet:");
+        printTasks(unmarked);
+        showLine();
+    }
+
+    private void printTasks(List<Task> tasks) {
+        for (Task task : tasks) {
+            out.println("   " + task);
+        }
+    }
+
     /**
      * Displays the current list of tasks, formatted with all details
      *
      * @param tasks current list of tasks
      */
     public void showList(TaskList tasks) {
+        showList(tasks, false);
+    }
+
+    /**
+     * Displays the current list of tasks, optionally with each task's stable ID
+     *
+     * @param tasks current list of tasks
+     * @param isShowingIds whether to show the ID before each task
+     */
+    public void showList(TaskList tasks, boolean isShowingIds) {
         showLine();
-        System.out.println(" Here are the tasks in your list:");
-        for (int i = 0; i < tasks.size(); i++) {
-            int displayNumber = i + 1; // Convert 0-based index to 1-based display
-            Task currentTask = tasks.get(i);
-            System.out.println(" " + displayNumber + ". " + currentTask);
-        }
+        out.println(" Here are the tasks in your list:");
+        printRows(tasks.snapshot(), 1, isShowingIds); // consistent even if another session edits the list
+        showLine();
+    }
+
+    /**
+     * Displays one page of the task list, numbering rows by their position in the whole list.
+     *
+     * @param rows the tasks on the page
+     * @param page the 1-based page number
+     * @param pageCount the total number of pages
+     * @param firstNumber the 1-based number of the first task on the page
+     * @param isShowingIds whether to show the ID before each task
+     */
+    public void showListPage(List<Task> rows, int page, int pageCount, int firstNumber, boolean isShowingIds) {
+        showLine();
+        out.println(" Here are the tasks in your list (page " + page + " of " + pageCount + "):");
+        printRows(rows, firstNumber, isShowingIds);
         showLine();
     }
 
@@ -158,40 +338,173 @@ public class Ui {
         showLine();
 
         if (matches.isEmpty()) {
-            System.out.println(" No matching tasks found.");
+            out.println(" No matching tasks found.");
+            showLine();
+            return;
+        }
+
+        out.println(" Here are the matching tasks in your list:");
+        printRows(matches, 1);
+        showLine();
+    }
+
+    /**
+     * Displays the tasks with a word closest to a searched word, closest first.
+     *
+     * @param matches the ranked tasks
+     */
+    public void showSimilarResults(List<Task> matches) {
+        showLine();
+
+        if (matches.isEmpty()) {
+            out.println(" No tasks have a similar word.");
+            showLine();
+            return;
+        }
+
+        out.println(" Here are the closest matches in your list:");
+        printRows(matches, 1);
+        showLine();
+    }
+
+    /**
+     * Displays unfinished deadlines in a date range, earliest first.
+     *
+     * @param dueTasks the deadlines to show
+     * @param heading describes the range, e.g. "due today" or "overdue"
+     */
+    public void showDueTasks(List<Task> dueTasks, String heading) {
+        showLine();
+
+        if (dueTasks.isEmpty()) {
+            out.println(" No unfinished tasks are " + heading + ".");
+            showLine();
+            return;
+        }
+
+        out.println(" Here are the unfinished tasks " + heading + ":");
+        printRows(dueTasks, 1);
+        showLine();
+    }
+
+    /**
+     * Displays scheduled events in a range of days, earliest first.
+     *
+     * @param events the events to show
+     * @param heading describes the range, e.g. "on Oct 18 2026"
+     */
+    public void showScheduledEvents(List<Task> events, String heading) {
+        showLine();
+
+        if (events.isEmpty()) {
+            out.println(" No events are scheduled " + heading + ".");
             showLine();
             return;
         }
 
-        System.out.println(" Here are the matching tasks in your list:");
-        for (int i = 0; i < matches.size(); i++) {
-            int displayNumber = i + 1; // Convert 0-based index to 1-based display
-            Task matchingTask = matches.get(i);
-            System.out.println(" " + displayNumber + ". " + matchingTask);
+        out.println(" Here are the events scheduled " + heading + ":");
+        printRows(events, 1);
+        showLine();
+    }
+
+    /**
+     * Displays pairs of scheduled events whose times overlap.
+     *
+     * @param clashes the clashing pairs, each holding two events
+     */
+    public void showClashes(List<Task[]> clashes) {
+        showLine();
+
+        if (clashes.isEmpty()) {
+            out.println(" None of your events clash.");
+            showLine();
+            return;
+        }
+
+        out.println(" These events clash:");
+        for (int i = 0; i < clashes.size(); i++) {
+            if ((i & CANCEL_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+            Task[] pair = clashes.get(i);
+            out.println(" " + (i + 1) + ". " + pair[0]);
+            out.println("    " + pair[1]);
         }
         showLine();
     }
 
+    /**
+     * Prints numbered rows, or hands them to the rows sink if there are too many to print.
+     */
+    private void printRows(List<Task> rows, int firstNumber) {
+        printRows(rows, firstNumber, false);
+    }
+
+    /**
+     * Prints numbered rows, with IDs if asked, or hands them to the rows sink if there are too many to print.
+     */
+    private void printRows(List<Task> rows, int firstNumber, boolean isShowingIds) {
+        if (rowsSink != null && rows.size() > INLINE_ROW_LIMIT) {
+            rowsSink.showRows(rows, firstNumber, isShowingIds);
+            return;
+        }
+
+        for (int i = 0; i < rows.size(); i++) {
+            // Long listings can be cancelled by interrupting the rendering thread
+            if ((i & CANCEL_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+            out.println(" " + formatRow(firstNumber + i, rows.get(i), isShowingIds));
+        }
+    }
+
+    /**
+     * Formats one numbered row of a listing, as printed and as shown by the GUI.
+     *
+     * @param displayNumber the 1-based number shown for the row
+     * @param task the task in the row
+     * @param isShowingIds whether to show the ID before the task
+     * @return the row text
+     */
+    static String formatRow(int displayNumber, Task task, boolean isShowingIds) {
+        return displayNumber + ". " + (isShowingIds ? "#" + task.getId() + " " : "") + task;
+    }
+
     public void showHelp() {
         showLine();
-        System.out.println(" Available Commands\n");
+        out.println(" Available Commands\n");
 
         printSection("TASK MANAGEMENT", new String[][]{
             {"todo <desc>", "Add a new todo task"},
             {"deadline <desc> /by yyyy-MM-dd", "Add a task with a deadline"},
-            {"event <desc> /from <start> /to <end>", "Add an event with a time range"}
+            {"event <desc> /from <start> /to <end>", "Add an event with a time range"},
+            {"import <file>", "Add every task listed in a file"},
+            {"export <file>", "Write all tasks to a .csv, .jsonl or .ics file"}
         });
 
         printSection("TASK OPERATIONS", new String[][]{
             {"list", "Show all tasks"},
+            {"list --page <n> --size <m>", "Show one page of tasks"},
+            {"list --ids", "Show all tasks with their IDs"},
             {"find <keyword>", "Search tasks by keyword"},
+            {"find ~<word>", "Show the best matches for a word, allowing typos"},
+            {"find type:D done:no by<date> <keyword>", "Search by task type, status and due date"},
+            {"due today | due before <date>", "Show unfinished deadlines due"},
+            {"overdue", "Show unfinished deadlines that have passed"},
+            {"on <date> | between <date> and <date>", "Show events scheduled"},
+            {"clashes", "Show events whose times overlap"},
             {"mark <index>", "Mark task as done"},
             {"unmark <index>", "Mark task as not done"},
-            {"delete <index>", "Delete task at index"}
+            {"delete <index>", "Delete task at index"},
+            {"mark/unmark/delete 1-5,9", "Apply to several tasks at once"},
+            {"mark/unmark/delete #<id>", "Apply to the task with that ID"},
+            {"undo", "Reverse the last change"},
+            {"redo", "Apply the last undone change again"}
         });
 
         printSection("MISC", new String[][]{
             {"help (or h)", "Show this help message"},
+            {"stats", "Show command counts and timings"},
             {"bye", "Exit the program"}
         });
 
@@ -199,10 +512,10 @@ public class Ui {
     }
 
     private void printSection(String title, String[][] entries) {
-        System.out.println(" " + title);
+        out.println(" " + title);
         for (String[] entry : entries) {
-            System.out.printf(HELP_LINE_FORMAT, entry[0], entry[1]);
+            out.print(String.format(HELP_LINE_FORMAT, entry[0], entry[1]));
         }
-        System.out.println();
+        out.println("");
     }
 }
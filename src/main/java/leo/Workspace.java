@@ -0,0 +1,115 @@
+package leo;
+
+import leo.commands.Command;
+import leo.metrics.Metrics;
+import leo.storage.Storage;
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A task list and its storage, shared by every session working on the same file.
+ */
+class Workspace {
+    // Changes made within this window are written to disk together
+    private static final long SAVE_COALESCE_WINDOW_MILLIS = 200;
+
+    // Start Java with -Dleo.columnarTasks=true to hold very large lists in compact columns
+    private static final boolean IS_COLUMNAR = Boolean.getBoolean("leo.columnarTasks");
+
+    // Start Java with -Dleo.persistUndo=true to keep the undo history across restarts
+    private static final boolean IS_UNDO_PERSISTED = Boolean.getBoolean("leo.persistUndo");
+
+    private final Storage storage;
+    private final TaskList tasks;
+    private final boolean hasLoadingError;
+    private final Object mutationLock = new Object();
+
+    private Workspace(Storage storage, TaskList tasks, boolean hasLoadingError) {
+        this.storage = storage;
+        this.tasks = tasks;
+        this.hasLoadingError = hasLoadingError;
+    }
+
+    /**
+     * Loads the tasks saved at the given path, starting empty if they cannot be read.
+     *
+     * @param filePath path to the storage file
+     * @return the loaded workspace
+     */
+    static Workspace open(String filePath) {
+        Storage storage = new Storage(filePath, true);
+        if (IS_UNDO_PERSISTED) {
+            storage.persistUndoHistory();
+        }
+
+        // Load existing tasks or start with empty list
+        TaskList tasks;
+        boolean hasLoadingError = false;
+        try {
+            List<Task> loadedTasks = storage.load();
+            tasks = new TaskList(loadedTasks, IS_COLUMNAR);
+        } catch (LeoException e) {
+            hasLoadingError = true;
+            tasks = new TaskList(null, IS_COLUMNAR);
+        }
+        tasks.setRestorable(storage.getUndoHistory()::canRestore);
+        storage.startAsyncSaves(SAVE_COALESCE_WINDOW_MILLIS);
+        return new Workspace(storage, tasks, hasLoadingError);
+    }
+
+    /**
+     * Returns whether the saved tasks could not be loaded.
+     *
+     * @return true if the workspace started empty because loading failed
+     */
+    boolean hasLoadingError() {
+        return hasLoadingError;
+    }
+
+    /**
+     * Executes a command against this workspace.
+     * Read-only commands run concurrently; commands that modify tasks run one at a
+     * time, so storage records changes in the same order they were applied.
+     *
+     * @param command the command to execute
+     * @param ui the UI of the session that issued the command
+     * @throws LeoException if execution fails for a user-facing reason
+     */
+    void execute(Command command, Ui ui) throws LeoException {
+        if (command.isReadOnly()) {
+            long start = Metrics.start();
+            command.execute(tasks, ui, storage);
+            Metrics.recordCommand(command.getClass(), start);
+            return;
+        }
+
+        synchronized (mutationLock) {
+            long start = Metrics.start();
+            command.execute(tasks, ui, storage);
+            Metrics.recordCommand(command.getClass(), start);
+        }
+    }
+
+    /**
+     * Writes any pending changes to disk.
+     *
+     * @throws IOException if writing fails
+     */
+    void flush() throws IOException {
+        storage.flush();
+    }
+
+    /**
+     * Writes any pending changes and stops saving in the background.
+     *
+     * @throws IOException if writing fails
+     */
+    void close() throws IOException {
+        synchronized (mutationLock) {
+            storage.close();
+        }
+    }
+}
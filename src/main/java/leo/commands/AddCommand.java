@@ -2,6 +2,7 @@ package leo.commands;
 
 import leo.LeoException;
 import leo.Ui;
+import leo.storage.JournalEntry;
 import leo.storage.Storage;
 import leo.tasks.Task;
 import leo.tasks.TaskList;
@@ -30,7 +31,7 @@ public class AddCommand extends Command {
     public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
         tasks.add(task);
         ui.showAdded(task, tasks.size());
-        saveTasksToStorage(tasks, ui, storage);
+        saveTasksToStorage(tasks, ui, storage, JournalEntry.added(task));
     }
 
 }
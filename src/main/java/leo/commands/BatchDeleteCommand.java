@@ -0,0 +1,41 @@
+package leo.commands;
+
+import leo.LeoException;
+import leo.Ui;
+import leo.storage.JournalEntry;
+import leo.storage.Storage;
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+
+import java.util.List;
+
+/**
+ * Command that deletes several tasks in one pass and saves the remaining list once.
+ */
+public class BatchDeleteCommand extends Command {
+    private final IndexSelection selection;
+
+    public BatchDeleteCommand(IndexSelection selection) {
+        this.selection = selection;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
+        // Guard clause - validate every index before changing anything
+        int[] indices = selection.resolve(tasks);
+
+        // Happy path - remove all selected tasks in a single compaction
+        List<Task> removed = tasks.removeAll(indices);
+        ui.showRemoved(removed, tasks.size());
+
+        // Journal the deletes from the back so replaying them one by one sees the same indices
+        JournalEntry[] entries = new JournalEntry[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            int k = indices.length - 1 - i;
+            entries[i] = JournalEntry.deleted(indices[k], removed.get(k));
+        }
+
+        // Save changes
+        saveTasksToStorage(tasks, ui, storage, entries);
+    }
+}
@@ -0,0 +1,46 @@
+package leo.commands;
+
+import leo.LeoException;
+import leo.Ui;
+import leo.storage.JournalEntry;
+import leo.storage.Storage;
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command that marks several tasks as not done and saves the list once.
+ */
+public class BatchUnmarkCommand extends Command {
+    private final IndexSelection selection;
+
+    public BatchUnmarkCommand(IndexSelection selection) {
+        this.selection = selection;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
+        // Guard clause - validate every index before changing anything
+        int[] indices = selection.resolve(tasks);
+
+        // Happy path - mark each task that is done as not done
+        List<Task> unmarked = new ArrayList<>(indices.length);
+        List<JournalEntry> entries = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            Task task = tasks.get(index);
+            if (task.isDone()) {
+                task = tasks.setDone(index, false);
+                entries.add(JournalEntry.unmarked(index));
+            }
+            unmarked.add(task);
+        }
+        ui.showUnmarked(unmarked);
+
+        // Save changes, if any task actually changed
+        if (!entries.isEmpty()) {
+            saveTasksToStorage(tasks, ui, storage, entries.toArray(new JournalEntry[0]));
+        }
+    }
+}
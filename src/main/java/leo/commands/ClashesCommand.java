@@ -0,0 +1,21 @@
+package leo.commands;
+
+import leo.Ui;
+import leo.storage.Storage;
+import leo.tasks.TaskList;
+
+/**
+ * Command that shows every pair of scheduled events whose times overlap.
+ */
+public class ClashesCommand extends Command {
+    // Storage not used: only reads, does not save
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        ui.showClashes(tasks.findClashes());
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
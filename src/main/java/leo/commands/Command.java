@@ -2,6 +2,7 @@ package leo.commands;
 
 import leo.LeoException;
 import leo.Ui;
+import leo.storage.JournalEntry;
 import leo.storage.Storage;
 import leo.tasks.TaskList;
 
@@ -32,16 +33,41 @@ public abstract class Command {
     }
 
     /**
-     * Saves tasks to storage with error handling.
+     * Determines whether the command only reads the task list.
+     * Read-only commands may run concurrently with other sessions' commands;
+     * all others are run one at a time per task list.
+     *
+     * @return true if the command never modifies tasks or storage
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Saves tasks to storage with error handling, and records the changes so they can be undone.
      * Centralized method to avoid duplication across command classes.
      *
      * @param tasks the task list to save
      * @param ui the UI helper for displaying errors
      * @param storage the storage facility
+     * @param entries the mutations applied by this command, journaled when supported
+     */
+    protected void saveTasksToStorage(TaskList tasks, Ui ui, Storage storage, JournalEntry... entries) {
+        storage.getUndoHistory().record(entries);
+        saveChanges(tasks, ui, storage, entries);
+    }
+
+    /**
+     * Saves tasks to storage with error handling, without recording the changes for undo.
+     *
+     * @param tasks the task list to save
+     * @param ui the UI helper for displaying errors
+     * @param storage the storage facility
+     * @param entries the mutations to journal
      */
-    protected void saveTasksToStorage(TaskList tasks, Ui ui, Storage storage) {
+    protected void saveChanges(TaskList tasks, Ui ui, Storage storage, JournalEntry... entries) {
         try {
-            storage.save(tasks.list());
+            storage.record(tasks.list(), entries);
         } catch (IOException e) {
             ui.showError("Could not save: " + e.getMessage());
         }
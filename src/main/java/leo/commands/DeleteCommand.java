@@ -2,6 +2,7 @@ package leo.commands;
 
 import leo.LeoException;
 import leo.Ui;
+import leo.storage.JournalEntry;
 import leo.storage.Storage;
 import leo.tasks.Task;
 import leo.tasks.TaskList;
@@ -10,24 +11,28 @@ import leo.tasks.TaskList;
  * Command that deletes a task and saves the remaining list to storage.
  */
 public class DeleteCommand extends Command {
-    private final int index;
+    private final TaskRef target;
 
     public DeleteCommand(int index) {
-        this.index = index;
+        this(TaskRef.ofIndex(index));
+    }
+
+    public DeleteCommand(TaskRef target) {
+        this.target = target;
     }
 
     // Use Storage to save changes
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
-        // Guard clause - validate index early
-        tasks.validateIndex(index);
+        // Guard clause - find the task's current index, validating it early
+        int index = target.resolve(tasks);
         
         // Happy path - remove task
         Task removed = tasks.remove(index);
         ui.showRemoved(removed, tasks.size());
         
         // Save changes
-        saveTasksToStorage(tasks, ui, storage);
+        saveTasksToStorage(tasks, ui, storage, JournalEntry.deleted(index, removed));
     }
 
 }
@@ -0,0 +1,89 @@
+package leo.commands;
+
+import leo.Ui;
+import leo.storage.Storage;
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Command that shows unfinished deadlines due in a date range.
+ */
+public class DueCommand extends Command {
+    private static final DateTimeFormatter DATE_OUTPUT = DateTimeFormatter.ofPattern("MMM d yyyy");
+
+    /**
+     * The date ranges that can be asked for.
+     */
+    private enum Period {
+        TODAY,
+        BEFORE,
+        OVERDUE
+    }
+
+    private final Period period;
+    private final LocalDate before; // only for BEFORE
+
+    private DueCommand(Period period, LocalDate before) {
+        this.period = period;
+        this.before = before;
+    }
+
+    /**
+     * Creates a command that shows deadlines due today.
+     *
+     * @return the command
+     */
+    public static DueCommand today() {
+        return new DueCommand(Period.TODAY, null);
+    }
+
+    /**
+     * Creates a command that shows deadlines due before a date.
+     *
+     * @param date the first day not included
+     * @return the command
+     */
+    public static DueCommand before(LocalDate date) {
+        return new DueCommand(Period.BEFORE, date);
+    }
+
+    /**
+     * Creates a command that shows deadlines that have passed.
+     *
+     * @return the command
+     */
+    public static DueCommand overdue() {
+        return new DueCommand(Period.OVERDUE, null);
+    }
+
+    // Storage not used: only reads, does not save
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        LocalDate today = LocalDate.now();
+        List<Task> dueTasks;
+        String heading;
+        switch (period) {
+            case TODAY:
+                dueTasks = tasks.findDue(today, today.plusDays(1));
+                heading = "due today";
+                break;
+            case BEFORE:
+                dueTasks = tasks.findDue(null, before);
+                heading = "due before " + before.format(DATE_OUTPUT);
+                break;
+            default:
+                dueTasks = tasks.findDue(null, today);
+                heading = "overdue";
+        }
+        ui.showDueTasks(dueTasks, heading);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -4,13 +4,20 @@ import leo.Ui;
 import leo.storage.Storage;
 import leo.tasks.TaskList;
 
+import java.io.IOException;
+
 /**
  * Command that terminates the application.
  */
 public class ExitCommand extends Command {
-    // Storage, tasks not used: only display bye msg
+    // Tasks not used: only waits for pending saves and displays bye msg
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) {
+        try {
+            storage.flush();
+        } catch (IOException e) {
+            ui.showError("Could not save: " + e.getMessage());
+        }
         ui.showBye();
     }
 
@@ -0,0 +1,46 @@
+package leo.commands;
+
+import leo.LeoException;
+import leo.Ui;
+import leo.storage.Storage;
+import leo.storage.TaskExporter;
+import leo.tasks.TaskList;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Command that writes every task to a CSV, JSON Lines or iCalendar file.
+ */
+public class ExportCommand extends Command {
+    private final String filePath;
+    private final TaskExporter.Format format;
+
+    /**
+     * Creates a command that exports to the given file, in the format its extension names.
+     *
+     * @param filePath the file to write
+     * @throws LeoException if the extension is not .csv, .jsonl or .ics
+     */
+    public ExportCommand(String filePath) throws LeoException {
+        this.filePath = filePath;
+        this.format = TaskExporter.Format.fromFileName(filePath);
+        if (format == null) {
+            throw new LeoException("Export to a .csv, .jsonl or .ics file");
+        }
+    }
+
+    // Storage not used: the export goes to its own file.
+    // Not read-only, so other sessions' changes wait and the file is one consistent copy of the list.
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
+        int total = tasks.size();
+        int written;
+        try {
+            written = TaskExporter.export(tasks, Paths.get(filePath), format);
+        } catch (IOException e) {
+            throw new LeoException("Could not export: " + e.getMessage());
+        }
+        ui.showExported(written, total - written, filePath);
+    }
+}
@@ -5,25 +5,73 @@ import leo.Ui;
 import leo.storage.Storage;
 import leo.tasks.Task;
 import leo.tasks.TaskList;
+import leo.tasks.TaskQuery;
 
 import java.util.List;
 
 /**
- * Command that searches tasks by keyword and shows matches.
+ * Command that searches tasks by keyword and shows matches, searches by a query over
+ * several task fields, or shows the tasks with a word closest to a possibly misspelled one.
  */
 public class FindCommand extends Command {
+    private static final int SIMILAR_RESULT_LIMIT = 10;
+
     private final String keyword;
+    private final boolean isSimilar;
+    private final TaskQuery query;
 
     public FindCommand(String keyword) {
+        this(keyword, false);
+    }
+
+    /**
+     * Creates a find command.
+     *
+     * @param keyword the keyword to look for
+     * @param isSimilar true to rank tasks by how close their words are to the keyword
+     */
+    public FindCommand(String keyword, boolean isSimilar) {
         this.keyword = keyword;
+        this.isSimilar = isSimilar;
+        this.query = null;
+    }
+
+    /**
+     * Creates a find command for a query over task fields.
+     *
+     * @param query the query tasks must match
+     */
+    public FindCommand(TaskQuery query) {
+        this.keyword = null;
+        this.isSimilar = false;
+        this.query = query;
     }
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
+        if (query != null) {
+            ui.showFindResults(tasks.find(query));
+            return;
+        }
         if (keyword.trim().isEmpty()) {
             throw new LeoException("Find what? Provide a keyword!");
         }
-        List<Task> matches = tasks.find(keyword.trim());
-        ui.showFindResults(matches);
+        if (!isSimilar) {
+            List<Task> matches = tasks.find(keyword.trim());
+            ui.showFindResults(matches);
+            return;
+        }
+
+        // Guard clause - words are runs of letters and digits, so nothing else can be close
+        String word = keyword.trim();
+        if (!word.chars().allMatch(Character::isLetterOrDigit)) {
+            throw new LeoException("Find ~ takes a single word, e.g. find ~report");
+        }
+        ui.showSimilarResults(tasks.findSimilar(word, SIMILAR_RESULT_LIMIT));
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 }
@@ -12,4 +12,9 @@ public class HelpCommand extends Command {
     public void execute(TaskList tasks, Ui ui, Storage storage) {
         ui.showHelp();
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
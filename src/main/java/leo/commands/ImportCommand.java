@@ -0,0 +1,179 @@
+package leo.commands;
+
+import leo.LeoException;
+import leo.Parser;
+import leo.Ui;
+import leo.storage.JournalEntry;
+import leo.storage.Storage;
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command that adds every task in a file and saves the list once at the end.
+ *
+ * <p>The file holds either one todo, deadline or event command per line, or, if its name
+ * ends in {@code .csv}, rows of {@code type,description,start,end,done} as written by
+ * {@code export}, where {@code done} may be left out. Lines are parsed as
+ * they are read and added in batches; a bad line is reported and skipped.
+ */
+public class ImportCommand extends Command {
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String CSV_HEADER_START = "type,";
+    private static final int BATCH_SIZE = 4096;
+    private static final int BUFFER_CHARS = 1 << 16;
+    private static final int REPORTED_ERROR_LIMIT = 10;
+    private static final int DONE_FIELD = 4;
+
+    private final String filePath;
+
+    public ImportCommand(String filePath) {
+        this.filePath = filePath;
+    }
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
+        Path path = Paths.get(filePath);
+        boolean isCsv = filePath.toLowerCase().endsWith(CSV_EXTENSION);
+
+        BufferedReader reader;
+        try {
+            reader = new BufferedReader(Files.newBufferedReader(path, StandardCharsets.UTF_8), BUFFER_CHARS);
+        } catch (NoSuchFileException e) {
+            throw new LeoException("No such file: " + filePath);
+        } catch (IOException e) {
+            throw new LeoException("Could not read " + filePath + ": " + e.getMessage());
+        }
+
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        List<JournalEntry> entries = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int errorCount = 0;
+        try (reader) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (isCsv && lineNumber == 1 && line.startsWith(CSV_HEADER_START))) {
+                    continue;
+                }
+
+                try {
+                    Task task = isCsv ? parseCsvTask(line) : parseTask(line);
+                    batch.add(task);
+                    entries.add(JournalEntry.added(task));
+                } catch (LeoException e) {
+                    if (errors.size() < REPORTED_ERROR_LIMIT) {
+                        errors.add("Line " + lineNumber + ": " + e.getMessage());
+                    }
+                    errorCount++;
+                }
+
+                if (batch.size() == BATCH_SIZE) {
+                    tasks.addAll(batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Keep the lines read so far, so they are saved with the rest
+            errors.add("Stopped reading: " + e.getMessage());
+            errorCount++;
+        }
+        tasks.addAll(batch);
+
+        ui.showImported(entries.size(), tasks.size(), errors, errorCount);
+        if (!entries.isEmpty()) {
+            saveTasksToStorage(tasks, ui, storage, entries.toArray(new JournalEntry[0]));
+        }
+    }
+
+    /**
+     * Parses one line into the task it adds.
+     */
+    private static Task parseTask(String line) throws LeoException {
+        Command command = Parser.parse(line);
+        if (!(command instanceof AddCommand)) {
+            throw new LeoException("Only todo, deadline and event lines can be imported");
+        }
+        return ((AddCommand) command).getTask();
+    }
+
+    /**
+     * Parses one CSV row into the task it adds, keeping its completion status.
+     */
+    private static Task parseCsvTask(String row) throws LeoException {
+        List<String> fields = splitCsv(row);
+        Task task = parseTask(csvToCommand(fields));
+        if (field(fields, DONE_FIELD).trim().equals("true")) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Turns a CSV row of {@code type,description,start,end} into the command that adds it.
+     * Fields may be quoted with {@code "}, doubling any quote inside them.
+     */
+    static String csvToCommand(String row) throws LeoException {
+        return csvToCommand(splitCsv(row));
+    }
+
+    private static String csvToCommand(List<String> fields) throws LeoException {
+        String type = fields.get(0).trim();
+        switch (type) {
+            case "todo":
+                return "todo " + field(fields, 1);
+            case "deadline":
+                return "deadline " + field(fields, 1) + " /by " + field(fields, 2);
+            case "event":
+                return "event " + field(fields, 1) + " /from " + field(fields, 2) + " /to " + field(fields, 3);
+            default:
+                throw new LeoException("Unknown task type: " + type);
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : "";
+    }
+
+    private static List<String> splitCsv(String row) throws LeoException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (isQuoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    isQuoted = false;
+                }
+            } else if (c == '"') {
+                isQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (isQuoted) {
+            throw new LeoException("Unclosed quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,69 @@
+package leo.commands;
+
+import leo.LeoException;
+import leo.tasks.TaskList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A set of 0-based task indices given as ranges, such as {@code 1-5,9} on the command line.
+ */
+public class IndexSelection {
+    private final List<int[]> ranges = new ArrayList<>();
+
+    /**
+     * Adds an inclusive range of 0-based indices.
+     *
+     * @param from the first index
+     * @param to the last index, not smaller than {@code from}
+     */
+    public void addRange(int from, int to) {
+        assert from <= to : "Range must not be reversed";
+        ranges.add(new int[]{from, to});
+    }
+
+    /**
+     * Returns the selected indices in ascending order without duplicates.
+     *
+     * @param tasks the task list the indices refer to
+     * @return the sorted, distinct indices
+     * @throws LeoException if any index is out of range for the list
+     */
+    public int[] resolve(TaskList tasks) throws LeoException {
+        // Validate the range ends first so a huge range never gets expanded
+        for (int[] range : ranges) {
+            tasks.validateIndex(range[0]);
+            tasks.validateIndex(range[1]);
+        }
+
+        int[][] sorted = ranges.toArray(new int[0][]);
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a[0], b[0]));
+
+        int[] indices = new int[countDistinct(sorted)];
+        int count = 0;
+        int next = 0; // smallest index not yet emitted
+        for (int[] range : sorted) {
+            for (int i = Math.max(range[0], next); i <= range[1]; i++) {
+                indices[count++] = i;
+            }
+            next = Math.max(next, range[1] + 1);
+        }
+        return indices;
+    }
+
+    /**
+     * Counts the distinct indices in ranges sorted by their first index, clamping each
+     * range to start after the ones before it.
+     */
+    private static int countDistinct(int[][] sorted) {
+        int count = 0;
+        int next = 0;
+        for (int[] range : sorted) {
+            count += Math.max(0, range[1] - Math.max(range[0], next) + 1);
+            next = Math.max(next, range[1] + 1);
+        }
+        return count;
+    }
+}
@@ -1,16 +1,72 @@
 package leo.commands;
 
+import leo.LeoException;
 import leo.Ui;
 import leo.storage.Storage;
+import leo.tasks.Task;
 import leo.tasks.TaskList;
 
+import java.util.List;
+
 /**
- * Command that lists all current tasks.
+ * Command that lists all current tasks, or one page of them.
  */
 public class ListCommand extends Command {
+    private final int page; // 1-based; 0 lists every task
+    private final int pageSize;
+    private final boolean isShowingIds;
+
+    /**
+     * Creates a command that lists every task.
+     */
+    public ListCommand() {
+        this(0, 0, false);
+    }
+
+    /**
+     * Creates a command that lists one page of tasks.
+     *
+     * @param page the 1-based page number
+     * @param pageSize the number of tasks per page
+     */
+    public ListCommand(int page, int pageSize) {
+        this(page, pageSize, false);
+    }
+
+    /**
+     * Creates a command that lists one page of tasks, or every task if the page is 0.
+     *
+     * @param page the 1-based page number, or 0 for every task
+     * @param pageSize the number of tasks per page
+     * @param isShowingIds whether to show each task's stable ID
+     */
+    public ListCommand(int page, int pageSize, boolean isShowingIds) {
+        this.page = page;
+        this.pageSize = pageSize;
+        this.isShowingIds = isShowingIds;
+    }
+
     // Storage not used: only reads, does not save
     @Override
-    public void execute(TaskList tasks, Ui ui, Storage storage) {
-        ui.showList(tasks);
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
+        if (page == 0) {
+            ui.showList(tasks, isShowingIds);
+            return;
+        }
+
+        int pageCount = Math.max(1, (tasks.size() + pageSize - 1) / pageSize);
+        if (page > pageCount) {
+            throw new LeoException("Page " + page + " is out of range (1-" + pageCount + ").");
+        }
+
+        // Only the rows on the page are copied and rendered
+        int fromIndex = (page - 1) * pageSize;
+        List<Task> rows = tasks.snapshot(fromIndex, fromIndex + pageSize);
+        ui.showListPage(rows, page, pageCount, fromIndex + 1, isShowingIds);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 }
@@ -2,6 +2,7 @@ package leo.commands;
 
 import leo.LeoException;
 import leo.Ui;
+import leo.storage.JournalEntry;
 import leo.storage.Storage;
 import leo.tasks.Task;
 import leo.tasks.TaskList;
@@ -10,24 +11,34 @@ import leo.tasks.TaskList;
  * Command that marks a task as done and saves the list.
  */
 public class MarkCommand extends Command {
-    private final int index;
+    private final TaskRef target;
 
     public MarkCommand(int index) {
-        this.index = index;
+        this(TaskRef.ofIndex(index));
+    }
+
+    public MarkCommand(TaskRef target) {
+        this.target = target;
     }
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
-        // Guard clause - validate index early
-        tasks.validateIndex(index);
+        // Guard clause - find the task's current index, validating it early
+        int index = target.resolve(tasks);
         
-        // Happy path - mark task as done
+        // Guard clause - nothing changes, so nothing is saved or recorded for undo
         Task task = tasks.get(index);
-        task.markAsDone();
+        if (task.isDone()) {
+            ui.showMarked(task);
+            return;
+        }
+
+        // Happy path - mark task as done
+        task = tasks.setDone(index, true);
         ui.showMarked(task);
         
         // Save changes
-        saveTasksToStorage(tasks, ui, storage);
+        saveTasksToStorage(tasks, ui, storage, JournalEntry.marked(index));
     }
 
 }
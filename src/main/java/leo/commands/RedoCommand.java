@@ -0,0 +1,22 @@
+package leo.commands;
+
+import leo.LeoException;
+import leo.Ui;
+import leo.storage.JournalEntry;
+import leo.storage.Storage;
+import leo.tasks.TaskList;
+
+/**
+ * Command that applies the last undone change again and saves the list.
+ */
+public class RedoCommand extends Command {
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
+        // Guard clause - the history throws if there is nothing to redo
+        JournalEntry[] applied = storage.getUndoHistory().redo(tasks);
+        ui.showUndone(true, UndoCommand.describe(applied), applied.length, tasks.size());
+
+        // Save changes, leaving the history to track them
+        saveChanges(tasks, ui, storage, applied);
+    }
+}
@@ -0,0 +1,61 @@
+package leo.commands;
+
+import leo.Ui;
+import leo.storage.Storage;
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Command that shows the scheduled events taking place on a day or across a range of days.
+ */
+public class ScheduleCommand extends Command {
+    private static final DateTimeFormatter DATE_OUTPUT = DateTimeFormatter.ofPattern("MMM d yyyy");
+
+    private final LocalDate first;
+    private final LocalDate last;
+
+    private ScheduleCommand(LocalDate first, LocalDate last) {
+        this.first = first;
+        this.last = last;
+    }
+
+    /**
+     * Creates a command that shows the events taking place on a day.
+     *
+     * @param date the day
+     * @return the command
+     */
+    public static ScheduleCommand on(LocalDate date) {
+        return new ScheduleCommand(date, date);
+    }
+
+    /**
+     * Creates a command that shows the events taking place between two days.
+     *
+     * @param first the first day, inclusive
+     * @param last the last day, inclusive
+     * @return the command
+     */
+    public static ScheduleCommand between(LocalDate first, LocalDate last) {
+        return new ScheduleCommand(first, last);
+    }
+
+    // Storage not used: only reads, does not save
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        List<Task> events = tasks.findEvents(first.atStartOfDay(), last.plusDays(1).atStartOfDay());
+        String heading = first.equals(last)
+                ? "on " + first.format(DATE_OUTPUT)
+                : "between " + first.format(DATE_OUTPUT) + " and " + last.format(DATE_OUTPUT);
+        ui.showScheduledEvents(events, heading);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package leo.commands;
+
+import leo.Ui;
+import leo.metrics.Metrics;
+import leo.storage.Storage;
+import leo.tasks.TaskList;
+
+/**
+ * Command that shows how often each kind of command ran and how long it took.
+ */
+public class StatsCommand extends Command {
+    // Tasks and storage not used: only reports metrics
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) {
+        ui.showStats(Metrics.IS_ENABLED, Metrics.report());
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -0,0 +1,60 @@
+package leo.commands;
+
+import leo.LeoException;
+import leo.tasks.TaskList;
+
+/**
+ * A single task given on the command line, either by its position in the list
+ * or by its stable ID, such as {@code #12}.
+ * Unlike a position, an ID keeps naming the same task after other tasks are deleted.
+ */
+public final class TaskRef {
+    private final int index; // 0-based; unused when the ID is set
+    private final long id; // 0 when the task is given by position
+
+    private TaskRef(int index, long id) {
+        this.index = index;
+        this.id = id;
+    }
+
+    /**
+     * Refers to the task at a position.
+     *
+     * @param index the 0-based index
+     * @return the reference
+     */
+    public static TaskRef ofIndex(int index) {
+        return new TaskRef(index, 0);
+    }
+
+    /**
+     * Refers to the task with an ID.
+     *
+     * @param id the task's ID, positive
+     * @return the reference
+     */
+    public static TaskRef ofId(long id) {
+        assert id > 0 : "Task IDs must be positive";
+        return new TaskRef(-1, id);
+    }
+
+    /**
+     * Finds the current position of the task.
+     *
+     * @param tasks the task list to look in
+     * @return the 0-based index of the task
+     * @throws LeoException if the position is out of range or no task has the ID
+     */
+    public int resolve(TaskList tasks) throws LeoException {
+        if (id == 0) {
+            tasks.validateIndex(index);
+            return index;
+        }
+
+        int currentIndex = tasks.indexOfId(id);
+        if (currentIndex == -1) {
+            throw new LeoException("No task has ID #" + id + ".");
+        }
+        return currentIndex;
+    }
+}
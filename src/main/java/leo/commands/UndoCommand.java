@@ -0,0 +1,42 @@
+package leo.commands;
+
+import leo.LeoException;
+import leo.Ui;
+import leo.storage.JournalEntry;
+import leo.storage.Storage;
+import leo.tasks.TaskList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command that reverses the last change made to the list and saves the list.
+ */
+public class UndoCommand extends Command {
+    private static final int REPORTED_CHANGE_LIMIT = 10;
+
+    @Override
+    public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
+        // Guard clause - the history throws if there is nothing to undo
+        JournalEntry[] applied = storage.getUndoHistory().undo(tasks);
+        ui.showUndone(false, describe(applied), applied.length, tasks.size());
+
+        // Save changes, leaving the history to track them
+        saveChanges(tasks, ui, storage, applied);
+    }
+
+    /**
+     * Describes the first changes of an undone or redone command for the user.
+     *
+     * @param entries the changes made
+     * @return at most {@value #REPORTED_CHANGE_LIMIT} descriptions
+     */
+    static List<String> describe(JournalEntry[] entries) {
+        int count = Math.min(entries.length, REPORTED_CHANGE_LIMIT);
+        List<String> changes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            changes.add(entries[i].describe());
+        }
+        return changes;
+    }
+}
@@ -2,6 +2,7 @@ package leo.commands;
 
 import leo.LeoException;
 import leo.Ui;
+import leo.storage.JournalEntry;
 import leo.storage.Storage;
 import leo.tasks.Task;
 import leo.tasks.TaskList;
@@ -10,24 +11,34 @@ import leo.tasks.TaskList;
  * Command that marks a task as not done and saves the list.
  */
 public class UnmarkCommand extends Command {
-    private final int index;
+    private final TaskRef target;
 
     public UnmarkCommand(int index) {
-        this.index = index;
+        this(TaskRef.ofIndex(index));
+    }
+
+    public UnmarkCommand(TaskRef target) {
+        this.target = target;
     }
 
     @Override
     public void execute(TaskList tasks, Ui ui, Storage storage) throws LeoException {
-        // Guard clause - validate index early
-        tasks.validateIndex(index);
+        // Guard clause - find the task's current index, validating it early
+        int index = target.resolve(tasks);
         
-        // Happy path - mark task as not done
+        // Guard clause - nothing changes, so nothing is saved or recorded for undo
         Task task = tasks.get(index);
-        task.markAsNotDone();
+        if (!task.isDone()) {
+            ui.showUnmarked(task);
+            return;
+        }
+
+        // Happy path - mark task as not done
+        task = tasks.setDone(index, false);
         ui.showUnmarked(task);
         
         // Save changes
-        saveTasksToStorage(tasks, ui, storage);
+        saveTasksToStorage(tasks, ui, storage, JournalEntry.unmarked(index));
     }
 
 }
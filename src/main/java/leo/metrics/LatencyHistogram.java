@@ -0,0 +1,119 @@
+package leo.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, in the style of HdrHistogram.
+ *
+ * <p>Values are counted in log-linear buckets: each power of two is split into
+ * {@value #SUB_BUCKET_COUNT} equal sub-buckets, so any recorded value is reported
+ * within about 3% of its true size. Recording is a few atomic increments and never blocks,
+ * so any number of threads can record at once.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE_BITS = 42; // about 73 minutes
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds; larger values than the histogram tracks are clamped
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        if (value > maxNanos.get()) {
+            maxNanos.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return the count
+     */
+    public long count() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded durations.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public long meanNanos() {
+        long count = count();
+        return count == 0 ? 0 : totalNanos.sum() / count;
+    }
+
+    /**
+     * Returns the longest recorded duration.
+     *
+     * @return the maximum in nanoseconds
+     */
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the duration below which the given fraction of recordings fall.
+     * Recordings made while this runs may or may not be counted.
+     *
+     * @param quantile the fraction, from 0 to 1
+     * @return the duration in nanoseconds, or 0 if nothing was recorded
+     */
+    public long valueAtQuantile(double quantile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int bucket = highestBit - SUB_BUCKET_BITS + 1;
+        int subBucket = (int) (value >>> (highestBit - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return bucket * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestValueIn(int index) {
+        int bucket = index / SUB_BUCKET_COUNT;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        if (bucket == 0) {
+            return subBucket;
+        }
+        int shift = bucket - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,196 @@
+package leo.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the hot paths: parsing, running each kind of
+ * command, writing responses to the console and reading and writing storage.
+ *
+ * <p>Start Java with {@code -Dleo.metrics=true} to collect them. When off, every
+ * recording method returns straight away on a constant the JIT folds, and
+ * {@link #start()} does not read the clock. With {@code -Dleo.metricsFile=<path>}, a
+ * report is also appended to that file every {@code -Dleo.metricsIntervalSeconds}
+ * (60 by default).
+ */
+public final class Metrics {
+    public static final boolean IS_ENABLED = Boolean.getBoolean("leo.metrics");
+
+    private static final String DUMP_FILE = System.getProperty("leo.metricsFile");
+    private static final long DUMP_INTERVAL_SECONDS = Long.getLong("leo.metricsIntervalSeconds", 60);
+    private static final double NANOS_PER_MICRO = 1_000.0;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private static final LatencyHistogram PARSE = new LatencyHistogram();
+    private static final LatencyHistogram RENDER = new LatencyHistogram();
+    private static final LatencyHistogram STORAGE_LOAD = new LatencyHistogram();
+    private static final LatencyHistogram STORAGE_SAVE = new LatencyHistogram();
+    private static final LatencyHistogram JOURNAL_APPEND = new LatencyHistogram();
+    private static final Map<String, LatencyHistogram> COMMANDS = new ConcurrentHashMap<>();
+    private static final LongAdder BYTES_READ = new LongAdder();
+    private static final LongAdder BYTES_WRITTEN = new LongAdder();
+
+    static {
+        if (IS_ENABLED && DUMP_FILE != null) {
+            startDumps(Paths.get(DUMP_FILE), DUMP_INTERVAL_SECONDS);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the start time to pass to a recording method.
+     *
+     * @return the current time in nanoseconds, or 0 when metrics are off
+     */
+    public static long start() {
+        return IS_ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records how long parsing one input line took.
+     *
+     * @param startNanos the value {@link #start()} returned before parsing
+     */
+    public static void recordParse(long startNanos) {
+        if (IS_ENABLED) {
+            PARSE.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Records how long running a command took, including rendering its response.
+     *
+     * @param commandType the class of the command
+     * @param startNanos the value {@link #start()} returned before running it
+     */
+    public static void recordCommand(Class<?> commandType, long startNanos) {
+        if (IS_ENABLED) {
+            long nanos = System.nanoTime() - startNanos;
+            COMMANDS.computeIfAbsent(commandType.getSimpleName(), name -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    /**
+     * Records how long writing a response to the console took.
+     *
+     * @param startNanos the value {@link #start()} returned before writing
+     */
+    public static void recordRender(long startNanos) {
+        if (IS_ENABLED) {
+            RENDER.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Records a load of the task file.
+     *
+     * @param startNanos the value {@link #start()} returned before loading
+     * @param bytes the number of bytes read
+     */
+    public static void recordLoad(long startNanos, long bytes) {
+        if (IS_ENABLED) {
+            STORAGE_LOAD.record(System.nanoTime() - startNanos);
+            BYTES_READ.add(bytes);
+        }
+    }
+
+    /**
+     * Records a full save of the task file.
+     *
+     * @param startNanos the value {@link #start()} returned before saving
+     * @param bytes the number of bytes written
+     */
+    public static void recordSave(long startNanos, long bytes) {
+        if (IS_ENABLED) {
+            STORAGE_SAVE.record(System.nanoTime() - startNanos);
+            BYTES_WRITTEN.add(bytes);
+        }
+    }
+
+    /**
+     * Records records appended to the journal.
+     *
+     * @param startNanos the value {@link #start()} returned before appending
+     * @param bytes the number of bytes written
+     */
+    public static void recordJournalAppend(long startNanos, long bytes) {
+        if (IS_ENABLED) {
+            JOURNAL_APPEND.record(System.nanoTime() - startNanos);
+            BYTES_WRITTEN.add(bytes);
+        }
+    }
+
+    /**
+     * Returns a report of everything recorded so far, one line per measurement.
+     *
+     * @return the report lines
+     */
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+        addLine(lines, "parse", PARSE);
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(COMMANDS).entrySet()) {
+            addLine(lines, entry.getKey(), entry.getValue());
+        }
+        addLine(lines, "console output", RENDER);
+        addLine(lines, "storage load", STORAGE_LOAD);
+        addLine(lines, "storage save", STORAGE_SAVE);
+        addLine(lines, "journal append", JOURNAL_APPEND);
+        lines.add(String.format("%-20s %,d bytes read, %,d bytes written", "storage I/O",
+                BYTES_READ.sum(), BYTES_WRITTEN.sum()));
+        return lines;
+    }
+
+    private static void addLine(List<String> lines, String name, LatencyHistogram histogram) {
+        if (histogram.count() == 0) {
+            return;
+        }
+        lines.add(String.format("%-20s n=%,d mean=%s p50=%s p99=%s max=%s", name, histogram.count(),
+                duration(histogram.meanNanos()), duration(histogram.valueAtQuantile(0.5)),
+                duration(histogram.valueAtQuantile(0.99)), duration(histogram.maxNanos())));
+    }
+
+    private static String duration(long nanos) {
+        if (nanos < NANOS_PER_MILLI) {
+            return String.format("%.1fus", nanos / NANOS_PER_MICRO);
+        }
+        return String.format("%.2fms", nanos / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Appends a timestamped report to the file at a fixed interval, on a daemon thread.
+     */
+    private static void startDumps(Path file, long intervalSeconds) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leo-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> {
+            List<String> lines = new ArrayList<>();
+            lines.add("# " + LocalDateTime.now());
+            lines.addAll(report());
+            try {
+                Files.write(file, lines, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Could not write metrics: " + e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+}
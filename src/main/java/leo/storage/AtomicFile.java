@@ -0,0 +1,92 @@
+package leo.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces a file in one step by writing a sibling temp file, forcing it to
+ * disk and renaming it over the target, so a crash never leaves a half-written file.
+ */
+final class AtomicFile {
+    static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int BUFFER_BYTES = 1 << 18;
+
+    /**
+     * Writes the full content of a file.
+     */
+    @FunctionalInterface
+    interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private AtomicFile() {
+    }
+
+    /**
+     * Atomically replaces the target with the given content.
+     *
+     * @param target the file to replace
+     * @param content writes the new file content into a buffered stream
+     * @return the number of bytes written
+     * @throws IOException if writing or renaming fails; the target is then left untouched
+     */
+    static long write(Path target, Content content) throws IOException {
+        Path temp = tempPath(target);
+        long size;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES);
+            content.writeTo(out);
+            out.flush();
+            channel.force(true);
+            size = channel.size();
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        moveIntoPlace(temp, target);
+        return size;
+    }
+
+    /**
+     * Cleans up after a write that was interrupted before its rename.
+     * If the target still exists it holds the last complete save, so the temp file
+     * is discarded; otherwise the temp file is the only copy left and is kept.
+     *
+     * @param target the file that was being replaced
+     * @throws IOException if cleaning up fails
+     */
+    static void recover(Path target) throws IOException {
+        Path temp = tempPath(target);
+        if (!Files.exists(temp)) {
+            return;
+        }
+
+        if (Files.exists(target)) {
+            Files.delete(temp);
+        } else {
+            moveIntoPlace(temp, target);
+        }
+    }
+
+    private static Path tempPath(Path target) {
+        return target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
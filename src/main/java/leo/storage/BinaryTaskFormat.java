@@ -0,0 +1,195 @@
+package leo.storage;
+
+import leo.tasks.Deadline;
+import leo.tasks.Event;
+import leo.tasks.Task;
+import leo.tasks.TaskType;
+import leo.tasks.ToDo;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a task list.
+ *
+ * <p>Layout: the magic bytes {@code LEOB}, a version byte and the snapshot
+ * generation (long), followed by one record per task. Each record holds the
+ * {@link TaskType} code as a byte, a flags byte (bit 0 is the done status), the
+ * task's ID (long) and the length-prefixed UTF-8 description. Deadlines append the
+ * due date as an epoch day (int); events append length-prefixed from and to strings.
+ * Version 1 files, whose records have no ID, can still be read.
+ */
+final class BinaryTaskFormat {
+    static final byte[] MAGIC = {'L', 'E', 'O', 'B'};
+    static final byte VERSION = 2;
+
+    private static final byte FIRST_VERSION_WITH_IDS = 2;
+
+    private static final int HEADER_BYTES = MAGIC.length + Byte.BYTES + Long.BYTES;
+    private static final int DONE_FLAG = 1;
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * Reads the snapshot generation stored in the header.
+     *
+     * @param path the binary storage file
+     * @return the generation, or 0 if the header is incomplete
+     * @throws IOException if the file cannot be read
+     */
+    static long readGeneration(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] header = new byte[HEADER_BYTES];
+            if (in.readNBytes(header, 0, HEADER_BYTES) < HEADER_BYTES) {
+                return 0;
+            }
+            return Math.max(0, ByteBuffer.wrap(header, MAGIC.length + Byte.BYTES, Long.BYTES).getLong());
+        }
+    }
+
+    /**
+     * Reads all tasks from a binary storage file.
+     * Decoding stops at the first truncated or unrecognised record.
+     *
+     * @param path the binary storage file
+     * @return the decoded tasks in file order
+     * @throws IOException if the file cannot be read or has an unsupported version
+     */
+    static List<Task> read(Path path) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < HEADER_BYTES) {
+            return tasks;
+        }
+
+        buffer.position(MAGIC.length);
+        byte version = buffer.get();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported binary storage version: " + version);
+        }
+        buffer.getLong(); // generation, read separately by readGeneration
+
+        try {
+            while (buffer.hasRemaining()) {
+                Task task = readTask(buffer, version >= FIRST_VERSION_WITH_IDS);
+                if (task == null) {
+                    break; // unknown record type; the rest cannot be framed
+                }
+                tasks.add(task);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // Truncated record: keep everything decoded so far
+        }
+        return tasks;
+    }
+
+    private static Task readTask(ByteBuffer buffer, boolean hasId) {
+        char code = (char) buffer.get();
+        boolean isDone = (buffer.get() & DONE_FLAG) != 0;
+        long id = hasId ? buffer.getLong() : 0;
+        String description = readString(buffer);
+
+        Task task;
+        switch (TaskType.fromCode(String.valueOf(code))) {
+            case TODO:
+                task = new ToDo(description);
+                break;
+            case DEADLINE:
+                task = new Deadline(description, LocalDate.ofEpochDay(buffer.getInt()));
+                break;
+            case EVENT:
+                String from = readString(buffer);
+                String to = readString(buffer);
+                task = new Event(description, from, to);
+                break;
+            default:
+                return null;
+        }
+
+        if (isDone) {
+            task.markAsDone();
+        }
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes all tasks in binary form to the given stream.
+     *
+     * @param stream the stream receiving the file content; it is flushed but not closed
+     * @param tasksList tasks to write
+     * @param generation snapshot generation recorded in the header
+     * @throws IOException if writing fails
+     */
+    static void write(OutputStream stream, List<Task> tasksList, long generation) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(generation);
+
+        for (Task task : tasksList) {
+            writeTask(out, task);
+        }
+        out.flush();
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        TaskType type;
+        if (task instanceof ToDo) {
+            type = TaskType.TODO;
+        } else if (task instanceof Deadline) {
+            type = TaskType.DEADLINE;
+        } else if (task instanceof Event) {
+            type = TaskType.EVENT;
+        } else {
+            System.err.println("Warning: Unknown task type encountered: " + task.getClass().getSimpleName());
+            return;
+        }
+
+        out.writeByte(type.code().charAt(0));
+        out.writeByte(task.isDone() ? DONE_FLAG : 0);
+        out.writeLong(task.getId());
+        writeString(out, task.getDescription());
+
+        if (type == TaskType.DEADLINE) {
+            out.writeInt((int) ((Deadline) task).getBy().toEpochDay());
+        } else if (type == TaskType.EVENT) {
+            writeString(out, ((Event) task).getFrom());
+            writeString(out, ((Event) task).getTo());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
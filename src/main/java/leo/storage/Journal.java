@@ -0,0 +1,156 @@
+package leo.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of task mutations kept next to the snapshot file.
+ * The first line tags the journal with the snapshot generation it applies to,
+ * so records already folded into a newer snapshot are never replayed twice.
+ */
+class Journal {
+    static final String GENERATION_PREFIX = "# generation ";
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+
+    private final Path path;
+    private volatile int size; // appended by the save worker, read by the caller thread
+
+    /**
+     * Creates a journal stored beside the given snapshot file.
+     *
+     * @param snapshotPath path of the snapshot file
+     */
+    Journal(Path snapshotPath) {
+        this.path = snapshotPath.resolveSibling(snapshotPath.getFileName() + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Returns the number of records appended since the last reset.
+     *
+     * @return the record count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Reads the records that apply on top of the given snapshot generation.
+     * A missing or stale journal is reset so later appends start cleanly.
+     *
+     * @param generation generation of the loaded snapshot
+     * @return the journal records in the order they were appended
+     * @throws IOException if the journal cannot be read or reset
+     */
+    List<String> read(long generation) throws IOException {
+        List<String> records = new ArrayList<>();
+        if (!Files.exists(path)) {
+            reset(generation);
+            return records;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || parseGeneration(header) != generation) {
+                reset(generation);
+                return records;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    records.add(line);
+                }
+            }
+        }
+
+        size = records.size();
+        return records;
+    }
+
+    /**
+     * Appends records to the end of the journal in a single write.
+     * If the write fails, the journal is cut back to where it ended before.
+     *
+     * @param records the encoded records to append
+     * @return the number of bytes written
+     * @throws IOException if writing fails
+     */
+    long append(List<String> records) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (String record : records) {
+            sb.append(record).append(System.lineSeparator());
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            long goodSize = channel.size();
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                // Cut off a partly written batch, so appending it again on retry does not repeat its first records
+                truncate(channel, goodSize, e);
+                throw e;
+            }
+        }
+        size += records.size();
+        return bytes.length;
+    }
+
+    private static void truncate(FileChannel channel, long goodSize, IOException cause) {
+        try {
+            channel.truncate(goodSize);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Returns the size of the journal file.
+     *
+     * @return the size in bytes, or 0 if there is no journal file yet
+     * @throws IOException if the size cannot be read
+     */
+    long byteSize() throws IOException {
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    /**
+     * Discards all records and tags the journal with a new snapshot generation.
+     *
+     * @param generation generation of the snapshot the journal now applies to
+     * @throws IOException if writing fails
+     */
+    void reset(long generation) throws IOException {
+        Files.writeString(path, GENERATION_PREFIX + generation + System.lineSeparator(), StandardCharsets.UTF_8);
+        size = 0;
+    }
+
+    /**
+     * Parses a generation header line.
+     *
+     * @param line the header line
+     * @return the generation, or -1 if the line is not a valid header
+     */
+    static long parseGeneration(String line) {
+        if (!line.startsWith(GENERATION_PREFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(line.substring(GENERATION_PREFIX.length()).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
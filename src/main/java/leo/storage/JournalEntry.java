@@ -0,0 +1,159 @@
+package leo.storage;
+
+import leo.tasks.Task;
+
+/**
+ * A single task mutation recorded in the storage journal.
+ */
+public class JournalEntry {
+    /**
+     * Kind of mutation, tagged with the code written to the journal file.
+     */
+    enum Operation {
+        ADD("A"),
+        INSERT("I"),
+        DELETE("D"),
+        MARK("M"),
+        UNMARK("U");
+
+        private final String code;
+
+        Operation(String code) {
+            this.code = code;
+        }
+
+        String code() {
+            return code;
+        }
+
+        /**
+         * Parses a journal code into its operation.
+         *
+         * @param code the journal code
+         * @return the matching operation, or null if the code is unknown
+         */
+        static Operation fromCode(String code) {
+            for (Operation operation : values()) {
+                if (operation.code.equals(code)) {
+                    return operation;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Operation operation;
+    private final Task task;
+    private final int index;
+
+    private JournalEntry(Operation operation, Task task, int index) {
+        this.operation = operation;
+        this.task = task;
+        this.index = index;
+    }
+
+    /**
+     * Creates an entry for a task appended to the end of the list.
+     *
+     * @param task the added task
+     * @return the journal entry
+     */
+    public static JournalEntry added(Task task) {
+        assert task != null : "Added task must not be null";
+        return new JournalEntry(Operation.ADD, task, -1);
+    }
+
+    /**
+     * Creates an entry for a task put back at a position, e.g. by undoing its deletion.
+     *
+     * @param index 0-based index the task was inserted at
+     * @param task the inserted task
+     * @return the journal entry
+     */
+    public static JournalEntry inserted(int index, Task task) {
+        assert task != null : "Inserted task must not be null";
+        return new JournalEntry(Operation.INSERT, task, index);
+    }
+
+    /**
+     * Creates an entry for a task removed from the list.
+     * Such an entry cannot be undone, since the task is not kept.
+     *
+     * @param index 0-based index of the removed task
+     * @return the journal entry
+     */
+    public static JournalEntry deleted(int index) {
+        return new JournalEntry(Operation.DELETE, null, index);
+    }
+
+    /**
+     * Creates an entry for a task removed from the list, keeping the task so it can be put back.
+     *
+     * @param index 0-based index of the removed task
+     * @param task the removed task
+     * @return the journal entry
+     */
+    public static JournalEntry deleted(int index, Task task) {
+        return new JournalEntry(Operation.DELETE, task, index);
+    }
+
+    /**
+     * Creates an entry for a task marked as done.
+     *
+     * @param index 0-based index of the marked task
+     * @return the journal entry
+     */
+    public static JournalEntry marked(int index) {
+        return new JournalEntry(Operation.MARK, null, index);
+    }
+
+    /**
+     * Creates an entry for a task marked as done or not done, keeping the task for describing the change.
+     */
+    static JournalEntry statusChanged(int index, Task task) {
+        return new JournalEntry(task.isDone() ? Operation.MARK : Operation.UNMARK, task, index);
+    }
+
+    /**
+     * Creates an entry for a task marked as not done.
+     *
+     * @param index 0-based index of the unmarked task
+     * @return the journal entry
+     */
+    public static JournalEntry unmarked(int index) {
+        return new JournalEntry(Operation.UNMARK, null, index);
+    }
+
+    Operation getOperation() {
+        return operation;
+    }
+
+    Task getTask() {
+        return task;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * Describes the change for the user, e.g. "removed [T][ ] read book".
+     *
+     * @return the description
+     */
+    public String describe() {
+        String target = task != null ? task.toString() : "task " + (index + 1);
+        switch (operation) {
+            case ADD:
+                return "added " + target;
+            case INSERT:
+                return "put back " + target;
+            case DELETE:
+                return "removed " + target;
+            case MARK:
+                return "marked as done " + target;
+            default:
+                return "marked as not done " + target;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package leo.storage;
+
+import leo.tasks.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Loads a line-based task file by mapping it into memory and decoding
+ * chunks of lines in parallel, keeping the tasks in file order.
+ */
+class MappedTaskLoader {
+    // Files below this size are read directly; mapping only pays off for large files
+    private static final long MAPPED_LOAD_THRESHOLD = 1 << 20;
+    // Largest region mapped at once (a single mapping is limited to 2 GB)
+    private static final long MAX_REGION_BYTES = 1 << 30;
+    // Target size of the byte range decoded by one worker
+    private static final int CHUNK_BYTES = 1 << 20;
+
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final Function<String, Task> lineDecoder;
+    private final ForkJoinPool pool;
+    private final long mappedLoadThreshold;
+    private final long maxRegionBytes;
+    private final int chunkBytes;
+
+    /**
+     * Creates a loader that decodes each line with the given function.
+     * The decoder must be thread-safe and return null for lines to skip.
+     *
+     * @param lineDecoder converts a single line into a task
+     */
+    MappedTaskLoader(Function<String, Task> lineDecoder) {
+        this(lineDecoder, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a loader that decodes chunks on the given pool.
+     *
+     * @param lineDecoder converts a single line into a task
+     * @param pool the pool used to decode chunks in parallel
+     */
+    MappedTaskLoader(Function<String, Task> lineDecoder, ForkJoinPool pool) {
+        this(lineDecoder, pool, MAPPED_LOAD_THRESHOLD, MAX_REGION_BYTES, CHUNK_BYTES);
+    }
+
+    /**
+     * Creates a loader with the given sizes, so small files can be mapped and split like large ones.
+     *
+     * @param lineDecoder converts a single line into a task
+     * @param pool the pool used to decode chunks in parallel
+     * @param mappedLoadThreshold the size from which files are mapped rather than read directly
+     * @param maxRegionBytes the largest region mapped at once
+     * @param chunkBytes the target size of the byte range decoded by one worker
+     */
+    MappedTaskLoader(Function<String, Task> lineDecoder, ForkJoinPool pool, long mappedLoadThreshold,
+            long maxRegionBytes, int chunkBytes) {
+        this.lineDecoder = lineDecoder;
+        this.pool = pool;
+        this.mappedLoadThreshold = mappedLoadThreshold;
+        this.maxRegionBytes = maxRegionBytes;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Loads all decodable tasks from the file.
+     *
+     * @param path the file to read
+     * @return tasks in the order their lines appear in the file
+     * @throws IOException if the file cannot be read
+     */
+    List<Task> load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < mappedLoadThreshold) {
+                return decodeRegion(ByteBuffer.wrap(Files.readAllBytes(path)));
+            }
+
+            List<Task> tasks = new ArrayList<>();
+            long position = 0;
+            while (position < size) {
+                long regionSize = Math.min(maxRegionBytes, size - position);
+                ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+
+                // Only decode up to the last complete line unless this is the end of the file
+                int usable = (int) regionSize;
+                if (position + regionSize < size) {
+                    int lastNewline = lastIndexOf(region, usable);
+                    usable = lastNewline == -1 ? usable : lastNewline + 1;
+                }
+
+                tasks.addAll(decodeRegion(region.limit(usable)));
+                position += usable;
+            }
+            return tasks;
+        }
+    }
+
+    /**
+     * Splits a region into line-aligned chunks and decodes them in parallel.
+     */
+    private List<Task> decodeRegion(ByteBuffer region) {
+        int[] bounds = findChunkBounds(region);
+        int chunkCount = bounds.length - 1;
+        if (chunkCount == 1) {
+            return decodeChunk(region, 0, region.limit());
+        }
+
+        List<ForkJoinTask<List<Task>>> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            int from = bounds[i];
+            int to = bounds[i + 1];
+            chunks.add(pool.submit(() -> decodeChunk(region, from, to)));
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        for (ForkJoinTask<List<Task>> chunk : chunks) {
+            tasks.addAll(chunk.join());
+        }
+        return tasks;
+    }
+
+    /**
+     * Picks chunk boundaries roughly {@code chunkBytes} apart, each just after a newline.
+     *
+     * @return boundary offsets, starting at 0 and ending at the region limit
+     */
+    private int[] findChunkBounds(ByteBuffer region) {
+        int limit = region.limit();
+        int chunkCount = Math.max(1, limit / chunkBytes);
+        int[] bounds = new int[chunkCount + 1];
+
+        for (int i = 1; i < chunkCount; i++) {
+            int bound = Math.max((int) ((long) limit * i / chunkCount), bounds[i - 1]);
+            while (bound < limit && region.get(bound) != NEWLINE) {
+                bound++;
+            }
+            bounds[i] = Math.min(bound + 1, limit);
+        }
+        bounds[chunkCount] = limit;
+        return bounds;
+    }
+
+    /**
+     * Decodes the lines in [from, to), which must start at a line boundary.
+     */
+    private List<Task> decodeChunk(ByteBuffer region, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        region.get(from, bytes);
+
+        List<Task> tasks = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i <= bytes.length; i++) {
+            if (i < bytes.length && bytes[i] != NEWLINE) {
+                continue;
+            }
+
+            int lineEnd = i;
+            if (lineEnd > lineStart && bytes[lineEnd - 1] == CARRIAGE_RETURN) {
+                lineEnd--;
+            }
+            if (lineEnd > lineStart) {
+                String line = new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+                Task task = lineDecoder.apply(line);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+            lineStart = i + 1;
+        }
+        return tasks;
+    }
+
+    private static int lastIndexOf(ByteBuffer region, int limit) {
+        for (int i = limit - 1; i >= 0; i--) {
+            if (region.get(i) == NEWLINE) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
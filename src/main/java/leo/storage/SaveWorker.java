@@ -0,0 +1,180 @@
+package leo.storage;
+
+import leo.tasks.Task;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer that coalesces bursts of saves into a single disk write.
+ *
+ * <p>Pending work is the latest full snapshot (if any) followed by the journal
+ * records submitted after it; a newer snapshot supersedes everything before it.
+ * A failed write is retried in the background, waiting twice as long after each
+ * failure up to a limit, so saved changes reach the disk without another save.
+ */
+class SaveWorker {
+    // Shortest and longest wait before retrying a failed write
+    private static final long MIN_RETRY_DELAY_MILLIS = 100;
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+
+    /**
+     * A write performed on the worker thread.
+     */
+    @FunctionalInterface
+    interface Writer<T> {
+        void write(T value) throws IOException;
+    }
+
+    private final ScheduledExecutorService executor;
+    private final long windowMillis;
+    private final Writer<List<Task>> snapshotWriter;
+    private final Writer<List<String>> recordWriter;
+    private final Object writeLock = new Object();
+
+    private List<Task> pendingSnapshot;
+    private final List<String> pendingRecords = new ArrayList<>();
+    private boolean isFlushScheduled;
+    private long retryDelayMillis; // 0 unless the last write failed
+    private IOException failure; // null once a later write succeeds
+
+    /**
+     * Creates a worker that waits {@code windowMillis} after the first change
+     * before writing everything submitted in the meantime.
+     *
+     * @param windowMillis the coalescing window in milliseconds
+     * @param snapshotWriter writes a full snapshot
+     * @param recordWriter appends journal records
+     */
+    SaveWorker(long windowMillis, Writer<List<Task>> snapshotWriter, Writer<List<String>> recordWriter) {
+        this.windowMillis = windowMillis;
+        this.snapshotWriter = snapshotWriter;
+        this.recordWriter = recordWriter;
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "leo-save-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // close() writes pending work itself, so a flush still waiting for its window is dropped
+        pool.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.executor = pool;
+    }
+
+    /**
+     * Queues journal records to be appended after any pending snapshot.
+     *
+     * @param records the encoded records
+     */
+    synchronized void submitRecords(List<String> records) {
+        pendingRecords.addAll(records);
+        scheduleFlush();
+    }
+
+    /**
+     * Queues a full snapshot, superseding everything queued before it.
+     *
+     * @param snapshot a copy of the task list that will not be modified afterwards
+     */
+    synchronized void submitSnapshot(List<Task> snapshot) {
+        pendingSnapshot = snapshot;
+        pendingRecords.clear();
+        scheduleFlush();
+    }
+
+    /**
+     * Returns and clears the error from the last failed background write, unless a retry has since
+     * written everything it held back.
+     *
+     * @return the failure, or null if nothing is left unwritten by a failure
+     */
+    synchronized IOException takeFailure() {
+        IOException lastFailure = failure;
+        failure = null;
+        return lastFailure;
+    }
+
+    /**
+     * Writes all pending work on the calling thread and waits for it to finish.
+     *
+     * @throws IOException if writing fails
+     */
+    void flush() throws IOException {
+        flushPending();
+        IOException lastFailure = takeFailure();
+        if (lastFailure != null) {
+            throw lastFailure;
+        }
+    }
+
+    /**
+     * Stops the worker thread and writes all pending work on the calling thread.
+     *
+     * @throws IOException if the final write fails
+     */
+    void close() throws IOException {
+        executor.shutdown();
+        flush();
+    }
+
+    private void scheduleFlush() {
+        scheduleFlush(windowMillis);
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        if (!isFlushScheduled && !executor.isShutdown()) {
+            isFlushScheduled = true;
+            executor.schedule(this::flushPending, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushPending() {
+        // Writes are serialised so a flush on the caller thread never interleaves with the worker
+        synchronized (writeLock) {
+            List<Task> snapshot;
+            List<String> records;
+            synchronized (this) {
+                snapshot = pendingSnapshot;
+                records = new ArrayList<>(pendingRecords);
+                pendingSnapshot = null;
+                pendingRecords.clear();
+                isFlushScheduled = false;
+            }
+
+            try {
+                if (snapshot != null) {
+                    snapshotWriter.write(snapshot);
+                }
+                if (!records.isEmpty()) {
+                    recordWriter.write(records);
+                }
+                synchronized (this) {
+                    retryDelayMillis = 0;
+                    failure = null;
+                }
+            } catch (IOException e) {
+                requeue(snapshot, records, e);
+            }
+        }
+    }
+
+    /**
+     * Puts work from a failed write back in front of the queue, unless a newer snapshot replaced it,
+     * and schedules a retry unless a flush is already due.
+     */
+    private synchronized void requeue(List<Task> snapshot, List<String> records, IOException e) {
+        failure = e;
+        if (pendingSnapshot == null) {
+            pendingSnapshot = snapshot;
+            pendingRecords.addAll(0, records);
+        }
+        long delayMillis = retryDelayMillis == 0
+                ? Math.max(windowMillis, MIN_RETRY_DELAY_MILLIS)
+                : retryDelayMillis * 2;
+        retryDelayMillis = Math.min(delayMillis, MAX_RETRY_DELAY_MILLIS);
+        scheduleFlush(retryDelayMillis);
+    }
+}
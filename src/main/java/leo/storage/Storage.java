@@ -1,14 +1,20 @@
 package leo.storage;
 
 import leo.LeoException;
+import leo.Tokenizer;
+import leo.metrics.Metrics;
 import leo.tasks.Deadline;
 import leo.tasks.Event;
 import leo.tasks.Task;
 import leo.tasks.TaskType;
 import leo.tasks.ToDo;
 
-import java.io.FileWriter;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -17,10 +23,13 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 /**
- * Loads and saves tasks to a plain-text storage file.
+ * Loads and saves tasks to a plain-text or binary storage file.
+ * Large text files are memory-mapped and decoded in parallel on load.
+ * In journal mode, each mutation is appended to a journal beside the file
+ * and folded back into the snapshot once enough records accumulate.
+ * The undo history of the list lives here too, and can be saved beside the file.
  */
 public class Storage {
     // Task status codes
@@ -29,7 +38,10 @@ public class Storage {
     
     // Storage format constants
     private static final String STORAGE_SEPARATOR = " | ";
-    private static final String DATE_FORMAT_PATTERN = "yyyy-MM-dd";
+    private static final char FIELD_SEPARATOR = '|';
+    private static final String ID_PREFIX = "#";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String LINE_SEPARATOR = System.lineSeparator();
     
     // Array indices for storage format
     private static final int TASK_TYPE_INDEX = 0;
@@ -43,8 +55,21 @@ public class Storage {
     private static final int MIN_TASK_PARTS = 3;
     private static final int MIN_DEADLINE_PARTS = 4;
     private static final int MIN_EVENT_PARTS = 5;
-    
+    private static final int MAX_PARTS = MIN_EVENT_PARTS + 1; // an event with its ID
+
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
     private final Path filePath;
+    private final Journal journal; // null when journal mode is off
+    private final int compactionThreshold;
+    // Written by the save worker and read by the caller thread, e.g. for the undo stamp
+    private volatile long generation;
+    private StorageFormat format = StorageFormat.TEXT;
+    private int recordsSinceSnapshot;
+    private SaveWorker saveWorker; // null while saves are synchronous
+    private Thread saveOnExit; // flushes the worker if the JVM exits before close()
+    private final UndoHistory history = new UndoHistory();
+    private UndoFile undoFile; // null while the undo history is kept in memory only
 
     /**
      * Creates a Storage instance for the specified file path.
@@ -52,7 +77,31 @@ public class Storage {
      * @param filePath the path to the storage file
      */
     public Storage(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Creates a Storage instance, optionally recording mutations in a journal.
+     *
+     * @param filePath the path to the storage file
+     * @param isJournalEnabled true to append mutations instead of rewriting the file
+     */
+    public Storage(String filePath, boolean isJournalEnabled) {
+        this(filePath, isJournalEnabled, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates a Storage instance with a custom journal compaction threshold.
+     *
+     * @param filePath the path to the storage file
+     * @param isJournalEnabled true to append mutations instead of rewriting the file
+     * @param compactionThreshold number of journal records that triggers a full save
+     */
+    Storage(String filePath, boolean isJournalEnabled, int compactionThreshold) {
+        assert compactionThreshold > 0 : "Compaction threshold must be positive";
         this.filePath = Paths.get(filePath);
+        this.journal = isJournalEnabled ? new Journal(this.filePath) : null;
+        this.compactionThreshold = compactionThreshold;
     }
 
     /**
@@ -62,16 +111,32 @@ public class Storage {
      * @throws LeoException if an I/O error occurs during loading the tasks.
      */
     public List<Task> load() throws LeoException {
+        long start = Metrics.start();
         try {
+            flush();
             ensureDirectoryExists();
+            AtomicFile.recover(filePath);
             
-            // If file doesn't exist, create it and return empty list
+            // If file doesn't exist, create it and start with an empty list
+            List<Task> tasksList;
             if (!Files.exists(filePath)) {
                 Files.createFile(filePath);
-                return new ArrayList<>();
+                tasksList = new ArrayList<>();
+            } else {
+                tasksList = loadTasksFromFile();
+                assignMissingIds(tasksList);
             }
 
-            return loadTasksFromFile();
+            if (journal != null) {
+                replayJournal(tasksList);
+            }
+            if (undoFile != null) {
+                undoFile.read(history, undoStamp(), this::formatLine);
+            }
+            if (Metrics.IS_ENABLED) {
+                Metrics.recordLoad(start, Files.size(filePath) + (journal == null ? 0 : journal.byteSize()));
+            }
+            return tasksList;
         } catch (IOException e) {
             throw new LeoException("Storage error: " + e.getMessage());
         }
@@ -84,23 +149,48 @@ public class Storage {
      * @throws IOException if file reading fails
      */
     private List<Task> loadTasksFromFile() throws IOException {
-        List<Task> tasksList = new ArrayList<>();
-        
-        try (Scanner scanner = new Scanner(filePath)) {
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                Task task = formatLine(line);
-                
-                if (task != null) {
-                    tasksList.add(task);
-                }
+        format = StorageFormat.detect(filePath);
+        if (format == StorageFormat.BINARY) {
+            generation = BinaryTaskFormat.readGeneration(filePath);
+            return BinaryTaskFormat.read(filePath);
+        }
+
+        generation = readGeneration();
+        return new MappedTaskLoader(this::formatLine).load(filePath);
+    }
+
+    /**
+     * Numbers tasks saved before tasks had IDs, after the highest ID in the file.
+     * This runs before the journal is replayed, so such tasks get the same IDs on every load.
+     *
+     * @param tasksList the tasks loaded from the snapshot
+     */
+    private static void assignMissingIds(List<Task> tasksList) {
+        long nextId = 1;
+        for (Task task : tasksList) {
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+        for (Task task : tasksList) {
+            if (task.getId() == 0) {
+                task.setId(nextId++);
             }
         }
-        
-        return tasksList;
     }
 
-    // String format: T/D/E  + 1/0 + description + dates
+    /**
+     * Reads the snapshot generation from the optional header line.
+     *
+     * @return the generation, or 0 if the file has no header
+     * @throws IOException if file reading fails
+     */
+    private long readGeneration() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(filePath, StandardCharsets.UTF_8)) {
+            String firstLine = reader.readLine();
+            return firstLine == null ? 0 : Math.max(0, Journal.parseGeneration(firstLine));
+        }
+    }
+
+    // String format: T/D/E  + 1/0 + description + dates + optional #id
     private Task formatLine(String line) {
         // Guard clauses - handle error cases early
         String[] parts = parseAndTrimLineParts(line);
@@ -121,27 +211,52 @@ public class Storage {
         // Happy path - process valid task
         boolean isDone = TASK_DONE_STATUS.equals(parts[TASK_STATUS_INDEX]);
         setTaskCompletionStatus(task, isDone);
+        setTaskId(task, parts, idIndexOf(type));
         return task;
     }
 
     /**
-     * Parses line into parts and trims whitespace.
-     * 
-     * @param line the input line to parse
-     * @return trimmed parts array, or null if insufficient parts
+     * Returns where the optional ID field sits: right after the fields the task type needs.
      */
-    private String[] parseAndTrimLineParts(String line) {
-        String[] parts = line.split("\\|");
-        if (parts.length < MIN_TASK_PARTS) {
-            return null;
+    private static int idIndexOf(TaskType type) {
+        switch (type) {
+            case DEADLINE:
+                return MIN_DEADLINE_PARTS;
+            case EVENT:
+                return MIN_EVENT_PARTS;
+            default:
+                return MIN_TASK_PARTS;
+        }
+    }
+
+    /**
+     * Sets the task's ID from its field, if the line has one.
+     * Lines written before tasks had IDs are left without one.
+     */
+    private void setTaskId(Task task, String[] parts, int idIndex) {
+        if (parts.length <= idIndex || !parts[idIndex].startsWith(ID_PREFIX)) {
+            return;
         }
 
-        // Account for additional spaces
-        for (int i = 0; i < parts.length; i++) {
-            parts[i] = parts[i].trim();
+        try {
+            long id = Long.parseLong(parts[idIndex].substring(ID_PREFIX.length()));
+            if (id > 0) {
+                task.setId(id);
+            }
+        } catch (NumberFormatException e) {
+            // Keep the task; it is given a new ID
         }
+    }
 
-        return parts;
+    /**
+     * Parses line into parts and trims whitespace, in one pass over the line.
+     * 
+     * @param line the input line to parse
+     * @return trimmed parts array, or null if insufficient parts
+     */
+    private String[] parseAndTrimLineParts(String line) {
+        String[] parts = Tokenizer.split(line, FIELD_SEPARATOR, MAX_PARTS);
+        return parts.length < MIN_TASK_PARTS ? null : parts;
     }
 
     /**
@@ -192,7 +307,7 @@ public class Storage {
         
         try {
             String dateString = parts[DEADLINE_DATE_INDEX];
-            LocalDate byDate = LocalDate.parse(dateString, DateTimeFormatter.ofPattern(DATE_FORMAT_PATTERN));
+            LocalDate byDate = LocalDate.parse(dateString, DATE_FORMAT);
             return new Deadline(description, byDate);
         } catch (DateTimeParseException e) {
             return null; // invalid date format
@@ -216,6 +331,10 @@ public class Storage {
      * Sets the completion status of a task.
      */
     private void setTaskCompletionStatus(Task task, boolean isDone) {
+        if (task.isDone() == isDone) {
+            return; // Already in the requested state
+        }
+
         if (isDone) {
             task.markAsDone();
         } else {
@@ -224,42 +343,348 @@ public class Storage {
     }
 
     /**
-     * Saves all tasks to disk by overwriting the target file.
+     * Replays journal records on top of the tasks loaded from the snapshot.
+     * Records that no longer apply (e.g. out-of-range indices) are skipped.
+     *
+     * @param tasksList tasks loaded from the snapshot, updated in place
+     * @throws IOException if the journal cannot be read
+     */
+    private void replayJournal(List<Task> tasksList) throws IOException {
+        for (String record : journal.read(generation)) {
+            applyJournalRecord(tasksList, record);
+        }
+        recordsSinceSnapshot = journal.size();
+    }
+
+    // Record format: A | <task line>, I | <0-based index> | <task line>, or D/M/U | <0-based index>
+    private void applyJournalRecord(List<Task> tasksList, String record) {
+        int separatorIdx = record.indexOf(STORAGE_SEPARATOR);
+        if (separatorIdx == -1) {
+            return; // Invalid record format
+        }
+
+        JournalEntry.Operation operation = JournalEntry.Operation.fromCode(record.substring(0, separatorIdx).trim());
+        String payload = record.substring(separatorIdx + STORAGE_SEPARATOR.length());
+        if (operation == null) {
+            return; // Unknown operation
+        }
+
+        if (operation == JournalEntry.Operation.ADD) {
+            Task task = formatLine(payload);
+            if (task != null) {
+                tasksList.add(task);
+            }
+            return;
+        }
+
+        if (operation == JournalEntry.Operation.INSERT) {
+            applyInsertRecord(tasksList, payload);
+            return;
+        }
+
+        int index;
+        try {
+            index = Integer.parseInt(payload.trim());
+        } catch (NumberFormatException e) {
+            return; // Invalid index
+        }
+        if (index < 0 || index >= tasksList.size()) {
+            return;
+        }
+
+        switch (operation) {
+            case DELETE:
+                tasksList.remove(index);
+                break;
+            case MARK:
+                setTaskCompletionStatus(tasksList.get(index), true);
+                break;
+            case UNMARK:
+                setTaskCompletionStatus(tasksList.get(index), false);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void applyInsertRecord(List<Task> tasksList, String payload) {
+        int indexEnd = payload.indexOf(STORAGE_SEPARATOR);
+        if (indexEnd == -1) {
+            return; // Invalid record format
+        }
+
+        int index;
+        try {
+            index = Integer.parseInt(payload.substring(0, indexEnd).trim());
+        } catch (NumberFormatException e) {
+            return; // Invalid index
+        }
+        Task task = formatLine(payload.substring(indexEnd + STORAGE_SEPARATOR.length()));
+        if (task != null && index >= 0 && index <= tasksList.size()) {
+            tasksList.add(index, task);
+        }
+    }
+
+    /**
+     * Switches to asynchronous saving: changes are handed to a background worker
+     * that coalesces everything submitted within the window into one write.
+     * Pending changes are flushed on {@link #flush()}, on {@link #close()} and when the JVM shuts down.
+     *
+     * @param coalesceWindowMillis how long to wait after a change before writing
+     */
+    public void startAsyncSaves(long coalesceWindowMillis) {
+        if (saveWorker != null) {
+            return;
+        }
+
+        saveWorker = new SaveWorker(coalesceWindowMillis, this::writeSnapshot, this::writeRecords);
+        saveOnExit = new Thread(() -> {
+            try {
+                flush();
+            } catch (IOException e) {
+                System.err.println("Could not save: " + e.getMessage());
+            }
+        }, "leo-save-on-exit");
+        Runtime.getRuntime().addShutdownHook(saveOnExit);
+    }
+
+    /**
+     * Writes any pending changes, stops the background worker and removes its shutdown hook.
+     * Saves after this are synchronous again.
+     *
+     * @throws IOException if the final write fails
+     */
+    public void close() throws IOException {
+        if (saveWorker == null) {
+            flush();
+            return;
+        }
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(saveOnExit);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down and the hook is running or about to
+        }
+        SaveWorker worker = saveWorker;
+        saveWorker = null;
+        saveOnExit = null;
+        worker.close();
+        flush();
+    }
+
+    /**
+     * Writes any changes still waiting in the background worker and waits for them,
+     * then saves the undo history if it is kept on disk and has changed.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        if (saveWorker != null) {
+            saveWorker.flush();
+        }
+        if (undoFile != null && history.takeChanged()) {
+            undoFile.write(history, undoStamp(), this::formatTaskForStorage);
+        }
+    }
+
+    /**
+     * Returns the undo history of the tasks kept in this storage.
+     *
+     * @return the undo history
+     */
+    public UndoHistory getUndoHistory() {
+        return history;
+    }
+
+    /**
+     * Saves the undo history beside the storage file on every {@link #flush()}, and loads it
+     * back on {@link #load()} if the list has not changed since. Only works in journal mode,
+     * whose generation and record count identify the saved state of the list.
+     */
+    public void persistUndoHistory() {
+        if (journal != null) {
+            undoFile = new UndoFile(filePath);
+        }
+    }
+
+    private String undoStamp() {
+        return Journal.GENERATION_PREFIX + generation + " " + journal.size();
+    }
+
+    /**
+     * Persists a set of mutations that have already been applied to the task list.
+     * In journal mode only the mutations are appended, and the whole list is
+     * written out once the journal grows past the compaction threshold.
+     * Otherwise, the whole list is saved.
+     *
+     * @param tasksList the updated list of tasks
+     * @param entries the mutations that produced the updated list
+     *
+     * @throws IOException if saving fails, or a previous background save failed
+     */
+    public void record(List<Task> tasksList, JournalEntry... entries) throws IOException {
+        if (journal == null || entries.length == 0) {
+            save(tasksList);
+            return;
+        }
+
+        // A bulk change that will be compacted anyway is not formatted as records first
+        if (recordsSinceSnapshot + entries.length >= compactionThreshold) {
+            save(tasksList);
+            return;
+        }
+
+        throwBackgroundFailure();
+        List<String> records = new ArrayList<>(entries.length);
+        for (JournalEntry entry : entries) {
+            String record = formatJournalEntry(entry);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+
+        // A snapshot of the updated list already contains these records
+        recordsSinceSnapshot += records.size();
+        if (recordsSinceSnapshot >= compactionThreshold) {
+            save(tasksList);
+        } else if (saveWorker != null) {
+            saveWorker.submitRecords(records);
+        } else {
+            writeRecords(records);
+        }
+    }
+
+    /**
+     * Formats a journal entry as a single journal line.
+     *
+     * @param entry the entry to format
+     * @return the journal line, or null if the entry's task cannot be stored
+     */
+    private String formatJournalEntry(JournalEntry entry) {
+        String code = entry.getOperation().code();
+        if (entry.getOperation() == JournalEntry.Operation.ADD) {
+            String line = formatTaskForStorage(entry.getTask());
+            return line == null ? null : code + STORAGE_SEPARATOR + line;
+        }
+        if (entry.getOperation() == JournalEntry.Operation.INSERT) {
+            String line = formatTaskForStorage(entry.getTask());
+            return line == null ? null : code + STORAGE_SEPARATOR + entry.getIndex() + STORAGE_SEPARATOR + line;
+        }
+        return code + STORAGE_SEPARATOR + entry.getIndex();
+    }
+
+    /**
+     * Saves all tasks to disk by overwriting the target file in its current format.
+     * In journal mode, this also compacts the journal into the new snapshot.
+     * With asynchronous saves, a copy of the list is handed to the background worker.
      *
      * @param tasksList the updates list of tasks to save
      *
-     * @throws IOException if saving fails
+     * @throws IOException if saving fails, or a previous background save failed
      */
     public void save(List<Task> tasksList) throws IOException {
+        recordsSinceSnapshot = 0;
+        if (saveWorker == null) {
+            writeSnapshot(tasksList);
+            return;
+        }
+
+        throwBackgroundFailure();
+        saveWorker.submitSnapshot(new ArrayList<>(tasksList));
+    }
+
+    private void throwBackgroundFailure() throws IOException {
+        IOException failure = saveWorker == null ? null : saveWorker.takeFailure();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void writeRecords(List<String> records) throws IOException {
+        long start = Metrics.start();
+        long bytes = journal.append(records);
+        Metrics.recordJournalAppend(start, bytes);
+    }
+
+    /**
+     * Writes a full snapshot to a temp file and atomically moves it over the storage file.
+     */
+    private void writeSnapshot(List<Task> tasksList) throws IOException {
         ensureDirectoryExists();
-        ensureFileExists();
-
-        try (FileWriter fw = new FileWriter(filePath.toFile())) {
-            for (Task task : tasksList) {
-                String line = formatTaskForStorage(task);
-                if (line != null) {
-                    fw.write(line + System.lineSeparator());
-                }
+
+        long nextGeneration = journal == null ? generation : generation + 1;
+        StorageFormat snapshotFormat = format;
+        long start = Metrics.start();
+        long bytes = AtomicFile.write(filePath, out -> {
+            if (snapshotFormat == StorageFormat.BINARY) {
+                BinaryTaskFormat.write(out, tasksList, nextGeneration);
+            } else {
+                writeTextSnapshot(out, tasksList, nextGeneration);
             }
+        });
+        Metrics.recordSave(start, bytes);
+
+        // The new snapshot supersedes every journal record written so far
+        generation = nextGeneration;
+        if (journal != null) {
+            journal.reset(generation);
         }
     }
 
+    private void writeTextSnapshot(OutputStream out, List<Task> tasksList, long snapshotGeneration)
+            throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        if (journal != null) {
+            writer.write(Journal.GENERATION_PREFIX);
+            writer.write(Long.toString(snapshotGeneration));
+            writer.write(LINE_SEPARATOR);
+        }
+        for (Task task : tasksList) {
+            String line = formatTaskForStorage(task);
+            if (line != null) {
+                writer.write(line);
+                writer.write(LINE_SEPARATOR);
+            }
+        }
+        writer.flush();
+    }
+
     /**
-     * Ensures the parent directory exists, creating it if necessary.
+     * Returns the format the storage file is read and written in.
+     *
+     * @return the current storage format
      */
-    private void ensureDirectoryExists() throws IOException {
-        Path parent = filePath.getParent();
-        if (parent != null && !Files.exists(parent)) {
-            Files.createDirectories(parent);
+    public StorageFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Rewrites the storage file in the given format; later saves keep that format.
+     * Any journaled mutations are folded into the converted file.
+     *
+     * @param target the format to convert to
+     * @return the tasks that were converted
+     * @throws LeoException if the file cannot be read or written
+     */
+    public List<Task> convertTo(StorageFormat target) throws LeoException {
+        List<Task> tasksList = load();
+        format = target;
+        try {
+            save(tasksList);
+            flush();
+        } catch (IOException e) {
+            throw new LeoException("Storage error: " + e.getMessage());
         }
+        return tasksList;
     }
 
     /**
-     * Ensures the storage file exists, creating it if necessary.
+     * Ensures the parent directory exists, creating it if necessary.
      */
-    private void ensureFileExists() throws IOException {
-        if (!Files.exists(filePath)) {
-            Files.createFile(filePath);
+    private void ensureDirectoryExists() throws IOException {
+        Path parent = filePath.getParent();
+        if (parent != null && !Files.exists(parent)) {
+            Files.createDirectories(parent);
         }
     }
 
@@ -272,16 +697,17 @@ public class Storage {
     private String formatTaskForStorage(Task task) {
         String status = task.isDone() ? TASK_DONE_STATUS : TASK_NOT_DONE_STATUS;
         String baseFormat = STORAGE_SEPARATOR + status + STORAGE_SEPARATOR + task.getDescription();
+        String idField = task.getId() == 0 ? "" : STORAGE_SEPARATOR + ID_PREFIX + task.getId();
 
         if (task instanceof ToDo) {
-            return TaskType.TODO.code() + baseFormat;
+            return TaskType.TODO.code() + baseFormat + idField;
         } else if (task instanceof Deadline) {
-            String by = ((Deadline) task).getBy().format(DateTimeFormatter.ofPattern(DATE_FORMAT_PATTERN));
-            return TaskType.DEADLINE.code() + baseFormat + STORAGE_SEPARATOR + by;
+            String by = ((Deadline) task).getBy().format(DATE_FORMAT);
+            return TaskType.DEADLINE.code() + baseFormat + STORAGE_SEPARATOR + by + idField;
         } else if (task instanceof Event) {
             String from = ((Event) task).getFrom();
             String to = ((Event) task).getTo();
-            return TaskType.EVENT.code() + baseFormat + STORAGE_SEPARATOR + from + STORAGE_SEPARATOR + to;
+            return TaskType.EVENT.code() + baseFormat + STORAGE_SEPARATOR + from + STORAGE_SEPARATOR + to + idField;
         } else {
             // Unknown task type - this should never happen in normal operation
             // but we handle it explicitly to satisfy the default branch requirement
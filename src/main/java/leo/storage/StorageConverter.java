@@ -0,0 +1,34 @@
+package leo.storage;
+
+import leo.LeoException;
+import leo.tasks.Task;
+
+import java.util.List;
+
+/**
+ * One-shot command-line tool that rewrites a storage file in another format.
+ */
+public class StorageConverter {
+    private static final String USAGE = "Usage: StorageConverter <storage file> <text|binary>";
+
+    /**
+     * Converts the given storage file in place.
+     *
+     * @param args the storage file path and the target format name
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        try {
+            StorageFormat target = StorageFormat.fromName(args[1]);
+            List<Task> converted = new Storage(args[0], true).convertTo(target);
+            System.out.println("Converted " + converted.size() + " tasks to " + target.name().toLowerCase());
+        } catch (IllegalArgumentException | LeoException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package leo.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * On-disk formats supported by {@link Storage}.
+ */
+public enum StorageFormat {
+    TEXT,
+    BINARY;
+
+    /**
+     * Detects the format of an existing storage file from its leading bytes.
+     * Empty or unrecognised files are treated as text.
+     *
+     * @param path the storage file
+     * @return the detected format
+     * @throws IOException if the file cannot be read
+     */
+    public static StorageFormat detect(Path path) throws IOException {
+        byte[] magic = BinaryTaskFormat.MAGIC;
+        byte[] header = new byte[magic.length];
+        try (InputStream in = Files.newInputStream(path)) {
+            if (in.readNBytes(header, 0, header.length) < header.length) {
+                return TEXT;
+            }
+        }
+
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return TEXT;
+            }
+        }
+        return BINARY;
+    }
+
+    /**
+     * Parses a format name such as {@code "text"} or {@code "binary"}.
+     *
+     * @param name the format name, case-insensitive
+     * @return the matching format
+     * @throws IllegalArgumentException if the name does not match any format
+     */
+    public static StorageFormat fromName(String name) {
+        for (StorageFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown storage format: " + name);
+    }
+}
@@ -0,0 +1,263 @@
+package leo.storage;
+
+import leo.tasks.Deadline;
+import leo.tasks.Event;
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Writes tasks out as CSV, JSON Lines or iCalendar for use in other tools.
+ *
+ * <p>The list is copied and written a chunk at a time, so memory use does not grow
+ * with the number of tasks. The file is replaced atomically once everything is written.
+ */
+public final class TaskExporter {
+    private static final int CHUNK_SIZE = 4096;
+    private static final String CSV_HEADER = "type,description,start,end,done";
+    private static final String ICS_LINE_END = "\r\n";
+    private static final int ICS_MAX_LINE_BYTES = 75;
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter ICS_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    /**
+     * Export formats, chosen by the file extension.
+     */
+    public enum Format {
+        CSV(".csv"),
+        JSON_LINES(".jsonl"),
+        ICALENDAR(".ics");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * Picks the format for a file name from its extension.
+         *
+         * @param fileName the name of the file to export to
+         * @return the matching format, or null if the extension is not supported
+         */
+        public static Format fromFileName(String fileName) {
+            String lowerCaseName = fileName.toLowerCase();
+            for (Format format : values()) {
+                if (lowerCaseName.endsWith(format.extension)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    private TaskExporter() {
+    }
+
+    /**
+     * Exports every task in the list to a file.
+     * iCalendar has no entry for an event without dates, so such events are left out of it.
+     *
+     * @param tasks the tasks to export
+     * @param target the file to write
+     * @param format the format to write in
+     * @return the number of tasks written
+     * @throws IOException if writing fails; the target is then left untouched
+     */
+    public static int export(TaskList tasks, Path target, Format format) throws IOException {
+        String stamp = LocalDateTime.now(ZoneOffset.UTC).format(ICS_DATE_TIME) + "Z";
+        int[] written = new int[1];
+        AtomicFile.write(target, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writeHeader(writer, format);
+
+            int position = 0;
+            List<Task> chunk = tasks.snapshot(0, CHUNK_SIZE);
+            while (!chunk.isEmpty()) {
+                for (Task task : chunk) {
+                    if (writeTask(writer, format, task, position, stamp)) {
+                        written[0]++;
+                    }
+                    position++;
+                }
+                chunk = tasks.snapshot(position, position + CHUNK_SIZE);
+            }
+
+            writeFooter(writer, format);
+            writer.flush();
+        });
+        return written[0];
+    }
+
+    private static void writeHeader(Writer writer, Format format) throws IOException {
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        } else if (format == Format.ICALENDAR) {
+            writer.write("BEGIN:VCALENDAR" + ICS_LINE_END);
+            writer.write("VERSION:2.0" + ICS_LINE_END);
+            writer.write("PRODID:-//Leo//Tasks//EN" + ICS_LINE_END);
+        }
+    }
+
+    private static void writeFooter(Writer writer, Format format) throws IOException {
+        if (format == Format.ICALENDAR) {
+            writer.write("END:VCALENDAR" + ICS_LINE_END);
+        }
+    }
+
+    private static boolean writeTask(Writer writer, Format format, Task task, int position, String stamp)
+            throws IOException {
+        switch (format) {
+            case CSV:
+                writeCsv(writer, task);
+                return true;
+            case JSON_LINES:
+                writeJson(writer, task);
+                return true;
+            default:
+                return writeIcs(writer, task, position, stamp);
+        }
+    }
+
+    // CSV rows match what the import command reads: type,description,start,end,done
+    private static void writeCsv(Writer writer, Task task) throws IOException {
+        writer.write(typeName(task));
+        writer.write(',');
+        writeCsvField(writer, task.getDescription());
+        writer.write(',');
+        if (task instanceof Deadline) {
+            writer.write(((Deadline) task).getBy().toString());
+            writer.write(',');
+        } else if (task instanceof Event) {
+            writeCsvField(writer, ((Event) task).getFrom());
+            writer.write(',');
+            writeCsvField(writer, ((Event) task).getTo());
+        } else {
+            writer.write(',');
+        }
+        writer.write(',');
+        writer.write(task.isDone() ? "true" : "false");
+        writer.write('\n');
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean needsQuotes = value.indexOf(',') != -1 || value.indexOf('"') != -1
+                || value.indexOf('\n') != -1 || value.indexOf('\r') != -1;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeJson(Writer writer, Task task) throws IOException {
+        writer.write("{\"type\":\"");
+        writer.write(typeName(task));
+        writer.write("\",\"description\":");
+        writeJsonString(writer, task.getDescription());
+        if (task instanceof Deadline) {
+            writer.write(",\"by\":\"");
+            writer.write(((Deadline) task).getBy().toString());
+            writer.write('"');
+        } else if (task instanceof Event) {
+            writer.write(",\"from\":");
+            writeJsonString(writer, ((Event) task).getFrom());
+            writer.write(",\"to\":");
+            writeJsonString(writer, ((Event) task).getTo());
+        }
+        writer.write(",\"done\":");
+        writer.write(task.isDone() ? "true" : "false");
+        writer.write("}\n");
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < ' ') {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Writes deadlines and todos as VTODO entries and scheduled events as VEVENT entries.
+     *
+     * @return false if the task was left out
+     */
+    private static boolean writeIcs(Writer writer, Task task, int position, String stamp) throws IOException {
+        if (task instanceof Event && !((Event) task).isScheduled()) {
+            return false;
+        }
+
+        boolean isEvent = task instanceof Event;
+        String component = isEvent ? "VEVENT" : "VTODO";
+        writeIcsLine(writer, "BEGIN:" + component);
+        writeIcsLine(writer, "UID:leo-task-" + (position + 1) + "@leo");
+        writeIcsLine(writer, "DTSTAMP:" + stamp);
+        writeIcsLine(writer, "SUMMARY:" + escapeIcsText(task.getDescription()));
+        if (isEvent) {
+            Event event = (Event) task;
+            writeIcsLine(writer, "DTSTART:" + event.getStart().format(ICS_DATE_TIME));
+            writeIcsLine(writer, "DTEND:" + event.getEnd().format(ICS_DATE_TIME));
+        } else {
+            if (task instanceof Deadline) {
+                writeIcsLine(writer, "DUE;VALUE=DATE:" + ((Deadline) task).getBy().format(ICS_DATE));
+            }
+            writeIcsLine(writer, "STATUS:" + (task.isDone() ? "COMPLETED" : "NEEDS-ACTION"));
+        }
+        writeIcsLine(writer, "END:" + component);
+        return true;
+    }
+
+    private static String escapeIcsText(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n")
+                .replace("\r", "");
+    }
+
+    /**
+     * Writes a content line, folding it so no line is longer than 75 bytes of UTF-8.
+     */
+    private static void writeIcsLine(Writer writer, String line) throws IOException {
+        int lineBytes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            // A surrogate pair is counted on its first half, so it is never split across lines
+            int charBytes = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4
+                    : Character.isLowSurrogate(c) ? 0 : 3;
+            if (charBytes > 0 && lineBytes + charBytes > ICS_MAX_LINE_BYTES) {
+                writer.write(ICS_LINE_END + " ");
+                lineBytes = 1;
+            }
+            writer.write(c);
+            lineBytes += charBytes;
+        }
+        writer.write(ICS_LINE_END);
+    }
+
+    private static String typeName(Task task) {
+        if (task instanceof Deadline) {
+            return "deadline";
+        }
+        return task instanceof Event ? "event" : "todo";
+    }
+}
@@ -0,0 +1,179 @@
+package leo.storage;
+
+import leo.tasks.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Undo history saved beside the snapshot file, so undo survives a restart.
+ * The first line stamps the file with the snapshot generation and journal length it was
+ * written against; a file whose stamp does not match the loaded list is ignored.
+ *
+ * <p>Each step starts with a line {@code U <entries>} or {@code R <entries>} for the undo
+ * and redo stacks, followed by one line per entry: {@code A | <task line>},
+ * {@code I | <index> | <task line>}, {@code D | <index> | <task line>} or {@code M/U | <index>}.
+ */
+class UndoFile {
+    private static final String UNDO_SUFFIX = ".undo";
+    private static final String UNDO_STEP = "U";
+    private static final String REDO_STEP = "R";
+    private static final String SEPARATOR = " | ";
+    private static final int INITIAL_STEP_CAPACITY = 16;
+
+    private final Path path;
+
+    /**
+     * Creates an undo file stored beside the given snapshot file.
+     *
+     * @param snapshotPath path of the snapshot file
+     */
+    UndoFile(Path snapshotPath) {
+        this.path = snapshotPath.resolveSibling(snapshotPath.getFileName() + UNDO_SUFFIX);
+    }
+
+    /**
+     * Replaces the file with the current history.
+     *
+     * @param history the history to save
+     * @param stamp identifies the state of the list the history applies to
+     * @param formatter formats a task as a storage line
+     * @throws IOException if writing fails
+     */
+    void write(UndoHistory history, String stamp, Function<Task, String> formatter) throws IOException {
+        List<List<JournalEntry[]>> steps = history.steps();
+        AtomicFile.write(path, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(stamp);
+            writer.write('\n');
+            writeSteps(writer, UNDO_STEP, steps.get(0), formatter);
+            writeSteps(writer, REDO_STEP, steps.get(1), formatter);
+            writer.flush();
+        });
+    }
+
+    private static void writeSteps(Writer writer, String kind, List<JournalEntry[]> steps,
+            Function<Task, String> formatter) throws IOException {
+        for (JournalEntry[] step : steps) {
+            writer.write(kind + " " + step.length + "\n");
+            for (JournalEntry entry : step) {
+                writer.write(format(entry, formatter));
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static String format(JournalEntry entry, Function<Task, String> formatter) {
+        String code = entry.getOperation().code();
+        switch (entry.getOperation()) {
+            case ADD:
+                return code + SEPARATOR + formatter.apply(entry.getTask());
+            case INSERT:
+            case DELETE:
+                return code + SEPARATOR + entry.getIndex() + SEPARATOR + formatter.apply(entry.getTask());
+            default:
+                return code + SEPARATOR + entry.getIndex();
+        }
+    }
+
+    /**
+     * Loads the saved history if it was written against the given state of the list.
+     * A missing, stale or damaged file leaves the history untouched.
+     *
+     * @param history the history to fill
+     * @param stamp identifies the state of the loaded list
+     * @param parser parses a storage line into a task, or returns null if it is invalid
+     * @throws IOException if the file cannot be read
+     */
+    void read(UndoHistory history, String stamp, Function<String, Task> parser) throws IOException {
+        AtomicFile.recover(path);
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        List<JournalEntry[]> undone = new ArrayList<>();
+        List<JournalEntry[]> redone = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            if (!stamp.equals(reader.readLine())) {
+                return;
+            }
+
+            String header;
+            while ((header = reader.readLine()) != null) {
+                String[] parts = header.split(" ");
+                if (parts.length != 2 || !(parts[0].equals(UNDO_STEP) || parts[0].equals(REDO_STEP))) {
+                    return;
+                }
+                JournalEntry[] step = readStep(reader, Integer.parseInt(parts[1]), parser);
+                if (step == null) {
+                    return;
+                }
+                (parts[0].equals(UNDO_STEP) ? undone : redone).add(step);
+            }
+        } catch (NumberFormatException e) {
+            return;
+        }
+        history.restore(undone, redone);
+    }
+
+    private static JournalEntry[] readStep(BufferedReader reader, int length, Function<String, Task> parser)
+            throws IOException {
+        if (length < 0) {
+            return null;
+        }
+
+        // Grown as entries are read, so a damaged count cannot allocate more than the file holds
+        List<JournalEntry> step = new ArrayList<>(Math.min(length, INITIAL_STEP_CAPACITY));
+        for (int i = 0; i < length; i++) {
+            String line = reader.readLine();
+            JournalEntry entry = line == null ? null : parse(line, parser);
+            if (entry == null) {
+                return null;
+            }
+            step.add(entry);
+        }
+        return step.toArray(new JournalEntry[0]);
+    }
+
+    private static JournalEntry parse(String line, Function<String, Task> parser) {
+        int codeEnd = line.indexOf(SEPARATOR);
+        JournalEntry.Operation operation = codeEnd == -1 ? null
+                : JournalEntry.Operation.fromCode(line.substring(0, codeEnd));
+        if (operation == null) {
+            return null;
+        }
+
+        String payload = line.substring(codeEnd + SEPARATOR.length());
+        if (operation == JournalEntry.Operation.ADD) {
+            Task task = parser.apply(payload);
+            return task == null ? null : JournalEntry.added(task);
+        }
+
+        int indexEnd = payload.indexOf(SEPARATOR);
+        int index = Integer.parseInt(indexEnd == -1 ? payload : payload.substring(0, indexEnd));
+        if (index < 0) {
+            return null;
+        }
+        switch (operation) {
+            case MARK:
+                return JournalEntry.marked(index);
+            case UNMARK:
+                return JournalEntry.unmarked(index);
+            default:
+                Task task = indexEnd == -1 ? null : parser.apply(payload.substring(indexEnd + SEPARATOR.length()));
+                if (task == null) {
+                    return null;
+                }
+                return operation == JournalEntry.Operation.INSERT
+                        ? JournalEntry.inserted(index, task) : JournalEntry.deleted(index, task);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package leo.storage;
+
+import leo.LeoException;
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Undo and redo stacks for the changes made to a task list.
+ *
+ * <p>A step is the journal entries of one command, so no copy of the list is ever kept.
+ * To undo a step, each entry is reversed: an added task is removed by its ID, a removed
+ * task is put back at its index, and a status change is flipped. Undoing or redoing
+ * a step takes time in the number of its entries, not the size of the list: the list keeps
+ * the slot of every deleted task the history can put back (see {@link #canRestore}).
+ * Only steps loaded from disk put tasks back in time linear in the list, as their slots
+ * were gone before the list was loaded.
+ *
+ * <p>Steps are dropped oldest first once their estimated size passes the memory budget
+ * (start Java with {@code -Dleo.undoMemoryMB=<n>}; 16 MB by default). A step that
+ * cannot be undone, or that is larger than the whole budget, clears the history,
+ * since no earlier step can be undone past it.
+ */
+public class UndoHistory {
+    private static final long DEFAULT_BUDGET_BYTES = Long.getLong("leo.undoMemoryMB", 16) << 20;
+    // Rough sizes of an entry, and of a task object kept alive by the history
+    private static final long ENTRY_BYTES = 32;
+    private static final long TASK_BYTES = 96;
+
+    private final Deque<JournalEntry[]> undoSteps = new ArrayDeque<>();
+    private final Deque<JournalEntry[]> redoSteps = new ArrayDeque<>();
+    // How many delete entries in the undo steps hold each task ID; read by the list without this lock
+    private final Map<Long, Integer> restorableIds = new ConcurrentHashMap<>();
+    private final long budgetBytes;
+    private long usedBytes;
+    private boolean isChanged; // since the history was last saved
+
+    UndoHistory() {
+        this(DEFAULT_BUDGET_BYTES);
+    }
+
+    UndoHistory(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Records the entries of one command as a step that can be undone.
+     * Any undone steps can no longer be redone.
+     *
+     * @param entries the changes made by the command, in order
+     */
+    public synchronized void record(JournalEntry... entries) {
+        if (entries.length == 0) {
+            return;
+        }
+
+        isChanged = true;
+        clear(redoSteps);
+        long stepBytes = sizeOf(entries);
+        if (stepBytes > budgetBytes || !canUndo(entries)) {
+            clear(undoSteps);
+            return;
+        }
+
+        addUndoStep(entries);
+        while (usedBytes > budgetBytes) {
+            JournalEntry[] dropped = undoSteps.removeFirst();
+            usedBytes -= sizeOf(dropped);
+            countRestorable(dropped, -1);
+        }
+    }
+
+    /**
+     * Returns whether undoing a step could put back the deleted task with the given ID.
+     * Safe to call from any thread without locking the history.
+     *
+     * @param id the task's ID
+     * @return true if a delete of that task can still be undone
+     */
+    public boolean canRestore(long id) {
+        return restorableIds.containsKey(id);
+    }
+
+    private void addUndoStep(JournalEntry[] step) {
+        undoSteps.addLast(step);
+        usedBytes += sizeOf(step);
+        countRestorable(step, 1);
+    }
+
+    private void countRestorable(JournalEntry[] step, int change) {
+        for (JournalEntry entry : step) {
+            if (entry.getOperation() == JournalEntry.Operation.DELETE && entry.getTask() != null) {
+                restorableIds.merge(entry.getTask().getId(), change, (count, delta) -> {
+                    int sum = count + delta;
+                    return sum == 0 ? null : sum;
+                });
+            }
+        }
+    }
+
+    /**
+     * Reverses the most recent step.
+     *
+     * @param tasks the task list the step was applied to
+     * @return the changes made to undo it, in the order they were made
+     * @throws LeoException if there is nothing to undo, or the list no longer matches the step
+     */
+    public synchronized JournalEntry[] undo(TaskList tasks) throws LeoException {
+        JournalEntry[] step = undoSteps.pollLast();
+        if (step == null) {
+            throw new LeoException("Nothing to undo");
+        }
+
+        isChanged = true;
+        countRestorable(step, -1);
+        JournalEntry[] applied = new JournalEntry[step.length];
+        try {
+            for (int i = 0; i < step.length; i++) {
+                applied[i] = revert(tasks, step[step.length - 1 - i]);
+            }
+        } catch (LeoException e) {
+            clearAll();
+            throw e;
+        }
+        redoSteps.addLast(step);
+        return applied;
+    }
+
+    /**
+     * Applies the most recently undone step again.
+     *
+     * @param tasks the task list the step was undone on
+     * @return the changes made to redo it, in the order they were made
+     * @throws LeoException if there is nothing to redo, or the list no longer matches the step
+     */
+    public synchronized JournalEntry[] redo(TaskList tasks) throws LeoException {
+        JournalEntry[] step = redoSteps.pollLast();
+        if (step == null) {
+            throw new LeoException("Nothing to redo");
+        }
+
+        isChanged = true;
+        JournalEntry[] applied = new JournalEntry[step.length];
+        try {
+            for (int i = 0; i < step.length; i++) {
+                applied[i] = apply(tasks, step[i]);
+            }
+        } catch (LeoException e) {
+            clearAll();
+            throw e;
+        }
+        undoSteps.addLast(step);
+        countRestorable(step, 1);
+        return applied;
+    }
+
+    /**
+     * Reverses one entry.
+     */
+    private static JournalEntry revert(TaskList tasks, JournalEntry entry) throws LeoException {
+        int index = entry.getIndex();
+        switch (entry.getOperation()) {
+            case ADD:
+                index = tasks.indexOfId(entry.getTask().getId());
+                if (index == -1) {
+                    throw new LeoException("The list no longer matches the undo history");
+                }
+                return JournalEntry.deleted(index, tasks.remove(index));
+            case INSERT:
+                tasks.validateIndex(index);
+                return JournalEntry.deleted(index, tasks.remove(index));
+            case DELETE:
+                validateInsertIndex(tasks, index);
+                tasks.insert(index, entry.getTask());
+                return JournalEntry.inserted(index, entry.getTask());
+            case MARK:
+                tasks.validateIndex(index);
+                return JournalEntry.statusChanged(index, tasks.setDone(index, false));
+            default:
+                tasks.validateIndex(index);
+                return JournalEntry.statusChanged(index, tasks.setDone(index, true));
+        }
+    }
+
+    /**
+     * Applies one entry again.
+     */
+    private static JournalEntry apply(TaskList tasks, JournalEntry entry) throws LeoException {
+        int index = entry.getIndex();
+        switch (entry.getOperation()) {
+            case ADD:
+                tasks.add(entry.getTask());
+                return JournalEntry.added(entry.getTask());
+            case INSERT:
+                validateInsertIndex(tasks, index);
+                tasks.insert(index, entry.getTask());
+                return JournalEntry.inserted(index, entry.getTask());
+            case DELETE:
+                tasks.validateIndex(index);
+                return JournalEntry.deleted(index, tasks.remove(index));
+            case MARK:
+                tasks.validateIndex(index);
+                return JournalEntry.statusChanged(index, tasks.setDone(index, true));
+            default:
+                tasks.validateIndex(index);
+                return JournalEntry.statusChanged(index, tasks.setDone(index, false));
+        }
+    }
+
+    private static void validateInsertIndex(TaskList tasks, int index) throws LeoException {
+        if (index < 0 || index > tasks.size()) {
+            throw new LeoException("The list no longer matches the undo history");
+        }
+    }
+
+    /**
+     * Returns whether every entry keeps what it needs to be reversed.
+     */
+    private static boolean canUndo(JournalEntry[] entries) {
+        for (JournalEntry entry : entries) {
+            boolean needsTask = entry.getOperation() != JournalEntry.Operation.MARK
+                    && entry.getOperation() != JournalEntry.Operation.UNMARK;
+            if (needsTask && entry.getTask() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long sizeOf(JournalEntry[] entries) {
+        long bytes = 0;
+        for (JournalEntry entry : entries) {
+            bytes += ENTRY_BYTES;
+            Task task = entry.getTask();
+            if (task != null) {
+                bytes += TASK_BYTES + 2L * task.getDescription().length();
+            }
+        }
+        return bytes;
+    }
+
+    private void clear(Deque<JournalEntry[]> steps) {
+        while (!steps.isEmpty()) {
+            JournalEntry[] step = steps.removeFirst();
+            usedBytes -= sizeOf(step);
+            if (steps == undoSteps) {
+                countRestorable(step, -1);
+            }
+        }
+    }
+
+    private void clearAll() {
+        clear(undoSteps);
+        clear(redoSteps);
+    }
+
+    /**
+     * Returns whether anything changed since the history was last saved, and resets the flag.
+     */
+    synchronized boolean takeChanged() {
+        boolean wasChanged = isChanged;
+        isChanged = false;
+        return wasChanged;
+    }
+
+    /**
+     * Returns copies of the undo and redo steps, oldest first, for saving.
+     */
+    synchronized List<List<JournalEntry[]>> steps() {
+        List<List<JournalEntry[]>> steps = new ArrayList<>(2);
+        steps.add(new ArrayList<>(undoSteps));
+        steps.add(new ArrayList<>(redoSteps));
+        return steps;
+    }
+
+    /**
+     * Replaces the history with steps loaded from disk, oldest first.
+     */
+    synchronized void restore(List<JournalEntry[]> undone, List<JournalEntry[]> redone) {
+        clearAll();
+        for (JournalEntry[] step : undone) {
+            addUndoStep(step);
+        }
+        for (JournalEntry[] step : redone) {
+            redoSteps.addLast(step);
+            usedBytes += sizeOf(step);
+        }
+        isChanged = false;
+    }
+}
@@ -0,0 +1,129 @@
+package leo.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Unfinished deadlines ordered by due date.
+ *
+ * <p>Only deadlines that are not done are indexed, so completed tasks never have
+ * to be skipped: marking a deadline as done removes it, and unmarking adds it back.
+ * A range query walks just the days in range, in O(log n + k).
+ * Deleted tasks stay indexed until {@link #purge} drops them all in one pass; queries skip them.
+ */
+class DueIndex {
+    private final TreeMap<Long, List<Task>> tasksByDay = new TreeMap<>();
+
+    /**
+     * Indexes a task if it is an unfinished deadline; other tasks are ignored.
+     * Tasks due on the same day are kept in ID order, which is list order.
+     *
+     * @param task the added or unmarked task
+     */
+    void add(Task task) {
+        if (!isIndexed(task)) {
+            return;
+        }
+
+        List<Task> dayTasks = tasksByDay.computeIfAbsent(dayOf(task), day -> new ArrayList<>(1));
+        int i = dayTasks.size();
+        while (i > 0 && dayTasks.get(i - 1).getId() > task.getId()) {
+            i--;
+        }
+        dayTasks.add(i, task);
+    }
+
+    /**
+     * Removes a task from the index if it is there.
+     *
+     * @param task the marked task
+     */
+    void remove(Task task) {
+        if (!(task instanceof Deadline)) {
+            return;
+        }
+
+        long day = dayOf(task);
+        List<Task> dayTasks = tasksByDay.get(day);
+        if (dayTasks == null) {
+            return;
+        }
+        for (int i = 0; i < dayTasks.size(); i++) {
+            if (dayTasks.get(i) == task) {
+                dayTasks.remove(i);
+                break;
+            }
+        }
+        if (dayTasks.isEmpty()) {
+            tasksByDay.remove(day);
+        }
+    }
+
+    /**
+     * Returns unfinished deadlines due in {@code [fromDay, toDay)}, ordered by date.
+     *
+     * @param fromDay the first epoch day, inclusive
+     * @param toDay the last epoch day, exclusive
+     * @param isLive tells whether a task is still in the list
+     * @return the tasks due in the range
+     */
+    List<Task> findDue(long fromDay, long toDay, Predicate<Task> isLive) {
+        List<Task> dueTasks = new ArrayList<>();
+        if (fromDay >= toDay) {
+            return dueTasks;
+        }
+
+        NavigableMap<Long, List<Task>> range = tasksByDay.subMap(fromDay, true, toDay, false);
+        for (List<Task> dayTasks : range.values()) {
+            for (Task task : dayTasks) {
+                if (isLive.test(task)) {
+                    dueTasks.add(task);
+                }
+            }
+        }
+        return dueTasks;
+    }
+
+    /**
+     * Returns how many unfinished deadlines are due in {@code [fromDay, toDay)},
+     * counting deleted ones not purged yet.
+     *
+     * @param fromDay the first epoch day, inclusive
+     * @param toDay the last epoch day, exclusive
+     * @return the number of tasks due in the range
+     */
+    int count(long fromDay, long toDay) {
+        if (fromDay >= toDay) {
+            return 0;
+        }
+
+        int count = 0;
+        for (List<Task> dayTasks : tasksByDay.subMap(fromDay, true, toDay, false).values()) {
+            count += dayTasks.size();
+        }
+        return count;
+    }
+
+    /**
+     * Drops every task that is no longer live from the index.
+     *
+     * @param isLive tells whether a task is still in the list
+     */
+    void purge(Predicate<Task> isLive) {
+        tasksByDay.values().removeIf(dayTasks -> {
+            dayTasks.removeIf(isLive.negate());
+            return dayTasks.isEmpty();
+        });
+    }
+
+    private static boolean isIndexed(Task task) {
+        return task instanceof Deadline && !task.isDone();
+    }
+
+    private static long dayOf(Task task) {
+        return ((Deadline) task).getBy().toEpochDay();
+    }
+}
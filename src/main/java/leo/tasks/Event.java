@@ -1,11 +1,25 @@
 package leo.tasks;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
 /**
  * Represents a task with a specific time range (from start to end).
+ * When both ends are written as dates ({@code yyyy-MM-dd}, optionally followed by
+ * {@code HH:mm} or {@code HHmm}), the event is also scheduled at those times;
+ * the original text is always kept for display.
  */
 public class Event extends Task {
+    private static final DateTimeFormatter DATE_TIME_COLON = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final DateTimeFormatter DATE_TIME_COMPACT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final int DATE_LENGTH = 10; // yyyy-MM-dd
+
     protected String from;
     protected String to;
+    private final LocalDateTime start; // null unless the event is scheduled
+    private final LocalDateTime end; // exclusive
 
     /**
      * Creates a new event task with the specified description and time range.
@@ -18,6 +32,13 @@ public class Event extends Task {
         super(description);
         this.from = from;
         this.to = to;
+
+        // A date without a time covers the whole day
+        LocalDateTime parsedStart = parseTime(from, false);
+        LocalDateTime parsedEnd = parseTime(to, true);
+        boolean isScheduled = parsedStart != null && parsedEnd != null && parsedStart.isBefore(parsedEnd);
+        this.start = isScheduled ? parsedStart : null;
+        this.end = isScheduled ? parsedEnd : null;
     }
 
     @Override
@@ -42,4 +63,58 @@ public class Event extends Task {
     public String getTo() {
         return to;
     }
+
+    /**
+     * Returns whether both ends of this event were given as dates.
+     *
+     * @return true if {@link #getStart()} and {@link #getEnd()} are available
+     */
+    public boolean isScheduled() {
+        return start != null;
+    }
+
+    /**
+     * Returns when this event starts, if it is scheduled.
+     *
+     * @return the start, or null
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Returns when this event ends (exclusive), if it is scheduled.
+     * An end given as a date alone means the end of that day.
+     *
+     * @return the end, or null
+     */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd}, {@code yyyy-MM-dd HH:mm} or {@code yyyy-MM-dd HHmm}.
+     *
+     * @param text the text to parse
+     * @param isEnd whether a date alone should mean the end rather than the start of the day
+     * @return the parsed time, or null if the text is not a date
+     */
+    private static LocalDateTime parseTime(String text, boolean isEnd) {
+        String trimmed = text.trim();
+        // Most free-text times ("Mon 2pm") are rejected without invoking a formatter
+        if (trimmed.length() < DATE_LENGTH || !Character.isDigit(trimmed.charAt(0))) {
+            return null;
+        }
+
+        try {
+            if (trimmed.length() == DATE_LENGTH) {
+                LocalDate date = LocalDate.parse(trimmed);
+                return isEnd ? date.plusDays(1).atStartOfDay() : date.atStartOfDay();
+            }
+            DateTimeFormatter format = trimmed.indexOf(':') != -1 ? DATE_TIME_COLON : DATE_TIME_COMPACT;
+            return LocalDateTime.parse(trimmed, format);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
 }
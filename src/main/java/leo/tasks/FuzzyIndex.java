@@ -0,0 +1,307 @@
+package leo.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Index of the distinct words in task descriptions, for finding words close to a misspelled one.
+ *
+ * <p>Each word is indexed by the trigrams of the word padded with a boundary mark, so even
+ * one-letter words have one. Since one edit changes at most {@value #GRAMS_PER_EDIT} trigrams,
+ * a word close to the query shares most of its trigrams, and so appears in the list of one of
+ * the query's rarest trigrams. A search checks the edit distance of the words in those lists
+ * only, widening the allowed distance step by step until no unchecked word can beat the kept
+ * results. Tasks under a word are in list order, so only the first few of each word can make
+ * the results.
+ *
+ * <p>Deleted tasks stay under their words until {@link #purge} drops them all in one pass;
+ * searches skip them in the meantime.
+ */
+class FuzzyIndex {
+    // Pads words so their first and last letters start and end a trigram of their own
+    private static final char BOUNDARY = '$';
+    // One edit changes at most this many trigrams of a word (a swap of two letters)
+    private static final int GRAMS_PER_EDIT = 4;
+    private static final int INITIAL_CAPACITY = 16;
+    // Words no task uses any more are dropped once they are half of all words, and at least this many
+    private static final int MIN_UNUSED_TO_DROP = 1024;
+
+    private final Map<String, Word> words = new HashMap<>();
+    private final Map<Long, WordIds> wordIdsByGram = new HashMap<>();
+    private Word[] wordsById = new Word[INITIAL_CAPACITY];
+    private int unusedWordCount;
+
+    /**
+     * Indexes a task added to the list.
+     *
+     * @param task the added task
+     */
+    void add(Task task) {
+        for (String text : words(task.getDescription())) {
+            Word word = words.get(text);
+            if (word == null) {
+                word = addWord(text, new TaskPosting());
+            } else if (word.tasks.size() == 0) {
+                unusedWordCount--;
+            }
+            word.tasks.add(task);
+        }
+    }
+
+    /**
+     * Drops every task that is no longer live from the index.
+     *
+     * @param isLive tells whether a task is still in the list
+     */
+    void purge(Predicate<Task> isLive) {
+        unusedWordCount = 0;
+        for (Word word : words.values()) {
+            word.tasks.retain(isLive);
+            if (word.tasks.size() == 0) {
+                unusedWordCount++;
+            }
+        }
+
+        // Unused words stay in the trigram lists, which are costly to remove from, until there are many
+        if (unusedWordCount >= MIN_UNUSED_TO_DROP && unusedWordCount * 2 > words.size()) {
+            dropUnusedWords();
+        }
+    }
+
+    private Word addWord(String text, TaskPosting tasks) {
+        if (words.size() == wordsById.length) {
+            wordsById = Arrays.copyOf(wordsById, wordsById.length * 2);
+        }
+        Word word = new Word(words.size(), text, tasks);
+        wordsById[word.id] = word;
+        words.put(text, word);
+        for (long gram : grams(text)) {
+            wordIdsByGram.computeIfAbsent(gram, key -> new WordIds()).add(word.id);
+        }
+        return word;
+    }
+
+    private void dropUnusedWords() {
+        List<Word> used = new ArrayList<>(words.size() - unusedWordCount);
+        for (Word word : words.values()) {
+            if (word.tasks.size() > 0) {
+                used.add(word);
+            }
+        }
+
+        words.clear();
+        wordIdsByGram.clear();
+        wordsById = new Word[Math.max(INITIAL_CAPACITY, used.size())];
+        unusedWordCount = 0;
+        for (Word word : used) {
+            addWord(word.text, word.tasks);
+        }
+    }
+
+    /**
+     * Finds the tasks with a word closest to the query, closest first and then in list order.
+     * A word must share at least one trigram with the query to be considered.
+     *
+     * @param query the lowercased word to look for
+     * @param limit the number of tasks to return at most
+     * @param isLive tells whether a task is still in the list
+     * @return the closest tasks
+     */
+    List<Task> find(String query, int limit, Predicate<Task> isLive) {
+        int maxDistance = maxDistance(query.length());
+        long[] queryGrams = grams(query);
+        WordIds[] gramWords = new WordIds[queryGrams.length];
+        for (int i = 0; i < queryGrams.length; i++) {
+            gramWords[i] = wordIdsByGram.getOrDefault(queryGrams[i], new WordIds());
+        }
+        Arrays.sort(gramWords, Comparator.comparingInt(ids -> ids.size));
+
+        // A word within d edits still shares all but GRAMS_PER_EDIT * d of the query's trigrams,
+        // so it appears in one of the rarest trigrams' lists; widen d until the results are settled
+        RankedTasks ranked = new RankedTasks(limit);
+        BitSet checked = new BitSet(words.size());
+        int checkedCount = 0;
+        for (int distance = 0; distance <= maxDistance && ranked.canKeep(distance); distance++) {
+            int minShared = Math.max(1, queryGrams.length - GRAMS_PER_EDIT * distance);
+            for (int list = 0; list <= queryGrams.length - minShared; list++) {
+                WordIds ids = gramWords[list];
+                for (int i = 0; i < ids.size; i++) {
+                    int id = ids.ids[i];
+                    if (checked.get(id)) {
+                        continue;
+                    }
+                    checked.set(id);
+                    TaskList.checkCancelled(checkedCount++);
+                    checkWord(ranked, wordsById[id], query, maxDistance, isLive);
+                }
+            }
+        }
+        return ranked.toList();
+    }
+
+    private static void checkWord(RankedTasks ranked, Word word, String query, int maxDistance,
+            Predicate<Task> isLive) {
+        if (word.tasks.size() == 0 || Math.abs(word.text.length() - query.length()) > maxDistance) {
+            return;
+        }
+        int distance = distance(word.text, query, maxDistance);
+        if (distance > maxDistance || !ranked.canKeep(distance)) {
+            return;
+        }
+        for (int i = 0; i < word.tasks.size(); i++) {
+            Task task = word.tasks.get(i);
+            // Later tasks under the word can only rank lower
+            if (isLive.test(task) && !ranked.offer(task, distance)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns how many edits a word may be from a query of the given length and still match.
+     *
+     * @param queryLength the length of the query
+     * @return the greatest accepted edit distance
+     */
+    static int maxDistance(int queryLength) {
+        if (queryLength <= 2) {
+            return 0;
+        }
+        return queryLength <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Returns how close the closest word of a description is to the query.
+     *
+     * @param description the task description
+     * @param query the lowercased query word
+     * @param maxDistance the greatest distance of interest
+     * @return the smallest edit distance, or {@code maxDistance + 1} if no word is close enough
+     */
+    static int bestDistance(String description, String query, int maxDistance) {
+        assert maxDistance >= 0 : "Distance bound must not be negative";
+        int best = maxDistance + 1;
+        for (String word : words(description)) {
+            best = Math.min(best, distance(word, query, Math.min(maxDistance, best - 1)));
+            if (best == 0) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the edit distance between two words, counting an insertion, deletion,
+     * substitution or swap of two neighbouring letters as one edit.
+     * Only the cells within {@code maxDistance} of the diagonal are computed, and the
+     * computation stops once every alignment needs more than {@code maxDistance} edits.
+     *
+     * @param a the first word
+     * @param b the second word
+     * @param maxDistance the greatest distance of interest
+     * @return the distance, or {@code maxDistance + 1} if it is greater than {@code maxDistance}
+     */
+    static int distance(String a, String b, int maxDistance) {
+        int tooFar = maxDistance + 1;
+        if (maxDistance < 0 || Math.abs(a.length() - b.length()) > maxDistance) {
+            return tooFar;
+        }
+
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = Math.min(j, tooFar);
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(b.length(), i + maxDistance);
+            current[from - 1] = from == 1 ? Math.min(i, tooFar) : tooFar;
+            int rowMin = current[from - 1];
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = Math.min(value, tooFar);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < b.length()) {
+                current[to + 1] = tooFar; // outside the band, as seen by the next row
+            }
+            if (rowMin > maxDistance) {
+                return tooFar;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Splits text into its distinct lowercased words: runs of letters and digits.
+     *
+     * @param text the text to split
+     * @return the words, in order of first appearance
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start == -1) {
+                start = i;
+            } else if (!isWordChar && start != -1) {
+                String word = text.substring(start, i).toLowerCase();
+                if (!words.contains(word)) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static long[] grams(String word) {
+        return KeywordIndex.distinctGrams(BOUNDARY + word + BOUNDARY);
+    }
+
+    /**
+     * A distinct word and the tasks using it.
+     */
+    private static final class Word {
+        private final int id;
+        private final String text;
+        private final TaskPosting tasks;
+
+        Word(int id, String text, TaskPosting tasks) {
+            this.id = id;
+            this.text = text;
+            this.tasks = tasks;
+        }
+    }
+
+    /**
+     * A growable list of word IDs.
+     */
+    private static final class WordIds {
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
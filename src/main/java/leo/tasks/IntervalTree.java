@@ -0,0 +1,217 @@
+package leo.tasks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Interval tree over scheduled events, for point, range and overlap queries.
+ *
+ * <p>Events are kept in a treap ordered by start time, and every node also records
+ * the latest end time in its subtree. A search skips any subtree that ends before
+ * the query starts, and everything right of a node that starts after the query
+ * ends, so a query takes O(log n + k) for k results.
+ */
+class IntervalTree {
+    private final Random priorities = new Random();
+    private final Map<Task, Node> nodes = new IdentityHashMap<>();
+    private Node root;
+
+    /**
+     * Indexes a task if it is a scheduled event; other tasks are ignored.
+     *
+     * @param task the added task
+     */
+    void add(Task task) {
+        if (!(task instanceof Event) || !((Event) task).isScheduled()) {
+            return;
+        }
+        Node node = new Node((Event) task, task.getId(), priorities.nextInt());
+        nodes.put(task, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes a task from the index if it is there.
+     *
+     * @param task the removed task
+     */
+    void remove(Task task) {
+        Node node = nodes.remove(task);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    /**
+     * Returns the events that overlap {@code [from, to)}, ordered by start time.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return the overlapping events
+     */
+    List<Task> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<Task> overlapping = new ArrayList<>();
+        collect(root, minutesOf(from), minutesOf(to), overlapping);
+        return overlapping;
+    }
+
+    /**
+     * Returns every pair of events that overlap, the earlier-starting event first.
+     *
+     * @return the clashing pairs, ordered by the start of the later event
+     */
+    List<Task[]> findClashes() {
+        List<Task[]> clashes = new ArrayList<>();
+        PriorityQueue<Node> active = new PriorityQueue<>((a, b) -> Long.compare(a.end, b.end));
+        Deque<Node> path = new ArrayDeque<>();
+        Node current = root;
+
+        // Sweep the events in start order, keeping those still running
+        while (current != null || !path.isEmpty()) {
+            while (current != null) {
+                path.push(current);
+                current = current.left;
+            }
+            Node node = path.pop();
+            while (!active.isEmpty() && active.peek().end <= node.start) {
+                active.poll();
+            }
+            for (Node running : active) {
+                clashes.add(new Task[]{running.event, node.event});
+            }
+            active.add(node);
+            current = node.right;
+        }
+        return clashes;
+    }
+
+    private static long minutesOf(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static void collect(Node node, long from, long to, List<Task> overlapping) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        collect(node.left, from, to, overlapping);
+        if (node.start < to) {
+            if (node.end > from) {
+                overlapping.add(node.event);
+            }
+            collect(node.right, from, to, overlapping);
+        }
+    }
+
+    private static boolean isBefore(Node a, Node b) {
+        return a.start < b.start || (a.start == b.start && a.sequence < b.sequence);
+    }
+
+    private static Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (isBefore(node, tree)) {
+            tree.left = insert(tree.left, node);
+            if (tree.left.priority > tree.priority) {
+                tree = rotateRight(tree);
+            }
+        } else {
+            tree.right = insert(tree.right, node);
+            if (tree.right.priority > tree.priority) {
+                tree = rotateLeft(tree);
+            }
+        }
+        update(tree);
+        return tree;
+    }
+
+    private static Node delete(Node tree, Node node) {
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+        if (isBefore(node, tree)) {
+            tree.left = delete(tree.left, node);
+        } else {
+            tree.right = delete(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node tree) {
+        Node pivot = tree.left;
+        tree.left = pivot.right;
+        pivot.right = tree;
+        update(tree);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node tree) {
+        Node pivot = tree.right;
+        tree.right = pivot.left;
+        pivot.left = tree;
+        update(tree);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    /**
+     * An event in the treap, with times in epoch minutes.
+     */
+    private static class Node {
+        private final Event event;
+        private final long start;
+        private final long end;
+        private final long sequence; // the task's ID, which orders events with equal starts by list position
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(Event event, long sequence, int priority) {
+            this.event = event;
+            this.start = minutesOf(event.getStart());
+            this.end = minutesOf(event.getEnd());
+            this.sequence = sequence;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+}
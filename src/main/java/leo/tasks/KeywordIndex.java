@@ -0,0 +1,124 @@
+package leo.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Trigram index over lowercased task descriptions.
+ *
+ * <p>Every keyword of at least {@link #GRAM_LENGTH} characters that a description
+ * contains also shares all of its trigrams with that description, so the posting
+ * list of the keyword's rarest trigram holds every match. The list checks those
+ * candidates with the same {@code contains} test as a full scan.
+ *
+ * <p>Deleting a task leaves it in the posting lists, since a common trigram's list holds
+ * nearly every task and would have to be searched and shifted; candidates may include
+ * deleted tasks until {@link #purge} drops them all in one pass.
+ */
+class KeywordIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, TaskPosting> postings = new HashMap<>();
+
+    /**
+     * Indexes a task added to the list.
+     *
+     * @param task the added task
+     */
+    void add(Task task) {
+        for (long gram : distinctGrams(lowercase(task))) {
+            postings.computeIfAbsent(gram, key -> new TaskPosting()).add(task);
+        }
+    }
+
+    /**
+     * Drops every task that is no longer live from the posting lists.
+     *
+     * @param isLive tells whether a task is still in the list
+     */
+    void purge(Predicate<Task> isLive) {
+        postings.values().removeIf(posting -> {
+            posting.retain(isLive);
+            return posting.size() == 0;
+        });
+    }
+
+    /**
+     * Returns whether the keyword is long enough to be answered from the index.
+     *
+     * @param searchKeyword the lowercased keyword
+     * @return true if {@link #candidates} can be used
+     */
+    static boolean canSearch(String searchKeyword) {
+        return searchKeyword.length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Returns how many {@link #candidates} there are for the keyword: the size of its
+     * rarest trigram's posting list, which may still count deleted tasks.
+     *
+     * @param searchKeyword the lowercased keyword, at least {@link #GRAM_LENGTH} characters
+     * @return the number of candidates
+     */
+    int estimate(String searchKeyword) {
+        assert canSearch(searchKeyword) : "Keyword too short for the trigram index";
+
+        int fewest = Integer.MAX_VALUE;
+        for (long gram : distinctGrams(searchKeyword)) {
+            TaskPosting posting = postings.get(gram);
+            fewest = Math.min(fewest, posting == null ? 0 : posting.size());
+        }
+        return fewest;
+    }
+
+    /**
+     * Returns the tasks that may contain the keyword, in list order: a copy of the posting
+     * list of its rarest trigram, which holds every task that does.
+     *
+     * @param searchKeyword the lowercased keyword, at least {@link #GRAM_LENGTH} characters
+     * @return the candidates, including deleted tasks not purged yet
+     */
+    List<Task> candidates(String searchKeyword) {
+        assert canSearch(searchKeyword) : "Keyword too short for the trigram index";
+
+        TaskPosting rarest = null;
+        for (long gram : distinctGrams(searchKeyword)) {
+            TaskPosting posting = postings.get(gram);
+            if (posting == null) {
+                return new ArrayList<>();
+            }
+            if (rarest == null || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+        return rarest.copy();
+    }
+
+    private static String lowercase(Task task) {
+        return task.getDescription().toLowerCase();
+    }
+
+    /**
+     * Packs every distinct trigram of the text into a sorted array of longs.
+     */
+    static long[] distinctGrams(String text) {
+        int gramCount = Math.max(0, text.length() - GRAM_LENGTH + 1);
+        long[] grams = new long[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+
+        int distinct = 0;
+        for (int i = 0; i < gramCount; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+}
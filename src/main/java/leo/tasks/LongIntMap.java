@@ -0,0 +1,152 @@
+package leo.tasks;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from task IDs to slots, stored in two primitive arrays.
+ *
+ * <p>Open addressing with linear probing: a lookup hashes the key and reads forward
+ * until it finds the key or an empty cell, so no entry or boxed key is allocated.
+ * Removal shifts later entries of the same probe run back instead of leaving markers.
+ * Keys must be positive; 0 marks an empty cell.
+ */
+final class LongIntMap {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long EMPTY = 0;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns the value stored for a key.
+     *
+     * @param key the key, positive
+     * @return the value, or -1 if the key is absent
+     */
+    int get(long key) {
+        // One table throughout, so a lookup racing a resize still ends at an empty cell
+        long[] table = keys;
+        int mask = table.length - 1;
+        for (int cell = cellOf(key, mask); table[cell] != EMPTY; cell = (cell + 1) & mask) {
+            if (table[cell] == key) {
+                return values[cell];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns whether a key is present.
+     *
+     * @param key the key, positive
+     * @return true if the map holds a value for it
+     */
+    boolean containsKey(long key) {
+        return get(key) != -1;
+    }
+
+    /**
+     * Stores a value for a key, replacing any previous value.
+     *
+     * @param key the key, positive
+     * @param value the value, not negative
+     */
+    void put(long key, int value) {
+        assert key > 0 && value >= 0 : "keys must be positive and values not negative";
+        // Keep at most half the cells full so probe runs stay short
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+
+        int mask = keys.length - 1;
+        int cell = cellOf(key, mask);
+        while (keys[cell] != EMPTY && keys[cell] != key) {
+            cell = (cell + 1) & mask;
+        }
+        if (keys[cell] == EMPTY) {
+            keys[cell] = key;
+            size++;
+        }
+        values[cell] = value;
+    }
+
+    /**
+     * Removes a key if it is present.
+     *
+     * @param key the key, positive
+     */
+    void remove(long key) {
+        int mask = keys.length - 1;
+        int cell = cellOf(key, mask);
+        while (keys[cell] != key) {
+            if (keys[cell] == EMPTY) {
+                return;
+            }
+            cell = (cell + 1) & mask;
+        }
+
+        // Move back any later entry whose probe run passes through the freed cell
+        int gap = cell;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = cellOf(keys[next], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    /**
+     * Removes every entry and shrinks the map to hold the expected number of keys.
+     *
+     * @param expectedSize how many keys are about to be put
+     */
+    void clear(int expectedSize) {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        if (capacity == keys.length) {
+            Arrays.fill(keys, EMPTY);
+        } else {
+            keys = new long[capacity];
+            values = new int[capacity];
+        }
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            int cell = cellOf(oldKeys[i], mask);
+            while (keys[cell] != EMPTY) {
+                cell = (cell + 1) & mask;
+            }
+            keys[cell] = oldKeys[i];
+            values[cell] = oldValues[i];
+        }
+    }
+
+    /**
+     * Spreads consecutive IDs over the table with a multiplicative hash.
+     */
+    private static int cellOf(long key, int mask) {
+        return (int) ((key * GOLDEN_RATIO) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,90 @@
+package leo.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs a scan over many rows on the common fork/join pool.
+ *
+ * <p>The rows are cut into contiguous chunks, a few per core, which are scanned at the same
+ * time; the matches of each chunk are then joined in chunk order, so the results come in row
+ * order just as from a sequential scan. Lists shorter than the threshold are scanned on the
+ * calling thread, where splitting would cost more than it saves.
+ */
+final class ParallelScan {
+    // Start Java with -Dleo.parallelScanThreshold=<rows> to change how long a list must be to scan it in parallel
+    private static final int THRESHOLD = Integer.getInteger("leo.parallelScanThreshold", 1 << 16);
+    // Chunks per core, so a core that finishes early can take over another chunk
+    private static final int CHUNKS_PER_CORE = 4;
+    private static final int MIN_CHUNK_ROWS = 1 << 12;
+
+    /**
+     * Scans one contiguous range of rows.
+     */
+    @FunctionalInterface
+    interface RangeScan {
+        /**
+         * Adds the matching tasks among rows {@code [from, to)} to {@code matches}, in row order.
+         * May run on any thread, so it must only read shared state.
+         */
+        void scan(int from, int to, List<Task> matches);
+    }
+
+    private ParallelScan() {
+    }
+
+    /**
+     * Scans rows {@code [0, rowCount)}, in parallel if there are enough of them.
+     * A scan started on an interrupted thread stops with a {@link CancellationException}.
+     *
+     * @param rowCount the number of rows
+     * @param scan scans a range of rows
+     * @return the matching tasks, in row order
+     */
+    static List<Task> scan(int rowCount, RangeScan scan) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int chunkCount = Math.min(pool.getParallelism() * CHUNKS_PER_CORE, rowCount / MIN_CHUNK_ROWS);
+        if (rowCount < THRESHOLD || chunkCount < 2) {
+            List<Task> matches = new ArrayList<>();
+            scan.scan(0, rowCount, matches);
+            return matches;
+        }
+
+        // Workers cannot see the caller's interrupt, so each chunk checks the caller before it starts
+        Thread caller = Thread.currentThread();
+        List<ForkJoinTask<List<Task>>> chunks = new ArrayList<>(chunkCount - 1);
+        for (int i = 0; i < chunkCount - 1; i++) {
+            int from = (int) ((long) rowCount * i / chunkCount);
+            int to = (int) ((long) rowCount * (i + 1) / chunkCount);
+            chunks.add(pool.submit(() -> scanChunk(scan, from, to, caller)));
+        }
+
+        try {
+            // The caller scans the last chunk itself rather than wait idle
+            int lastFrom = (int) ((long) rowCount * (chunkCount - 1) / chunkCount);
+            List<Task> lastMatches = scanChunk(scan, lastFrom, rowCount, caller);
+            List<Task> matches = new ArrayList<>();
+            for (ForkJoinTask<List<Task>> chunk : chunks) {
+                matches.addAll(chunk.join());
+            }
+            matches.addAll(lastMatches);
+            return matches;
+        } finally {
+            for (ForkJoinTask<List<Task>> chunk : chunks) {
+                chunk.cancel(false);
+            }
+        }
+    }
+
+    private static List<Task> scanChunk(RangeScan scan, int from, int to, Thread caller) {
+        if (caller.isInterrupted()) {
+            throw new CancellationException("Search cancelled");
+        }
+        List<Task> matches = new ArrayList<>();
+        scan.scan(from, to, matches);
+        return matches;
+    }
+}
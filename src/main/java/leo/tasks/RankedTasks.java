@@ -0,0 +1,117 @@
+package leo.tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The few closest matches of a search, kept in a bounded max-heap so the worst kept
+ * match is always at hand and only the final results are sorted.
+ * Matches at the same distance rank in list order.
+ */
+final class RankedTasks {
+    private final int limit;
+    private final PriorityQueue<Match> heap; // worst match first
+    private final Map<Long, Match> kept = new HashMap<>(); // by task ID
+
+    /**
+     * Creates an empty ranking.
+     *
+     * @param limit the number of matches to keep, positive
+     */
+    RankedTasks(int limit) {
+        assert limit > 0 : "Ranking must keep at least one match";
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(limit, Collections.reverseOrder());
+    }
+
+    /**
+     * Offers a match, replacing the worst kept one if it ranks better.
+     * A task that is already kept moves up if it is now closer.
+     *
+     * @param task the matching task
+     * @param distance how far the task is from the query
+     * @return false if the match ranks no better than every kept match, so a later task
+     *         at the same or a greater distance would not be kept either
+     */
+    boolean offer(Task task, int distance) {
+        Match match = new Match(task, distance);
+        Match previous = kept.get(task.getId());
+        if (previous != null) {
+            if (distance < previous.distance) {
+                heap.remove(previous);
+                heap.add(match);
+                kept.put(task.getId(), match);
+            }
+            return true;
+        }
+
+        if (heap.size() == limit) {
+            if (match.compareTo(heap.peek()) >= 0) {
+                return false;
+            }
+            kept.remove(heap.poll().task.getId());
+        }
+        heap.add(match);
+        kept.put(task.getId(), match);
+        return true;
+    }
+
+    /**
+     * Returns whether a match at the given distance could still be kept,
+     * if it comes early enough in the list.
+     *
+     * @param distance the distance of the match
+     * @return false if every kept match is closer
+     */
+    boolean canKeep(int distance) {
+        return heap.size() < limit || distance <= heap.peek().distance;
+    }
+
+    /**
+     * Returns the greatest distance a new match can have and still be kept,
+     * assuming it comes later in the list than every kept match.
+     *
+     * @param maxDistance the greatest distance the search accepts
+     * @return the distance, or -1 if no new match can be kept
+     */
+    int bound(int maxDistance) {
+        return heap.size() < limit ? maxDistance : Math.min(maxDistance, heap.peek().distance - 1);
+    }
+
+    /**
+     * Returns the kept tasks, closest first.
+     *
+     * @return the ranked tasks
+     */
+    List<Task> toList() {
+        List<Match> matches = new ArrayList<>(heap);
+        Collections.sort(matches);
+        List<Task> ranked = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            ranked.add(match.task);
+        }
+        return ranked;
+    }
+
+    private static final class Match implements Comparable<Match> {
+        private final Task task;
+        private final int distance;
+
+        Match(Task task, int distance) {
+            this.task = task;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            if (distance != other.distance) {
+                return Integer.compare(distance, other.distance);
+            }
+            return Long.compare(task.getId(), other.task.getId());
+        }
+    }
+}
@@ -2,10 +2,13 @@ package leo.tasks;
 
 /**
  * Represents a task with a description and completion status.
+ * A task gets a stable numeric ID when it is first added to a {@link TaskList};
+ * unlike its position, the ID does not change when other tasks are deleted.
  */
 public class Task {
     protected String description;
-    protected boolean isDone;
+    protected volatile boolean isDone; // read by other sessions without locking
+    private long id; // 0 until assigned
 
     /**
      * Creates a new task with the specified description.
@@ -52,6 +55,25 @@ public class Task {
         return this.description;
     }
 
+    /**
+     * Returns the stable ID of this task.
+     *
+     * @return the ID, or 0 if the task has not been added to a list yet
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the stable ID of this task, e.g. when loading it from storage.
+     *
+     * @param id the ID, positive
+     */
+    public void setId(long id) {
+        assert id > 0 : "Task IDs must be positive";
+        this.id = id;
+    }
+
     /**
      * Returns whether this task is done.
      *
@@ -0,0 +1,540 @@
+package leo.tasks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Compact, column-oriented storage for a large number of tasks.
+ *
+ * <p>Instead of one object graph per task, every task is a row made of a flags byte
+ * (its {@link TaskType} plus a done bit), its ID and its bytes in a shared arena: the deadline's
+ * epoch day for deadlines, then each text field as a length-prefixed UTF-8 string
+ * (description; plus from and to for events). Rows are stored back to back, and only
+ * every {@value #ROWS_PER_CHECKPOINT}th row's offset is kept; other rows are reached
+ * by skipping forward from the nearest checkpoint.
+ *
+ * <p>{@link #get(int)} builds a fresh {@link Task} for the row on every call. These
+ * tasks are detached views: changing one does not change the row, so completion
+ * status is changed with {@link #setDone(int, boolean)}. Appending is cheap; inserting
+ * before the end moves every later row.
+ *
+ * <p>Rows already stored are never rewritten in place, other than their status: appending
+ * writes past the end, and removing or inserting rows first copies the arrays. A
+ * {@link #frozen} copy therefore keeps reading the rows as they were, without any lock.
+ */
+final class TaskColumns extends AbstractList<Task> implements RandomAccess {
+    private static final int ROWS_PER_CHECKPOINT = 16;
+    private static final int CHECKPOINT_SHIFT = 4;
+    private static final int INITIAL_ROWS = 16;
+    private static final int INITIAL_ARENA_BYTES = 256;
+    private static final int TYPE_MASK = 0x7f;
+    private static final byte DONE_FLAG = (byte) 0x80;
+    private static final int EPOCH_DAY_BYTES = Integer.BYTES;
+    private static final TaskType[] TYPES = TaskType.values();
+
+    private byte[] flags = new byte[INITIAL_ROWS];
+    private long[] ids = new long[INITIAL_ROWS];
+    private int[] checkpoints = new int[1]; // arena offset of every ROWS_PER_CHECKPOINT-th row
+    private byte[] arena = new byte[INITIAL_ARENA_BYTES];
+    private int size;
+    private int arenaSize;
+
+    /**
+     * Returns a read-only copy of the rows as they are now, sharing their arrays.
+     * Later changes do not show through, except status changes.
+     *
+     * @return the copy, which must not be changed
+     */
+    TaskColumns frozen() {
+        TaskColumns copy = new TaskColumns();
+        copy.flags = flags;
+        copy.ids = ids;
+        copy.checkpoints = checkpoints;
+        copy.arena = arena;
+        copy.size = size;
+        copy.arenaSize = arenaSize;
+        return copy;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        return readRow(index, rowStart(index));
+    }
+
+    /**
+     * Builds the task stored in a row starting at the given arena offset.
+     */
+    private Task readRow(int index, int position) {
+        TaskType type = TYPES[flags[index] & TYPE_MASK];
+
+        int epochDay = 0;
+        if (type == TaskType.DEADLINE) {
+            epochDay = readInt(position);
+            position += EPOCH_DAY_BYTES;
+        }
+
+        int[] cursor = {position};
+        String description = readString(cursor);
+        Task task;
+        switch (type) {
+            case DEADLINE:
+                task = new Deadline(description, LocalDate.ofEpochDay(epochDay));
+                break;
+            case EVENT:
+                String from = readString(cursor);
+                task = new Event(description, from, readString(cursor));
+                break;
+            default:
+                task = new ToDo(description);
+        }
+
+        if (isDone(index)) {
+            task.markAsDone();
+        }
+        if (ids[index] != 0) {
+            task.setId(ids[index]);
+        }
+        return task;
+    }
+
+    /**
+     * Finds the rows whose description contains the keyword, ignoring case, building tasks
+     * only for the matches. Long lists are scanned on several cores.
+     *
+     * @param searchKeyword the lowercased keyword
+     * @param deleted rows to skip, or null if none are deleted
+     * @return the matching tasks, in list order
+     */
+    List<Task> find(String searchKeyword, BitSet deleted) {
+        return ParallelScan.scan(size, (from, to, matchingTasks) -> {
+            int position = rowStart(from);
+            for (int i = from; i < to; i++) {
+                TaskList.checkCancelled(i);
+                if (deleted != null && deleted.get(i)) {
+                    position = skipRow(i, position);
+                    continue;
+                }
+                int descriptionStart = position + (typeAt(i) == TaskType.DEADLINE ? EPOCH_DAY_BYTES : 0);
+                String description = readString(new int[]{descriptionStart});
+                if (TaskList.containsKeyword(description, searchKeyword)) {
+                    matchingTasks.add(readRow(i, position));
+                }
+                position = skipRow(i, position);
+            }
+        });
+    }
+
+    /**
+     * Finds the rows matching a query, checking the type and status flags first, then the
+     * due day, and reading the description only for rows that pass both.
+     *
+     * @param query the query
+     * @param deleted rows to skip, or null if none are deleted
+     * @return the matching tasks, in list order
+     */
+    List<Task> find(TaskQuery query, BitSet deleted) {
+        return ParallelScan.scan(size, (from, to, matchingTasks) -> {
+            int position = rowStart(from);
+            for (int i = from; i < to; i++) {
+                TaskList.checkCancelled(i);
+                if ((deleted == null || !deleted.get(i)) && rowMatches(i, position, query)) {
+                    matchingTasks.add(readRow(i, position));
+                }
+                position = skipRow(i, position);
+            }
+        });
+    }
+
+    private boolean rowMatches(int index, int position, TaskQuery query) {
+        TaskType type = typeAt(index);
+        if (!query.matchesFlags(type, isDone(index))) {
+            return false;
+        }
+        boolean isDeadline = type == TaskType.DEADLINE;
+        if (isDeadline && !query.matchesDueDay(readInt(position))) {
+            return false;
+        }
+        if (query.getKeyword() == null) {
+            return true;
+        }
+        String description = readString(new int[]{position + (isDeadline ? EPOCH_DAY_BYTES : 0)});
+        return query.matchesDescription(description);
+    }
+
+    /**
+     * Finds the rows with a word closest to the query by scanning the rows,
+     * building tasks only for the rows that make the ranking.
+     *
+     * @param query the lowercased word to look for
+     * @param limit the number of tasks to return at most
+     * @param deleted rows to skip, or null if none are deleted
+     * @return the closest tasks, closest first and then in row order
+     */
+    List<Task> findSimilar(String query, int limit, BitSet deleted) {
+        RankedTasks ranked = new RankedTasks(limit);
+        int maxDistance = FuzzyIndex.maxDistance(query.length());
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            TaskList.checkCancelled(i);
+            // Rows come in list order, so a later row must be strictly closer to displace a kept one
+            int bound = ranked.bound(maxDistance);
+            if (bound < 0) {
+                break;
+            }
+            if (deleted == null || !deleted.get(i)) {
+                int descriptionStart = position + (typeAt(i) == TaskType.DEADLINE ? EPOCH_DAY_BYTES : 0);
+                String description = readString(new int[]{descriptionStart});
+                int distance = FuzzyIndex.bestDistance(description, query, bound);
+                if (distance <= bound) {
+                    ranked.offer(readRow(i, position), distance);
+                }
+            }
+            position = skipRow(i, position);
+        }
+        return ranked.toList();
+    }
+
+    /**
+     * Finds unfinished deadlines due in {@code [fromDay, toDay)} by scanning the rows,
+     * building tasks only for the matches.
+     *
+     * @param fromDay the first epoch day, inclusive
+     * @param toDay the last epoch day, exclusive
+     * @param deleted rows to skip, or null if none are deleted
+     * @return the matching deadlines, ordered by date and then by position
+     */
+    List<Task> findDue(long fromDay, long toDay, BitSet deleted) {
+        List<Task> dueTasks = new ArrayList<>();
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            TaskList.checkCancelled(i);
+            if (typeAt(i) == TaskType.DEADLINE && !isDone(i) && (deleted == null || !deleted.get(i))) {
+                long day = readInt(position);
+                if (day >= fromDay && day < toDay) {
+                    dueTasks.add(readRow(i, position));
+                }
+            }
+            position = skipRow(i, position);
+        }
+        dueTasks.sort(Comparator.comparing(task -> ((Deadline) task).getBy()));
+        return dueTasks;
+    }
+
+    /**
+     * Returns whether a row is marked as done.
+     *
+     * @param index the row
+     * @return true if the task is done
+     */
+    boolean isDone(int index) {
+        return (flags[index] & DONE_FLAG) != 0;
+    }
+
+    /**
+     * Returns the ID stored with a row.
+     *
+     * @param index the row
+     * @return the task's ID, or 0 if it had none when added
+     */
+    long idAt(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Sets the completion status of a row.
+     *
+     * @param index the row
+     * @param isDone the new status
+     */
+    void setDone(int index, boolean isDone) {
+        checkIndex(index);
+        flags[index] = (byte) (isDone ? flags[index] | DONE_FLAG : flags[index] & ~DONE_FLAG);
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        if (index == size) {
+            append(task);
+            return;
+        }
+
+        // Append the row, then rotate it into place
+        detach();
+        int position = rowStart(index);
+        int oldArenaSize = arenaSize;
+        append(task);
+        byte[] row = Arrays.copyOfRange(arena, oldArenaSize, arenaSize);
+        System.arraycopy(arena, position, arena, position + row.length, oldArenaSize - position);
+        System.arraycopy(row, 0, arena, position, row.length);
+
+        byte rowFlags = flags[size - 1];
+        long rowId = ids[size - 1];
+        System.arraycopy(flags, index, flags, index + 1, size - 1 - index);
+        System.arraycopy(ids, index, ids, index + 1, size - 1 - index);
+        flags[index] = rowFlags;
+        ids[index] = rowId;
+        rebuildCheckpoints(index, position);
+    }
+
+    private void append(Task task) {
+        TaskType type = typeOf(task);
+        if (size == flags.length) {
+            flags = Arrays.copyOf(flags, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        flags[size] = (byte) (type.ordinal() | (task.isDone() ? DONE_FLAG : 0));
+        ids[size] = task.getId();
+        setCheckpointIfDue(size, arenaSize);
+
+        if (type == TaskType.DEADLINE) {
+            writeInt((int) ((Deadline) task).getBy().toEpochDay());
+        }
+        writeString(task.getDescription());
+        if (type == TaskType.EVENT) {
+            Event event = (Event) task;
+            writeString(event.getFrom());
+            writeString(event.getTo());
+        }
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return;
+        }
+        detach();
+        int arenaFrom = rowStart(fromIndex);
+        int arenaTo = toIndex == size ? arenaSize : rowStart(toIndex);
+
+        System.arraycopy(arena, arenaTo, arena, arenaFrom, arenaSize - arenaTo);
+        System.arraycopy(flags, toIndex, flags, fromIndex, size - toIndex);
+        System.arraycopy(ids, toIndex, ids, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+        arenaSize -= arenaTo - arenaFrom;
+        rebuildCheckpoints(fromIndex, arenaFrom);
+        modCount++;
+    }
+
+    /**
+     * Removes the rows at the given indices in a single compaction pass.
+     *
+     * @param sortedIndices distinct indices in ascending order
+     * @return views of the removed tasks, in list order
+     */
+    List<Task> removeRows(int[] sortedIndices) {
+        detach();
+        List<Task> removedTasks = new ArrayList<>(sortedIndices.length);
+        int next = 0;
+        int writeRow = 0;
+        int writeByte = 0;
+        int readByte = 0;
+        for (int readRow = 0; readRow < size; readRow++) {
+            int rowEnd = skipRow(readRow, readByte);
+            if (next < sortedIndices.length && sortedIndices[next] == readRow) {
+                removedTasks.add(readRow(readRow, readByte));
+                next++;
+            } else {
+                System.arraycopy(arena, readByte, arena, writeByte, rowEnd - readByte);
+                flags[writeRow] = flags[readRow];
+                ids[writeRow] = ids[readRow];
+                setCheckpointIfDue(writeRow, writeByte);
+                writeRow++;
+                writeByte += rowEnd - readByte;
+            }
+            readByte = rowEnd;
+        }
+        assert next == sortedIndices.length : "indices must be sorted, distinct and in bounds";
+
+        size = writeRow;
+        arenaSize = writeByte;
+        modCount++;
+        return removedTasks;
+    }
+
+    /**
+     * Releases spare capacity, e.g. after loading a large list.
+     */
+    void trimToSize() {
+        flags = Arrays.copyOf(flags, Math.max(size, 1));
+        ids = Arrays.copyOf(ids, Math.max(size, 1));
+        checkpoints = Arrays.copyOf(checkpoints, Math.max(checkpointCount(size), 1));
+        arena = Arrays.copyOf(arena, Math.max(arenaSize, 1));
+    }
+
+    /**
+     * Copies the arrays before rows are moved in place, so frozen copies keep the old ones.
+     */
+    private void detach() {
+        flags = flags.clone();
+        ids = ids.clone();
+        checkpoints = checkpoints.clone();
+        arena = arena.clone();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+    private TaskType typeAt(int index) {
+        return TYPES[flags[index] & TYPE_MASK];
+    }
+
+    /**
+     * Returns the arena offset of a row by skipping forward from its checkpoint.
+     */
+    private int rowStart(int index) {
+        int row = index & -ROWS_PER_CHECKPOINT;
+        int position = checkpoints[index >>> CHECKPOINT_SHIFT];
+        for (; row < index; row++) {
+            position = skipRow(row, position);
+        }
+        return position;
+    }
+
+    /**
+     * Returns the arena offset just past a row that starts at the given offset.
+     */
+    private int skipRow(int index, int position) {
+        TaskType type = typeAt(index);
+        int fieldCount = 1;
+        if (type == TaskType.DEADLINE) {
+            position += EPOCH_DAY_BYTES;
+        } else if (type == TaskType.EVENT) {
+            fieldCount = 3;
+        }
+
+        for (int field = 0; field < fieldCount; field++) {
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = arena[position++];
+                length |= (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            position += length;
+        }
+        return position;
+    }
+
+    private static int checkpointCount(int rowCount) {
+        return (rowCount + ROWS_PER_CHECKPOINT - 1) >>> CHECKPOINT_SHIFT;
+    }
+
+    /**
+     * Records the offset of a row if it is the first row of a checkpoint block.
+     */
+    private void setCheckpointIfDue(int index, int position) {
+        if ((index & (ROWS_PER_CHECKPOINT - 1)) != 0) {
+            return;
+        }
+        int checkpoint = index >>> CHECKPOINT_SHIFT;
+        if (checkpoint == checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+        }
+        checkpoints[checkpoint] = position;
+    }
+
+    /**
+     * Recomputes the checkpoints of every row from {@code fromIndex}, which starts at {@code position}.
+     */
+    private void rebuildCheckpoints(int fromIndex, int position) {
+        for (int row = fromIndex; row < size; row++) {
+            setCheckpointIfDue(row, position);
+            position = skipRow(row, position);
+        }
+    }
+
+    static TaskType typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return TaskType.DEADLINE;
+        } else if (task instanceof Event) {
+            return TaskType.EVENT;
+        } else {
+            return TaskType.TODO;
+        }
+    }
+
+    private void ensureArenaCapacity(int extraBytes) {
+        int required = arenaSize + extraBytes;
+        if (required > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(required, arena.length * 2));
+        }
+    }
+
+    private void writeInt(int value) {
+        ensureArenaCapacity(Integer.BYTES);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            arena[arenaSize++] = (byte) (value >>> shift);
+        }
+    }
+
+    private int readInt(int position) {
+        int value = 0;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            value = (value << 8) | (arena[position + i] & 0xff);
+        }
+        return value;
+    }
+
+    /**
+     * Appends a string as a varint byte length followed by its UTF-8 bytes.
+     */
+    private void writeString(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ensureArenaCapacity(5 + bytes.length);
+        int length = bytes.length;
+        while (length >= 0x80) {
+            arena[arenaSize++] = (byte) (length | 0x80);
+            length >>>= 7;
+        }
+        arena[arenaSize++] = (byte) length;
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        arenaSize += bytes.length;
+    }
+
+    /**
+     * Reads a string at {@code cursor[0]} and advances the cursor past it.
+     */
+    private String readString(int[] cursor) {
+        int position = cursor[0];
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena[position++];
+            length |= (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+
+        cursor[0] = position + length;
+        return new String(arena, position, length, StandardCharsets.UTF_8);
+    }
+}
@@ -2,19 +2,74 @@ package leo.tasks;
 
 import leo.LeoException;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Represents a list of tasks with operations to manage them.
+ *
+ * <p>All operations are thread-safe. Writers take a {@link StampedLock} exclusively. Short reads
+ * such as {@link #get(int)} read optimistically, and retry under the read lock only if a writer
+ * got in the way. Searches that scan the whole list hold the lock just long enough to freeze a
+ * view of the slots, then scan it unlocked, so they never hold up writers; they see the list as
+ * it was when they started, apart from status changes made since. Searches answered from an
+ * index hold the read lock while they collect candidates, but check those candidates unlocked.
+ *
+ * <p>Tasks are held either as objects or, for very large lists, in compact
+ * {@link TaskColumns}. With columns, the tasks returned are detached copies, so
+ * completion status must always be changed through {@link #setDone(int, boolean)}.
+ *
+ * <p>Every task gets a stable ID when added, found in O(1) through a primitive hash map
+ * from ID to slot. Deleting a task only marks its slot; later tasks keep their slots, and
+ * the deleted slots are compacted away once they make up a quarter of the list, except those
+ * that may still be put back (see {@link #setRestorable}). The keyword,
+ * similar-word and due indexes are cleaned of deleted tasks at the same time; until then,
+ * their searches skip tasks that are no longer in the list.
  */
 public class TaskList {
-    private final List<Task> tasks = new ArrayList<>();
+    private static final int CANCEL_CHECK_MASK = (1 << 12) - 1;
+    private static final char ASCII_LIMIT = 0x80;
+    private static final int COMPACTION_RATIO = 4; // compact once 1 in 4 slots is deleted
+
+    private final List<Task> tasks; // every slot, including deleted ones until compaction
+    private final TaskSlots taskSlots; // null when tasks are held in columns
+    private final TaskColumns columns; // null when tasks are held as objects
+    private final LongIntMap slotsById = new LongIntMap();
+    private Tombstones tombstones; // null while no slot is deleted
+    private final LongIntMap deletedSlotsById = new LongIntMap();
+    private LongPredicate isRestorable = id -> false;
+    private int keptDeletedCount; // deleted slots the last compaction kept
+    private long nextId = 1;
+    private final StampedLock lock = new StampedLock();
+    private KeywordIndex keywordIndex; // built on the first indexed find; never with columns
+    private FuzzyIndex fuzzyIndex; // built on the first similar-word find; never with columns
+    private DueIndex dueIndex; // built on the first due query; never with columns
+    private IntervalTree eventIndex; // built on the first schedule query; never with columns
+    // Deleted tasks still held by the keyword, similar-word and due indexes until they are purged
+    private final Set<Task> unpurged = Collections.newSetFromMap(new IdentityHashMap<>());
 
     /**
      * Creates an empty task list.
      */
     public TaskList() {
+        this(null);
     }
 
     /**
@@ -23,9 +78,28 @@ public class TaskList {
      * @param initial the initial list of tasks
      */
     public TaskList(List<Task> initial) {
+        this(initial, false);
+    }
+
+    /**
+     * Creates a task list with the specified initial tasks, optionally held in compact columns.
+     * Columns take several times less memory per task, but searches scan every task
+     * instead of using a keyword index.
+     *
+     * @param initial the initial list of tasks
+     * @param isColumnar whether to hold tasks in columns rather than as objects
+     */
+    public TaskList(List<Task> initial, boolean isColumnar) {
+        columns = isColumnar ? new TaskColumns() : null;
+        taskSlots = isColumnar ? null : new TaskSlots();
+        tasks = isColumnar ? columns : taskSlots;
         if (initial != null) {
+            assignIds(initial);
             tasks.addAll(initial);
         }
+        if (columns != null) {
+            columns.trimToSize();
+        }
     }
 
     /**
@@ -34,7 +108,23 @@ public class TaskList {
      * @return the number of tasks in the list
      */
     public int size() {
-        return tasks.size();
+        return readOptimistic(this::liveSize);
+    }
+
+    private int liveSize() {
+        Tombstones deleted = tombstones;
+        return deleted == null ? tasks.size() : deleted.liveCount();
+    }
+
+    /**
+     * Returns the slot holding the task at a position.
+     */
+    private int slotOf(int index) {
+        return tombstones == null ? index : tombstones.slotOf(index);
+    }
+
+    private long idAt(int slot) {
+        return columns != null ? columns.idAt(slot) : tasks.get(slot).getId();
     }
 
     /**
@@ -44,8 +134,48 @@ public class TaskList {
      * @return the task at the specified index
      */
     public Task get(int index) {
-        assert index >= 0 && index < tasks.size() : "index out of bounds";
-        return tasks.get(index);
+        return readOptimistic(() -> {
+            assert index >= 0 && index < liveSize() : "index out of bounds";
+            return tasks.get(slotOf(index));
+        });
+    }
+
+    /**
+     * Returns the current position of the task with the given ID.
+     *
+     * @param id the task's ID
+     * @return the 0-based index of the task, or -1 if no task has that ID
+     */
+    public int indexOfId(long id) {
+        return readOptimistic(() -> {
+            int slot = slotsById.get(id);
+            if (slot == -1 || tombstones == null) {
+                return slot;
+            }
+            return tombstones.indexOf(slot);
+        });
+    }
+
+    /**
+     * Gives each task about to be appended a stable ID. A task keeps the ID it was loaded
+     * with unless another task already holds it.
+     */
+    private void assignIds(List<Task> added) {
+        for (Task task : added) {
+            nextId = Math.max(nextId, task.getId() + 1);
+        }
+
+        int slot = tasks.size();
+        for (Task task : added) {
+            if (task.getId() == 0 || slotsById.containsKey(task.getId())) {
+                task.setId(nextId++);
+            }
+            slotsById.put(task.getId(), slot);
+            if (tombstones != null) {
+                tombstones.append();
+            }
+            slot++;
+        }
     }
 
     /**
@@ -54,7 +184,42 @@ public class TaskList {
      * @param task task to add
      */
     public void add(Task task) {
-        tasks.add(task);
+        write(() -> {
+            assignIds(List.of(task));
+            tasks.add(task);
+            addToIndexes(task);
+            return null;
+        });
+    }
+
+    /**
+     * Adds several tasks to the end of the list under a single lock.
+     *
+     * @param added tasks to add, in order
+     */
+    public void addAll(List<Task> added) {
+        write(() -> {
+            assignIds(added);
+            tasks.addAll(added);
+            for (Task task : added) {
+                addToIndexes(task);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Tells the list which deleted tasks may still be put back, e.g. by undo. Compaction keeps
+     * their slots, so {@link #insert} can revive them in O(1) instead of moving every later task.
+     * Slots deleted by the call that compacts are always kept, as nothing could have claimed them yet.
+     *
+     * @param isRestorable tells whether the deleted task with a given ID may be put back
+     */
+    public void setRestorable(LongPredicate isRestorable) {
+        write(() -> {
+            this.isRestorable = isRestorable;
+            return null;
+        });
     }
 
     /**
@@ -64,48 +229,709 @@ public class TaskList {
      * @return the removed task
      */
     public Task remove(int index) {
-        assert index >= 0 && index < tasks.size() : "index out of bounds";
-        return tasks.remove(index);
+        return write(() -> {
+            assert index >= 0 && index < liveSize() : "index out of bounds";
+            int slot = slotOf(index);
+            Task removed = delete(slot);
+            compactIfSparse(new int[]{slot});
+            return removed;
+        });
+    }
+
+    /**
+     * Marks a slot as deleted and drops its task from the ID map and the event index.
+     * The other indexes keep the task until they are purged, as removing it from a
+     * posting list that holds most of the tasks would cost O(n).
+     */
+    private Task delete(int slot) {
+        Task removed = tasks.get(slot);
+        if (tombstones == null) {
+            tombstones = new Tombstones(tasks.size());
+        }
+        tombstones.delete(slot);
+        slotsById.remove(removed.getId());
+        deletedSlotsById.put(removed.getId(), slot);
+        if (eventIndex != null) {
+            eventIndex.remove(removed);
+        }
+        if (keywordIndex != null || fuzzyIndex != null || dueIndex != null) {
+            unpurged.add(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Adds a task to every index built so far.
+     */
+    private void addToIndexes(Task task) {
+        // A deleted task put back before the indexes were purged is still in them
+        boolean isIndexed = unpurged.remove(task);
+        if (keywordIndex != null && !isIndexed) {
+            keywordIndex.add(task);
+        }
+        if (fuzzyIndex != null && !isIndexed) {
+            fuzzyIndex.add(task);
+        }
+        if (dueIndex != null && !isIndexed) {
+            dueIndex.add(task);
+        }
+        if (eventIndex != null) {
+            eventIndex.add(task);
+        }
+    }
+
+    /**
+     * Drops every deleted task from the keyword, similar-word and due indexes, in one pass over each.
+     * This also runs before an index is built, so a task put back is held by either all or none of them.
+     */
+    private void purgeIndexes() {
+        purgeIndexes(this::isLive);
+    }
+
+    /**
+     * Drops the tasks that fail the test from the keyword, similar-word and due indexes.
+     */
+    private void purgeIndexes(Predicate<Task> keep) {
+        if (unpurged.isEmpty()) {
+            return;
+        }
+
+        if (keywordIndex != null) {
+            keywordIndex.purge(keep);
+        }
+        if (fuzzyIndex != null) {
+            fuzzyIndex.purge(keep);
+        }
+        if (dueIndex != null) {
+            dueIndex.purge(keep);
+        }
+        unpurged.removeIf(keep.negate());
+    }
+
+    /**
+     * Returns whether an indexed task is still in the list, rather than deleted and not yet purged.
+     */
+    private boolean isLive(Task task) {
+        int slot = slotsById.get(task.getId());
+        return slot != -1 && tasks.get(slot) == task;
+    }
+
+    /**
+     * Puts a task back at a position, e.g. to undo deleting it.
+     * If the task's slot has not been compacted away, the slot is simply made live again in O(1).
+     * Otherwise every later slot moves down by one, which is O(n); with {@link #setRestorable}
+     * that only happens for tasks deleted before the list was loaded.
+     *
+     * @param index the position the task takes; tasks from there on move down by one
+     * @param task the task, which keeps its ID unless another task holds it
+     */
+    public void insert(int index, Task task) {
+        write(() -> {
+            assert index >= 0 && index <= liveSize() : "index out of bounds";
+            int slot = findDeletedSlot(index, task.getId());
+            if (slot != -1) {
+                tombstones.restore(slot);
+                deletedSlotsById.remove(task.getId());
+                slotsById.put(task.getId(), slot);
+                if (columns != null) {
+                    columns.setDone(slot, task.isDone());
+                } else {
+                    tasks.set(slot, task);
+                }
+            } else {
+                // Inserting moves every later slot, so the deleted slots and the ID maps are rebuilt
+                slot = index == liveSize() ? tasks.size() : slotOf(index);
+                int[] deletedSlots = tombstones == null ? new int[0] : tombstones.deletedSlots();
+                for (int i = 0; i < deletedSlots.length; i++) {
+                    if (deletedSlots[i] >= slot) {
+                        deletedSlots[i]++;
+                    }
+                }
+                assignIds(List.of(task));
+                tasks.add(slot, task);
+                tombstones = tombstonesOf(deletedSlots);
+                rebuildIdMaps();
+            }
+            addToIndexes(task);
+            return null;
+        });
+    }
+
+    /**
+     * Finds the deleted slot that held the task with the given ID, if it lies
+     * right before the given position.
+     *
+     * @return the slot, or -1 if it has been compacted away
+     */
+    private int findDeletedSlot(int index, long id) {
+        int slot = deletedSlotsById.get(id);
+        if (slot == -1) {
+            return -1;
+        }
+
+        int fromSlot = index == 0 ? 0 : slotOf(index - 1) + 1;
+        int toSlot = index == liveSize() ? tasks.size() : slotOf(index);
+        return slot >= fromSlot && slot < toSlot ? slot : -1;
     }
 
     /**
-     * Returns the current list of tasks.
+     * Drops deleted slots, and deleted tasks from the indexes, in a single pass once enough
+     * have built up, so each delete costs O(1) amortized. Surviving tasks keep their order and IDs.
+     * Slots kept for tasks that may be put back do not count towards the next compaction.
+     *
+     * @param justDeleted the slots deleted by the current call, in ascending order
+     */
+    private void compactIfSparse(int[] justDeleted) {
+        if (tombstones != null
+                && (tombstones.deletedCount() - keptDeletedCount) * COMPACTION_RATIO >= tasks.size()) {
+            compact(justDeleted);
+        }
+    }
+
+    private void compact(int[] justDeleted) {
+        int[] deletedSlots = tombstones.deletedSlots();
+        int[] keptSlots = new int[deletedSlots.length];
+        int[] droppedSlots = new int[deletedSlots.length];
+        int keptCount = 0;
+        int droppedCount = 0;
+        Set<Task> keptTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int slot : deletedSlots) {
+            if (Arrays.binarySearch(justDeleted, slot) >= 0 || isRestorable.test(idAt(slot))) {
+                keptSlots[keptCount++] = slot;
+                if (columns == null) {
+                    keptTasks.add(tasks.get(slot));
+                }
+            } else {
+                droppedSlots[droppedCount++] = slot;
+            }
+        }
+
+        // Tasks in kept slots stay indexed, so putting one back need not add it again
+        purgeIndexes(task -> isLive(task) || keptTasks.contains(task));
+        if (columns != null) {
+            columns.removeRows(Arrays.copyOf(droppedSlots, droppedCount));
+        } else {
+            taskSlots.removeSlots(Arrays.copyOf(droppedSlots, droppedCount));
+        }
+
+        // Each kept slot moves up by the number of dropped slots before it
+        int dropped = 0;
+        for (int i = 0; i < keptCount; i++) {
+            while (dropped < droppedCount && droppedSlots[dropped] < keptSlots[i]) {
+                dropped++;
+            }
+            keptSlots[i] -= dropped;
+        }
+        tombstones = tombstonesOf(Arrays.copyOf(keptSlots, keptCount));
+        keptDeletedCount = keptCount;
+        rebuildIdMaps();
+    }
+
+    private Tombstones tombstonesOf(int[] deletedSlots) {
+        if (deletedSlots.length == 0) {
+            return null;
+        }
+
+        Tombstones deleted = new Tombstones(tasks.size());
+        for (int slot : deletedSlots) {
+            deleted.delete(slot);
+        }
+        return deleted;
+    }
+
+    private void rebuildIdMaps() {
+        slotsById.clear(liveSize());
+        deletedSlotsById.clear(tombstones == null ? 0 : tombstones.deletedCount());
+        for (int slot = 0; slot < tasks.size(); slot++) {
+            if (isDeleted(slot)) {
+                deletedSlotsById.put(idAt(slot), slot);
+            } else {
+                slotsById.put(idAt(slot), slot);
+            }
+        }
+    }
+
+    /**
+     * Marks the task at the specified index as done or not done.
+     *
+     * @param index index of the task to change
+     * @param isDone the new completion status
+     * @return the task with its new status
+     */
+    public Task setDone(int index, boolean isDone) {
+        return write(() -> {
+            assert index >= 0 && index < liveSize() : "index out of bounds";
+            int slot = slotOf(index);
+            if (columns != null) {
+                columns.setDone(slot, isDone);
+                return columns.get(slot);
+            }
+
+            Task task = tasks.get(slot);
+            if (task.isDone() != isDone) {
+                if (isDone) {
+                    task.markAsDone();
+                } else {
+                    task.markAsNotDone();
+                }
+
+                // Only unfinished deadlines are indexed
+                if (dueIndex != null) {
+                    dueIndex.remove(task);
+                    dueIndex.add(task);
+                }
+            }
+            return task;
+        });
+    }
+
+    /**
+     * Removes the tasks at the given indices, compacting at most once.
+     *
+     * @param sortedIndices distinct indices in ascending order
+     * @return the removed tasks, in list order
+     */
+    public List<Task> removeAll(int[] sortedIndices) {
+        return write(() -> {
+            // Find every slot before deleting, since each delete shifts the later positions
+            int[] slots = new int[sortedIndices.length];
+            for (int i = 0; i < sortedIndices.length; i++) {
+                assert i == 0 || sortedIndices[i - 1] < sortedIndices[i] : "indices must be sorted and distinct";
+                slots[i] = slotOf(sortedIndices[i]);
+            }
+
+            List<Task> removedTasks = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                removedTasks.add(delete(slot));
+            }
+            compactIfSparse(slots);
+            return removedTasks;
+        });
+    }
+
+    /**
+     * Returns a read-only view of the current list of tasks.
+     * The view is not safe to iterate while other threads modify the list; use {@link #snapshot()} then.
      *
      * @return the list of tasks
      */
     public List<Task> list() {
-        return tasks;
+        return new LiveView();
+    }
+
+    /**
+     * Returns a copy of the current list of tasks as it was at one moment,
+     * taken without holding up writers.
+     *
+     * @return the copied list of tasks
+     */
+    public List<Task> snapshot() {
+        return Collections.unmodifiableList(snapshotOf(scanView()));
+    }
+
+    private static List<Task> snapshotOf(ScanView view) {
+        List<Task> live = new ArrayList<>(view.slots.size());
+        for (int slot = 0; slot < view.slots.size(); slot++) {
+            if (!view.isDeleted(slot)) {
+                live.add(view.slots.get(slot));
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Returns a copy of the tasks in the given range, taken atomically.
+     * The range is clamped to the current size, so only the rows asked for are copied.
+     *
+     * @param fromIndex the first index, inclusive
+     * @param toIndex the last index, exclusive
+     * @return the copied tasks
+     */
+    public List<Task> snapshot(int fromIndex, int toIndex) {
+        return readOptimistic(() -> {
+            int from = Math.min(fromIndex, liveSize());
+            int to = Math.min(toIndex, liveSize());
+            if (tombstones == null) {
+                return Collections.unmodifiableList(new ArrayList<>(tasks.subList(from, to)));
+            }
+
+            List<Task> rows = new ArrayList<>(Math.max(0, to - from));
+            int slot = from < to ? slotOf(from) : 0;
+            while (rows.size() < to - from) {
+                rows.add(tasks.get(slot));
+                slot = tombstones.nextLive(slot + 1);
+            }
+            return Collections.unmodifiableList(rows);
+        });
     }
 
     /**
      * Finds all tasks that contain the specified keyword in their description.
+     * Keywords of three or more characters are answered from a trigram index; other
+     * searches scan the list, split across cores once it is long.
+     * A search on an interrupted thread stops with a {@link CancellationException}.
      *
      * @param keyword the search keyword
      * @return a list of matching tasks
      */
     public List<Task> find(String keyword) {
         String searchKeyword = keyword.toLowerCase();
-        List<Task> matchingTasks = new ArrayList<>();
-        
-        for (Task task : tasks) {
-            if (taskMatchesKeyword(task, searchKeyword)) {
-                matchingTasks.add(task);
+        if (columns == null && KeywordIndex.canSearch(searchKeyword)) {
+            ensureKeywordIndex();
+            List<Task> candidates = read(() -> keywordIndex.candidates(searchKeyword));
+            List<Task> matchingTasks = ParallelScan.scan(candidates.size(), (from, to, matches) -> {
+                for (int i = from; i < to; i++) {
+                    checkCancelled(i);
+                    if (taskMatchesKeyword(candidates.get(i), searchKeyword)) {
+                        matches.add(candidates.get(i));
+                    }
+                }
+            });
+            return read(() -> retainLive(matchingTasks));
+        }
+
+        ScanView view = scanView();
+        if (view.columns != null) {
+            // Columns are searched without building a task for every row
+            return view.columns.find(searchKeyword, view.deleted);
+        }
+
+        return ParallelScan.scan(view.slots.size(), (from, to, matchingTasks) -> {
+            for (int slot = from; slot < to; slot++) {
+                checkCancelled(slot);
+                if (!view.isDeleted(slot) && taskMatchesKeyword(view.slots.get(slot), searchKeyword)) {
+                    matchingTasks.add(view.slots.get(slot));
+                }
             }
+        });
+    }
+
+    /**
+     * Drops the index candidates that have been deleted, which only the indexes not yet purged still hold.
+     */
+    private List<Task> retainLive(List<Task> candidates) {
+        if (!unpurged.isEmpty()) {
+            candidates.removeIf(task -> !isLive(task));
         }
-        
-        return matchingTasks;
+        return candidates;
     }
-    
+
+    /**
+     * Finds all tasks matching a query, in list order.
+     * Without columns, candidates come from whichever of the keyword index, the due index
+     * or the whole list is expected to yield the fewest; conditions the chosen index does not
+     * answer are then checked on each candidate, the most selective for its cost first, stopping
+     * at the first that fails. With columns, each row's flags are checked before anything is read.
+     * A search on an interrupted thread stops with a {@link CancellationException}.
+     *
+     * @param query the query
+     * @return a list of matching tasks
+     */
+    public List<Task> find(TaskQuery query) {
+        if (columns != null) {
+            ScanView view = scanView();
+            return view.columns.find(query, view.deleted);
+        }
+
+        String keyword = query.getKeyword();
+        boolean hasKeywordIndex = keyword != null && KeywordIndex.canSearch(keyword);
+        if (hasKeywordIndex) {
+            ensureKeywordIndex();
+        }
+        if (query.isUnfinishedDueRange()) {
+            ensureDueIndex();
+        }
+
+        Set<TaskQuery.Field> remaining = query.fields();
+        CandidateSource source = read(() -> {
+            int liveCount = liveSize();
+            int dueCount = query.isUnfinishedDueRange()
+                    ? dueIndex.count(query.getDueFromDay(), query.getDueToDay()) : Integer.MAX_VALUE;
+            int keywordCount = hasKeywordIndex ? keywordIndex.estimate(keyword) : Integer.MAX_VALUE;
+            if (dueCount < Math.min(keywordCount, liveCount)) {
+                return CandidateSource.DUE_INDEX;
+            }
+            return keywordCount < liveCount ? CandidateSource.KEYWORD_INDEX : CandidateSource.SCAN;
+        });
+
+        if (source == CandidateSource.SCAN) {
+            ScanView view = scanView();
+            if (remaining.isEmpty()) {
+                return snapshotOf(view);
+            }
+
+            // Scanning the slots directly skips the position lookups of a live view
+            List<TaskQuery.Field> plan = query.plan(remaining, view.slots);
+            return ParallelScan.scan(view.slots.size(), (from, to, matchingTasks) -> {
+                for (int slot = from; slot < to; slot++) {
+                    checkCancelled(slot);
+                    if (!view.isDeleted(slot) && matchesAll(query, plan, view.slots.get(slot))) {
+                        matchingTasks.add(view.slots.get(slot));
+                    }
+                }
+            });
+        }
+
+        List<Task> candidates;
+        if (source == CandidateSource.DUE_INDEX) {
+            candidates = read(() -> {
+                List<Task> due = dueIndex.findDue(query.getDueFromDay(), query.getDueToDay(), this::isLive);
+                due.sort(Comparator.comparingInt(task -> slotsById.get(task.getId())));
+                return due;
+            });
+            remaining.remove(TaskQuery.Field.STATUS);
+            remaining.remove(TaskQuery.Field.DUE);
+        } else {
+            // The keyword is still checked on each candidate, unlocked
+            candidates = read(() -> keywordIndex.candidates(keyword));
+        }
+        if (remaining.isEmpty()) {
+            return candidates;
+        }
+
+        List<TaskQuery.Field> plan = query.plan(remaining, candidates);
+        List<Task> matchingTasks = ParallelScan.scan(candidates.size(), (from, to, matches) -> {
+            for (int i = from; i < to; i++) {
+                checkCancelled(i);
+                if (matchesAll(query, plan, candidates.get(i))) {
+                    matches.add(candidates.get(i));
+                }
+            }
+        });
+        return source == CandidateSource.KEYWORD_INDEX ? read(() -> retainLive(matchingTasks)) : matchingTasks;
+    }
+
+    private static boolean matchesAll(TaskQuery query, List<TaskQuery.Field> plan, Task task) {
+        for (TaskQuery.Field field : plan) {
+            if (!query.matches(field, task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the tasks with a word closest to the given one, allowing for typos:
+     * one edit for words of three to five letters, two for longer words.
+     * Results come closest first, then in list order. Without columns, this is answered
+     * from an index of the distinct words; with columns, every description is checked.
+     * A search on an interrupted thread stops with a {@link CancellationException}.
+     *
+     * @param word the word to look for
+     * @param limit the number of tasks to return at most, positive
+     * @return the closest tasks
+     */
+    public List<Task> findSimilar(String word, int limit) {
+        String query = word.toLowerCase();
+        if (columns != null) {
+            ScanView view = scanView();
+            return view.columns.findSimilar(query, limit, view.deleted);
+        }
+
+        ensureFuzzyIndex();
+        return read(() -> fuzzyIndex.find(query, limit, this::isLive));
+    }
+
+    /**
+     * Builds the similar-word index over the current tasks on first use.
+     */
+    private void ensureFuzzyIndex() {
+        if (read(() -> fuzzyIndex) != null) {
+            return;
+        }
+
+        write(() -> {
+            if (fuzzyIndex == null) {
+                purgeIndexes();
+                FuzzyIndex index = new FuzzyIndex();
+                for (Task task : new LiveView()) {
+                    index.add(task);
+                }
+                fuzzyIndex = index;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Builds the keyword index over the current tasks on first use.
+     */
+    private void ensureKeywordIndex() {
+        if (read(() -> keywordIndex) != null) {
+            return;
+        }
+
+        write(() -> {
+            if (keywordIndex == null) {
+                purgeIndexes();
+                KeywordIndex index = new KeywordIndex();
+                for (Task task : new LiveView()) {
+                    index.add(task);
+                }
+                keywordIndex = index;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Finds unfinished deadlines due on or after {@code from} and before {@code to}, ordered by date.
+     *
+     * @param from the first day, inclusive, or null for no lower bound
+     * @param to the last day, exclusive
+     * @return the matching deadlines
+     */
+    public List<Task> findDue(LocalDate from, LocalDate to) {
+        long fromDay = from == null ? Long.MIN_VALUE : from.toEpochDay();
+        long toDay = to.toEpochDay();
+        if (columns != null) {
+            ScanView view = scanView();
+            return view.columns.findDue(fromDay, toDay, view.deleted);
+        }
+
+        ensureDueIndex();
+        return read(() -> dueIndex.findDue(fromDay, toDay, this::isLive));
+    }
+
+    /**
+     * Builds the due index over the current tasks on first use.
+     */
+    private void ensureDueIndex() {
+        if (read(() -> dueIndex) != null) {
+            return;
+        }
+
+        write(() -> {
+            if (dueIndex == null) {
+                purgeIndexes();
+                DueIndex index = new DueIndex();
+                for (Task task : new LiveView()) {
+                    index.add(task);
+                }
+                dueIndex = index;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Finds scheduled events that overlap {@code [from, to)}, ordered by start time.
+     *
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @return the overlapping events
+     */
+    public List<Task> findEvents(LocalDateTime from, LocalDateTime to) {
+        if (columns != null) {
+            return buildEventIndex(scanView()).findOverlapping(from, to);
+        }
+
+        ensureEventIndex();
+        return read(() -> eventIndex.findOverlapping(from, to));
+    }
+
+    /**
+     * Finds every pair of scheduled events whose times overlap.
+     *
+     * @return the clashing pairs, the earlier-starting event first
+     */
+    public List<Task[]> findClashes() {
+        if (columns != null) {
+            return buildEventIndex(scanView()).findClashes();
+        }
+
+        ensureEventIndex();
+        return read(() -> eventIndex.findClashes());
+    }
+
+    /**
+     * Builds the event index over the current tasks on first use.
+     */
+    private void ensureEventIndex() {
+        if (read(() -> eventIndex) != null) {
+            return;
+        }
+
+        write(() -> {
+            if (eventIndex == null) {
+                eventIndex = buildEventIndex(currentView());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Indexes the current tasks; columnar lists build a throwaway index for each query.
+     */
+    private static IntervalTree buildEventIndex(ScanView view) {
+        IntervalTree index = new IntervalTree();
+        for (int slot = 0; slot < view.slots.size(); slot++) {
+            checkCancelled(slot);
+            if (!view.isDeleted(slot)) {
+                index.add(view.slots.get(slot));
+            }
+        }
+        return index;
+    }
+
+    private boolean isDeleted(int slot) {
+        return tombstones != null && tombstones.isDeleted(slot);
+    }
+
+    /**
+     * Stops a long search once the searching thread has been interrupted.
+     * Only every few thousandth position is checked to keep the scan tight.
+     *
+     * @param position how far the search has got
+     * @throws CancellationException if the thread was interrupted
+     */
+    static void checkCancelled(int position) {
+        if ((position & CANCEL_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Search cancelled");
+        }
+    }
+
     /**
      * Checks if a task's description contains the search keyword.
      *
      * @param task the task to check
-     * @param searchKeyword the keyword to search for
+     * @param searchKeyword the lowercased keyword to search for
      * @return true if the task description contains the keyword
      */
-    private boolean taskMatchesKeyword(Task task, String searchKeyword) {
-        String taskDescription = task.getDescription().toLowerCase();
-        return taskDescription.contains(searchKeyword);
+    private static boolean taskMatchesKeyword(Task task, String searchKeyword) {
+        return containsKeyword(task.getDescription(), searchKeyword);
+    }
+
+    /**
+     * Checks if text contains a lowercased keyword, ignoring case, without making a lowercased copy of the text.
+     *
+     * @param text the text to search
+     * @param searchKeyword the lowercased keyword
+     * @return true if the keyword occurs in the text
+     */
+    static boolean containsKeyword(String text, String searchKeyword) {
+        if (searchKeyword.isEmpty()) {
+            return true;
+        }
+
+        // Only positions whose first letter folds to the keyword's can match, as regionMatches folds the same way;
+        // an ASCII letter folds to an ASCII letter, so only other letters need folding
+        char first = foldCase(searchKeyword.charAt(0));
+        char firstUpper = Character.toUpperCase(first);
+        int last = text.length() - searchKeyword.length();
+        for (int i = 0; i <= last; i++) {
+            char letter = text.charAt(i);
+            boolean isCandidate = letter == first || letter == firstUpper
+                    || (letter >= ASCII_LIMIT && foldCase(letter) == first);
+            if (isCandidate && text.regionMatches(true, i, searchKeyword, 0, searchKeyword.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static char foldCase(char letter) {
+        return Character.toLowerCase(Character.toUpperCase(letter));
     }
 
     /**
@@ -116,9 +942,138 @@ public class TaskList {
      * @throws LeoException if the index is out of range
      */
     public void validateIndex(int index) throws LeoException {
-        if (index < 0 || index >= tasks.size()) {
+        if (index < 0 || index >= size()) {
             throw new LeoException("Index out of range.");
         }
     }
-}
 
+    /**
+     * Runs a short read without locking, then runs it again under the read lock if a writer
+     * got in the way. The reader may see the list halfway through a change, so it must
+     * only read; whatever it returns or throws then is discarded.
+     */
+    private <T> T readOptimistic(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException | AssertionError e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        return read(reader);
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T write(Supplier<T> writer) {
+        long stamp = lock.writeLock();
+        try {
+            return writer.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Freezes the slots and deleted slots under the read lock, for a scan that runs unlocked.
+     */
+    private ScanView scanView() {
+        return read(this::currentView);
+    }
+
+    /**
+     * Freezes the slots and deleted slots; the caller must hold the lock.
+     */
+    private ScanView currentView() {
+        BitSet deleted = tombstones == null ? null : tombstones.copyDeleted();
+        if (columns != null) {
+            TaskColumns frozen = columns.frozen();
+            return new ScanView(frozen, frozen, deleted);
+        }
+        return new ScanView(taskSlots.frozen(), null, deleted);
+    }
+
+    /**
+     * Where the candidates for a query come from.
+     */
+    private enum CandidateSource {
+        DUE_INDEX,
+        KEYWORD_INDEX,
+        SCAN
+    }
+
+    /**
+     * The slots of the list at one moment, which stay as they were while the list changes,
+     * since slots are only appended to or rewritten into fresh arrays.
+     */
+    private static final class ScanView {
+        private final List<Task> slots;
+        private final TaskColumns columns; // the frozen slots again, or null when tasks are held as objects
+        private final BitSet deleted; // null when no slot is deleted
+
+        ScanView(List<Task> slots, TaskColumns columns, BitSet deleted) {
+            this.slots = slots;
+            this.columns = columns;
+            this.deleted = deleted;
+        }
+
+        boolean isDeleted(int slot) {
+            return deleted != null && deleted.get(slot);
+        }
+    }
+
+    /**
+     * Read-only view of the live tasks in position order, skipping deleted slots.
+     */
+    private class LiveView extends AbstractList<Task> implements RandomAccess {
+        @Override
+        public Task get(int index) {
+            return tasks.get(slotOf(index));
+        }
+
+        @Override
+        public int size() {
+            return liveSize();
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            Tombstones deleted = tombstones;
+            if (deleted == null) {
+                return Collections.unmodifiableList(tasks).iterator();
+            }
+
+            return new Iterator<>() {
+                private int slot = deleted.nextLive(0);
+
+                @Override
+                public boolean hasNext() {
+                    return slot < tasks.size();
+                }
+
+                @Override
+                public Task next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Task task = tasks.get(slot);
+                    slot = deleted.nextLive(slot + 1);
+                    return task;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package leo.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Tasks sharing one index key, kept in ID order, which is list order.
+ */
+final class TaskPosting {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private Task[] tasks = new Task[INITIAL_CAPACITY];
+    private int size;
+
+    void add(Task task) {
+        if (size == tasks.length) {
+            tasks = Arrays.copyOf(tasks, size * 2);
+        }
+        // An appended task goes last; one put back by undo moves back to its place
+        int i = size;
+        while (i > 0 && tasks[i - 1].getId() > task.getId()) {
+            i--;
+        }
+        System.arraycopy(tasks, i, tasks, i + 1, size - i);
+        tasks[i] = task;
+        size++;
+    }
+
+    /**
+     * Drops every task that fails the test, keeping the rest in order.
+     */
+    void retain(Predicate<Task> keep) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (keep.test(tasks[i])) {
+                tasks[kept++] = tasks[i];
+            }
+        }
+        Arrays.fill(tasks, kept, size, null);
+        size = kept;
+    }
+
+    /**
+     * Returns a copy of the tasks, in order.
+     */
+    List<Task> copy() {
+        return new ArrayList<>(Arrays.asList(tasks).subList(0, size));
+    }
+
+    Task get(int i) {
+        return tasks[i];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,222 @@
+package leo.tasks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A find query over several fields of a task: its type, its status, the date a deadline
+ * is due and the words in its description. A task matches when every given condition holds.
+ *
+ * <p>Queries are immutable; each {@code with} method returns a narrower copy.
+ * The task list answers a query from whichever index yields the fewest candidates, and
+ * {@link #plan} orders the remaining conditions so those that reject the most tasks for
+ * the least work are checked first.
+ */
+public final class TaskQuery {
+    private static final TaskQuery ALL = new TaskQuery(null, null, Long.MIN_VALUE, Long.MAX_VALUE, null);
+    // Tasks sampled from the candidates to estimate how many each condition rejects
+    private static final int SAMPLE_SIZE = 32;
+
+    /**
+     * A condition a query can place on tasks, with its relative cost to check.
+     */
+    enum Field {
+        TYPE(1),
+        STATUS(1),
+        DUE(2),
+        KEYWORD(8);
+
+        private final int cost;
+
+        Field(int cost) {
+            this.cost = cost;
+        }
+    }
+
+    private final TaskType type; // null matches every type
+    private final Boolean isDone; // null matches either status
+    private final long dueFromDay; // inclusive; Long.MIN_VALUE when unbounded
+    private final long dueToDay; // exclusive; Long.MAX_VALUE when unbounded
+    private final String keyword; // lowercased; null matches every description
+
+    private TaskQuery(TaskType type, Boolean isDone, long dueFromDay, long dueToDay, String keyword) {
+        this.type = type;
+        this.isDone = isDone;
+        this.dueFromDay = dueFromDay;
+        this.dueToDay = dueToDay;
+        this.keyword = keyword;
+    }
+
+    /**
+     * Returns the query that matches every task.
+     *
+     * @return the query
+     */
+    public static TaskQuery all() {
+        return ALL;
+    }
+
+    /**
+     * Narrows the query to tasks of one type.
+     *
+     * @param type the type tasks must have
+     * @return the narrowed query
+     */
+    public TaskQuery withType(TaskType type) {
+        return new TaskQuery(type, isDone, dueFromDay, dueToDay, keyword);
+    }
+
+    /**
+     * Narrows the query to tasks that are done, or to those that are not.
+     *
+     * @param isDone the status tasks must have
+     * @return the narrowed query
+     */
+    public TaskQuery withDone(boolean isDone) {
+        return new TaskQuery(type, isDone, dueFromDay, dueToDay, keyword);
+    }
+
+    /**
+     * Narrows the query to deadlines due on or after a day.
+     *
+     * @param from the first day, inclusive
+     * @return the narrowed query
+     */
+    public TaskQuery withDueFrom(LocalDate from) {
+        return new TaskQuery(type, isDone, Math.max(dueFromDay, from.toEpochDay()), dueToDay, keyword);
+    }
+
+    /**
+     * Narrows the query to deadlines due before a day.
+     *
+     * @param to the last day, exclusive
+     * @return the narrowed query
+     */
+    public TaskQuery withDueBefore(LocalDate to) {
+        return new TaskQuery(type, isDone, dueFromDay, Math.min(dueToDay, to.toEpochDay()), keyword);
+    }
+
+    /**
+     * Narrows the query to tasks whose description contains a keyword, ignoring case.
+     *
+     * @param keyword the keyword
+     * @return the narrowed query
+     */
+    public TaskQuery withKeyword(String keyword) {
+        return new TaskQuery(type, isDone, dueFromDay, dueToDay, keyword.toLowerCase());
+    }
+
+    String getKeyword() {
+        return keyword;
+    }
+
+    long getDueFromDay() {
+        return dueFromDay;
+    }
+
+    long getDueToDay() {
+        return dueToDay;
+    }
+
+    /**
+     * Returns whether the query only matches unfinished deadlines in a date range,
+     * which is exactly what the due index holds.
+     */
+    boolean isUnfinishedDueRange() {
+        return hasDueRange() && Boolean.FALSE.equals(isDone);
+    }
+
+    private boolean hasDueRange() {
+        return dueFromDay != Long.MIN_VALUE || dueToDay != Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the conditions the query places on tasks.
+     */
+    Set<Field> fields() {
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        if (type != null || hasDueRange()) {
+            fields.add(Field.TYPE);
+        }
+        if (isDone != null) {
+            fields.add(Field.STATUS);
+        }
+        if (hasDueRange()) {
+            fields.add(Field.DUE);
+        }
+        if (keyword != null) {
+            fields.add(Field.KEYWORD);
+        }
+        return fields;
+    }
+
+    /**
+     * Orders conditions so that the one rejecting the most sampled candidates per unit of
+     * cost comes first; checks then stop at the first condition a task fails.
+     *
+     * @param fields the conditions still to check
+     * @param candidates the tasks they will be checked on
+     * @return the conditions in the order to check them
+     */
+    List<Field> plan(Set<Field> fields, List<Task> candidates) {
+        int sampleSize = Math.min(SAMPLE_SIZE, candidates.size());
+        double[] rank = new double[Field.values().length];
+        for (Field field : fields) {
+            int rejected = 0;
+            for (int i = 0; i < sampleSize; i++) {
+                Task task = candidates.get((int) ((long) i * candidates.size() / sampleSize));
+                if (!matches(field, task)) {
+                    rejected++;
+                }
+            }
+            // Add one so a condition that rejected no sampled task still ranks by cost
+            rank[field.ordinal()] = (double) field.cost / (rejected + 1);
+        }
+
+        List<Field> plan = new ArrayList<>(fields);
+        plan.sort(Comparator.comparingDouble(field -> rank[field.ordinal()]));
+        return plan;
+    }
+
+    /**
+     * Returns whether a task meets one condition of the query.
+     */
+    boolean matches(Field field, Task task) {
+        switch (field) {
+            case TYPE:
+                return matchesType(TaskColumns.typeOf(task));
+            case STATUS:
+                return isDone == null || isDone == task.isDone();
+            case DUE:
+                return task instanceof Deadline && matchesDueDay(((Deadline) task).getBy().toEpochDay());
+            default:
+                return matchesDescription(task.getDescription());
+        }
+    }
+
+    /**
+     * Returns whether a task of the given type and status could match, before reading anything else.
+     */
+    boolean matchesFlags(TaskType taskType, boolean isTaskDone) {
+        return matchesType(taskType) && (isDone == null || isDone == isTaskDone);
+    }
+
+    private boolean matchesType(TaskType taskType) {
+        if (hasDueRange() && taskType != TaskType.DEADLINE) {
+            return false;
+        }
+        return type == null || type == taskType;
+    }
+
+    boolean matchesDueDay(long epochDay) {
+        return epochDay >= dueFromDay && epochDay < dueToDay;
+    }
+
+    boolean matchesDescription(String description) {
+        return keyword == null || TaskList.containsKeyword(description, keyword);
+    }
+}
@@ -0,0 +1,92 @@
+package leo.tasks;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The slots of a task list held as objects, in a growable array.
+ *
+ * <p>A slot in use is only ever written again to put a deleted task back into it. Growing,
+ * inserting before the end and dropping slots all write a fresh array, so a {@link #frozen}
+ * view keeps reading the slots as they were when it was taken, without any lock.
+ */
+final class TaskSlots extends AbstractList<Task> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Task[] slots = new Task[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        return slots[index];
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Objects.checkIndex(index, size);
+        Task previous = slots[index];
+        slots[index] = task;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        Objects.checkIndex(index, size + 1);
+        if (index == size && size < slots.length) {
+            slots[size++] = task;
+            modCount++;
+            return;
+        }
+
+        Task[] grown = new Task[size == slots.length ? size * 2 : slots.length];
+        System.arraycopy(slots, 0, grown, 0, index);
+        grown[index] = task;
+        System.arraycopy(slots, index, grown, index + 1, size - index);
+        slots = grown;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Drops the given slots in a single pass, moving the others up.
+     *
+     * @param sortedSlots distinct slots in ascending order
+     */
+    void removeSlots(int[] sortedSlots) {
+        Task[] kept = new Task[Math.max(size - sortedSlots.length, INITIAL_CAPACITY)];
+        int next = 0;
+        int writeSlot = 0;
+        for (int readSlot = 0; readSlot < size; readSlot++) {
+            if (next < sortedSlots.length && sortedSlots[next] == readSlot) {
+                next++;
+            } else {
+                kept[writeSlot++] = slots[readSlot];
+            }
+        }
+        assert next == sortedSlots.length : "slots must be sorted, distinct and in bounds";
+
+        slots = kept;
+        size = writeSlot;
+        modCount++;
+    }
+
+    /**
+     * Returns a read-only view of the slots as they are now, which later changes do not move.
+     * Only a deleted task being put back into its slot shows through.
+     *
+     * @return the slots
+     */
+    List<Task> frozen() {
+        return Collections.unmodifiableList(Arrays.asList(slots).subList(0, size));
+    }
+}
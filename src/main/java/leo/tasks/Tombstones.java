@@ -0,0 +1,153 @@
+package leo.tasks;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Tracks which slots of a task list hold deleted tasks, and maps between slots and
+ * the positions users see.
+ *
+ * <p>A deleted task keeps its slot until the list is compacted, so deleting never shifts
+ * later tasks. A Fenwick tree over the live slots turns a position into its slot and back
+ * in O(log n); appending a slot and deleting one are O(log n) as well.
+ */
+final class Tombstones {
+    private final BitSet deleted = new BitSet();
+    private int[] tree; // tree[i] counts the live slots in (i - lowestBit(i), i], 1-based
+    private int slotCount;
+    private int deletedCount;
+
+    /**
+     * Starts tracking a list whose slots are all live.
+     *
+     * @param slotCount the number of slots
+     */
+    Tombstones(int slotCount) {
+        this.slotCount = slotCount;
+        tree = new int[Math.max(slotCount, 1) + 1];
+        Arrays.fill(tree, 1, slotCount + 1, 1);
+        for (int i = 1; i <= slotCount; i++) {
+            int parent = i + Integer.lowestOneBit(i);
+            if (parent <= slotCount) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * Adds a live slot at the end.
+     */
+    void append() {
+        int i = ++slotCount;
+        if (i == tree.length) {
+            tree = Arrays.copyOf(tree, tree.length * 2);
+        }
+        tree[i] = 1 + prefixCount(i - 1) - prefixCount(i - Integer.lowestOneBit(i));
+    }
+
+    /**
+     * Marks a live slot as deleted.
+     *
+     * @param slot the slot
+     */
+    void delete(int slot) {
+        assert !deleted.get(slot) : "slot is already deleted";
+        deleted.set(slot);
+        deletedCount++;
+        for (int i = slot + 1; i <= slotCount; i += Integer.lowestOneBit(i)) {
+            tree[i]--;
+        }
+    }
+
+    /**
+     * Makes a deleted slot live again.
+     *
+     * @param slot the slot
+     */
+    void restore(int slot) {
+        assert deleted.get(slot) : "slot is not deleted";
+        deleted.clear(slot);
+        deletedCount--;
+        for (int i = slot + 1; i <= slotCount; i += Integer.lowestOneBit(i)) {
+            tree[i]++;
+        }
+    }
+
+    boolean isDeleted(int slot) {
+        return deleted.get(slot);
+    }
+
+    /**
+     * Returns the first live slot at or after the given one.
+     *
+     * @param slot the slot to start from
+     * @return the live slot, or the slot count if there is none
+     */
+    int nextLive(int slot) {
+        return Math.min(deleted.nextClearBit(slot), slotCount);
+    }
+
+    int deletedCount() {
+        return deletedCount;
+    }
+
+    int liveCount() {
+        return slotCount - deletedCount;
+    }
+
+    /**
+     * Returns the slot holding the live task at a position.
+     *
+     * @param index the 0-based position among live tasks
+     * @return the slot
+     */
+    int slotOf(int index) {
+        assert index >= 0 && index < liveCount() : "index out of bounds";
+        int slot = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(slotCount); step > 0; step >>= 1) {
+            int next = slot + step;
+            if (next <= slotCount && tree[next] < remaining) {
+                slot = next;
+                remaining -= tree[next];
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the position of the task in a live slot.
+     *
+     * @param slot the slot
+     * @return the number of live slots before it
+     */
+    int indexOf(int slot) {
+        return prefixCount(slot);
+    }
+
+    /**
+     * Returns a copy of the deleted slots as a bit set, which later changes do not affect.
+     *
+     * @return the deleted slots
+     */
+    BitSet copyDeleted() {
+        return (BitSet) deleted.clone();
+    }
+
+    /**
+     * Returns every deleted slot in ascending order.
+     *
+     * @return the deleted slots
+     */
+    int[] deletedSlots() {
+        return deleted.stream().toArray();
+    }
+
+    private int prefixCount(int slots) {
+        int count = 0;
+        for (int i = slots; i > 0; i -= Integer.lowestOneBit(i)) {
+            count += tree[i];
+        }
+        return count;
+    }
+}
@@ -0,0 +1,146 @@
+package leo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Essential test suite for the CommandDispatcher class.
+ * Focuses on reply order and cancellation.
+ */
+public class CommandDispatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Leo> sessions = new ArrayList<>();
+
+    private Leo newSession() {
+        Leo session = new Leo(tempDir.resolve("tasks.txt").toString());
+        sessions.add(session);
+        return session;
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (Leo session : sessions) {
+            session.close();
+        }
+    }
+
+    /**
+     * Tests that replies arrive in the order the commands were submitted.
+     */
+    @Test
+    public void submit_severalCommands_repliesInOrder() throws InterruptedException {
+        CommandDispatcher dispatcher = new CommandDispatcher(newSession(), Runnable::run);
+        List<String> replies = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        dispatcher.submit("todo read book", reply -> {
+            replies.add(reply.getText());
+            done.countDown();
+        });
+        dispatcher.submit("todo write essay", reply -> {
+            replies.add(reply.getText());
+            done.countDown();
+        });
+        dispatcher.submit("list", reply -> {
+            replies.add(reply.getText());
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(replies.get(0).contains("read book"));
+        assertTrue(replies.get(1).contains("write essay"));
+        assertTrue(replies.get(2).contains("2. [T][ ] write essay"));
+        assertFalse(dispatcher.isBusy());
+    }
+
+    /**
+     * Tests that a cancelled read-only command replies with the cancelled message
+     * and that commands changing tasks cannot be cancelled.
+     */
+    @Test
+    public void cancel_readOnlyCommand_repliesCancelled() throws InterruptedException {
+        CommandDispatcher dispatcher = new CommandDispatcher(newSession(), Runnable::run);
+        List<String> replies = new CopyOnWriteArrayList<>();
+        CountDownLatch isWorkerHeld = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        // The first reply runs on the worker thread and holds it, so "list" stays queued
+        dispatcher.submit("todo read book", reply -> {
+            isWorkerHeld.countDown();
+            awaitQuietly(release);
+            done.countDown();
+        });
+        assertTrue(isWorkerHeld.await(5, TimeUnit.SECONDS));
+        dispatcher.submit("list", reply -> {
+            replies.add(reply.getText());
+            done.countDown();
+        });
+        dispatcher.submit("todo after cancel", reply -> {
+            replies.add(reply.getText());
+            done.countDown();
+        });
+
+        assertTrue(dispatcher.cancel());
+        assertFalse(dispatcher.cancel());
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(CommandDispatcher.CANCELLED_MESSAGE, replies.get(0));
+        assertTrue(replies.get(1).contains("after cancel"));
+    }
+
+    /**
+     * Tests that a listing too long to print inline keeps the IDs asked for when handed over as rows.
+     */
+    @Test
+    public void submit_longListWithIds_rowsShowIds() throws InterruptedException {
+        Leo session = newSession();
+        session.useRowsView();
+        CommandDispatcher dispatcher = new CommandDispatcher(session, Runnable::run);
+        int taskCount = 25;
+        List<CommandDispatcher.Reply> replies = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(taskCount + 2);
+        for (int i = 0; i < taskCount; i++) {
+            dispatcher.submit("todo chore " + i, reply -> done.countDown());
+        }
+        for (String command : List.of("list --ids", "list")) {
+            dispatcher.submit(command, reply -> {
+                replies.add(reply);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        TaskRows withIds = replies.get(0).getRows();
+        TaskRows withoutIds = replies.get(1).getRows();
+        assertEquals(taskCount, withIds.getRows().size());
+        long lastId = withIds.getRows().get(taskCount - 1).getId();
+        assertEquals(taskCount + ". #" + lastId + " [T][ ] chore " + (taskCount - 1), withIds.formatRow(taskCount - 1));
+        assertEquals(taskCount + ". [T][ ] chore " + (taskCount - 1), withoutIds.formatRow(taskCount - 1));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
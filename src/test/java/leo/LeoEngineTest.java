@@ -0,0 +1,132 @@
+package leo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Essential test suite for the LeoEngine class.
+ * Focuses on sessions sharing a task file.
+ */
+public class LeoEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String dataFile(String name) {
+        return tempDir.resolve(name).toString();
+    }
+
+    /**
+     * Tests that sessions on the same file see each other's changes and others do not.
+     */
+    @Test
+    public void openSession_sameFile_sharesTasks() throws IOException {
+        LeoEngine engine = new LeoEngine();
+        Leo first = engine.openSession(dataFile("shared.txt"));
+        Leo second = engine.openSession(dataFile("shared.txt"));
+        Leo other = engine.openSession(dataFile("other.txt"));
+
+        first.getResponse("todo read book");
+
+        assertTrue(second.getResponse("list").contains("read book"));
+        assertFalse(other.getResponse("list").contains("read book"));
+        engine.close();
+    }
+
+    /**
+     * Tests that commands from concurrent sessions are all applied and saved.
+     */
+    @Test
+    public void getResponse_concurrentSessions_savesEveryTask() throws InterruptedException, IOException {
+        LeoEngine engine = new LeoEngine();
+        int sessionCount = 4;
+        int tasksPerSession = 50;
+        List<Thread> threads = new ArrayList<>();
+        for (int s = 0; s < sessionCount; s++) {
+            Leo session = engine.openSession(dataFile("shared.txt"));
+            int sessionId = s;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < tasksPerSession; i++) {
+                    session.getResponse("todo chore " + sessionId + "-" + i);
+                    session.getResponse("find chore");
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        engine.close();
+
+        Leo reloaded = new Leo(dataFile("shared.txt"));
+        String found = reloaded.getResponse("find chore");
+        reloaded.close();
+        assertEquals(sessionCount * tasksPerSession, found.split("\\[T]").length - 1);
+    }
+
+    /**
+     * Tests that a task ID keeps naming the same task after another session deletes an earlier one,
+     * and after the file is loaded again.
+     */
+    @Test
+    public void getResponse_deleteById_survivesOtherSessionsDelete() throws IOException {
+        LeoEngine engine = new LeoEngine();
+        Leo first = engine.openSession(dataFile("shared.txt"));
+        Leo second = engine.openSession(dataFile("shared.txt"));
+        first.getResponse("todo alpha");
+        first.getResponse("todo bravo");
+        first.getResponse("todo charlie");
+        assertTrue(second.getResponse("list --ids").contains("3. #3 [T][ ] charlie"));
+
+        first.getResponse("delete 1");
+        assertTrue(second.getResponse("delete #3").contains("charlie"));
+        assertTrue(second.getResponse("mark #1").contains("No task has ID #1."));
+        engine.close();
+
+        Leo reloaded = new Leo(dataFile("shared.txt"));
+        String listing = reloaded.getResponse("list --ids");
+        reloaded.close();
+        assertTrue(listing.contains("1. #2 [T][ ] bravo"));
+        assertFalse(listing.contains("charlie"));
+    }
+
+    /**
+     * Tests that undo reverses a delete and a mark, and redo applies the delete again.
+     */
+    @Test
+    public void getResponse_undoRedo_revertsAndReappliesChanges() throws IOException {
+        LeoEngine engine = new LeoEngine();
+        Leo leo = engine.openSession(dataFile("undo.txt"));
+        assertTrue(leo.getResponse("undo").contains("Nothing to undo"));
+        leo.getResponse("todo alpha");
+        leo.getResponse("todo bravo");
+        leo.getResponse("delete 1");
+        leo.getResponse("mark 1");
+
+        assertTrue(leo.getResponse("undo").contains("marked as not done [T][ ] bravo"));
+        assertTrue(leo.getResponse("undo").contains("put back [T][ ] alpha"));
+        assertTrue(leo.getResponse("list").contains("1. [T][ ] alpha"));
+        assertTrue(leo.getResponse("redo").contains("removed [T][ ] alpha"));
+        leo.getResponse("todo charlie");
+        assertTrue(leo.getResponse("redo").contains("Nothing to redo"));
+        engine.close();
+
+        Leo reloaded = new Leo(dataFile("undo.txt"));
+        String listing = reloaded.getResponse("list");
+        reloaded.close();
+        assertTrue(listing.contains("1. [T][ ] bravo"));
+        assertTrue(listing.contains("2. [T][ ] charlie"));
+        assertFalse(listing.contains("alpha"));
+    }
+}
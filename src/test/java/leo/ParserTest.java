@@ -1,6 +1,7 @@
 package leo;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -10,14 +11,26 @@ import java.time.LocalDate;
 import org.junit.jupiter.api.Test;
 
 import leo.commands.AddCommand;
+import leo.commands.BatchDeleteCommand;
+import leo.commands.BatchMarkCommand;
+import leo.commands.ClashesCommand;
 import leo.commands.Command;
+import leo.commands.DeleteCommand;
+import leo.commands.DueCommand;
 import leo.commands.ExitCommand;
+import leo.commands.ExportCommand;
 import leo.commands.FindCommand;
 import leo.commands.HelpCommand;
+import leo.commands.ImportCommand;
 import leo.commands.ListCommand;
 import leo.commands.MarkCommand;
+import leo.commands.RedoCommand;
+import leo.commands.ScheduleCommand;
+import leo.commands.StatsCommand;
+import leo.commands.UndoCommand;
 import leo.tasks.Deadline;
 import leo.tasks.Event;
+import leo.tasks.TaskList;
 import leo.tasks.ToDo;
 
 /**
@@ -171,6 +184,48 @@ public class ParserTest {
         assertInstanceOf(FindCommand.class, result);
     }
 
+    /**
+     * Tests that parsing a find command with a tilde returns FindCommand.
+     */
+    @Test
+    public void parse_findSimilarCommand_returnsFindCommand() throws LeoException {
+        assertInstanceOf(FindCommand.class, Parser.parse("find ~reprot"));
+    }
+
+    /**
+     * Tests that parsing a find command with field terms returns FindCommand.
+     */
+    @Test
+    public void parse_findQueryCommand_returnsFindCommand() throws LeoException {
+        assertInstanceOf(FindCommand.class, Parser.parse("find type:D done:no by<2026-11-01 report"));
+        assertInstanceOf(FindCommand.class, Parser.parse("find by:2026-11-01"));
+    }
+
+    /**
+     * Tests that words which only look like field terms are still searched for as keywords.
+     */
+    @Test
+    public void parse_findWordsLikeFieldTerms_searchesKeyword() throws LeoException {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDo("hire type:writer"));
+        tasks.add(new ToDo("count bytes"));
+        tasks.add(new ToDo("paid by:me"));
+        tasks.add(new Deadline("pay bytes bill", LocalDate.of(2026, 10, 20)));
+        ResponseBuffer response = new ResponseBuffer();
+        Ui ui = new Ui(response);
+
+        for (String keyword : new String[]{"type:writer", "by:me", "bytes", "done:maybe"}) {
+            Parser.parse("find " + keyword).execute(tasks, ui, null);
+            String output = response.drain();
+            assertEquals(!keyword.equals("done:maybe"), output.contains(keyword), output);
+        }
+
+        Parser.parse("find bytes by<2026-11-01").execute(tasks, ui, null);
+        String output = response.drain();
+        assertTrue(output.contains("pay bytes bill"), output);
+        assertFalse(output.contains("count bytes"), output);
+    }
+
     /**
      * Tests that parsing find command without keyword throws LeoException.
      */
@@ -198,4 +253,140 @@ public class ParserTest {
         LeoException exception = assertThrows(LeoException.class, () -> Parser.parse("mark abc"));
         assertEquals("Not a valid number", exception.getMessage());
     }
+
+    /**
+     * Tests that a task ID can be given instead of an index, and must be a positive number.
+     */
+    @Test
+    public void parse_commandWithTaskId_returnsSingleTaskCommand() throws LeoException {
+        assertInstanceOf(MarkCommand.class, Parser.parse("mark #12"));
+        assertInstanceOf(DeleteCommand.class, Parser.parse("delete #3"));
+        assertInstanceOf(ListCommand.class, Parser.parse("list --ids --page 2"));
+
+        LeoException exception = assertThrows(LeoException.class, () -> Parser.parse("unmark #0"));
+        assertEquals("Not a valid task ID: #0", exception.getMessage());
+    }
+
+    /**
+     * Tests that parsing mark command with a range returns BatchMarkCommand.
+     */
+    @Test
+    public void parse_markCommandRange_returnsBatchMarkCommand() throws LeoException {
+        Command result = Parser.parse("mark 1-500");
+        assertInstanceOf(BatchMarkCommand.class, result);
+    }
+
+    /**
+     * Tests that parsing delete command with an index list returns BatchDeleteCommand.
+     */
+    @Test
+    public void parse_deleteCommandList_returnsBatchDeleteCommand() throws LeoException {
+        Command result = Parser.parse("delete 3,7,9");
+        assertInstanceOf(BatchDeleteCommand.class, result);
+    }
+
+    /**
+     * Tests that parsing a reversed range throws LeoException.
+     */
+    @Test
+    public void parse_deleteCommandReversedRange_throwsException() {
+        LeoException exception = assertThrows(LeoException.class, () -> Parser.parse("delete 5-2"));
+        assertEquals("Invalid range: 5-2", exception.getMessage());
+    }
+
+    /**
+     * Tests that parsing list with paging options returns ListCommand.
+     */
+    @Test
+    public void parse_listCommandWithPage_returnsListCommand() throws LeoException {
+        Command result = Parser.parse("list --page 3 --size 50");
+        assertInstanceOf(ListCommand.class, result);
+    }
+
+    /**
+     * Tests that parsing list with an unknown or invalid option throws LeoException.
+     */
+    @Test
+    public void parse_listCommandInvalidOption_throwsException() {
+        LeoException unknown = assertThrows(LeoException.class, () -> Parser.parse("list --all"));
+        assertEquals("Unknown list option: --all", unknown.getMessage());
+        LeoException invalid = assertThrows(LeoException.class, () -> Parser.parse("list --page 0"));
+        assertEquals("Not a valid number", invalid.getMessage());
+    }
+
+    /**
+     * Tests that parsing the due commands returns DueCommand.
+     */
+    @Test
+    public void parse_dueCommands_returnsDueCommand() throws LeoException {
+        assertInstanceOf(DueCommand.class, Parser.parse("due today"));
+        assertInstanceOf(DueCommand.class, Parser.parse("due before 2026-12-01"));
+        assertInstanceOf(DueCommand.class, Parser.parse("overdue"));
+    }
+
+    /**
+     * Tests that parsing due with a bad date throws LeoException.
+     */
+    @Test
+    public void parse_dueBeforeInvalidDate_throwsException() {
+        LeoException exception = assertThrows(LeoException.class, () -> Parser.parse("due before tomorrow"));
+        assertEquals("Invalid date format. Enter like yyyy-MM-dd", exception.getMessage());
+    }
+
+    /**
+     * Tests that parsing the schedule commands returns ScheduleCommand or ClashesCommand.
+     */
+    @Test
+    public void parse_scheduleCommands_returnsScheduleCommands() throws LeoException {
+        assertInstanceOf(ScheduleCommand.class, Parser.parse("on 2026-03-02"));
+        assertInstanceOf(ScheduleCommand.class, Parser.parse("between 2026-03-02 and 2026-03-09"));
+        assertInstanceOf(ClashesCommand.class, Parser.parse("clashes"));
+    }
+
+    /**
+     * Tests that parsing between with reversed dates throws LeoException.
+     */
+    @Test
+    public void parse_betweenReversedDates_throwsException() {
+        LeoException exception = assertThrows(LeoException.class,
+                () -> Parser.parse("between 2026-03-09 and 2026-03-02"));
+        assertEquals("The second date must not be before the first", exception.getMessage());
+    }
+
+    /**
+     * Tests that parsing import returns ImportCommand, and a missing path throws LeoException.
+     */
+    @Test
+    public void parse_importCommand_returnsImportCommand() throws LeoException {
+        assertInstanceOf(ImportCommand.class, Parser.parse("import data/more tasks.csv"));
+        LeoException exception = assertThrows(LeoException.class, () -> Parser.parse("import"));
+        assertEquals("Import what? Provide a file path!", exception.getMessage());
+    }
+
+    /**
+     * Tests that parsing export returns ExportCommand, and an unsupported extension throws LeoException.
+     */
+    @Test
+    public void parse_exportCommand_returnsExportCommand() throws LeoException {
+        assertInstanceOf(ExportCommand.class, Parser.parse("export tasks.ics"));
+        LeoException exception = assertThrows(LeoException.class, () -> Parser.parse("export tasks.txt"));
+        assertEquals("Export to a .csv, .jsonl or .ics file", exception.getMessage());
+    }
+
+    /**
+     * Tests that parsing stats returns StatsCommand.
+     */
+    @Test
+    public void parse_statsCommand_returnsStatsCommand() throws LeoException {
+        assertInstanceOf(StatsCommand.class, Parser.parse("stats"));
+    }
+
+    /**
+     * Tests that parsing undo and redo returns their commands.
+     */
+    @Test
+    public void parse_undoAndRedo_returnsHistoryCommands() throws LeoException {
+        assertInstanceOf(UndoCommand.class, Parser.parse("undo"));
+        assertInstanceOf(RedoCommand.class, Parser.parse("redo"));
+    }
 }
@@ -0,0 +1,54 @@
+package leo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the single-pass Tokenizer.
+ */
+public class TokenizerTest {
+    private static final String[] FLAGS = {" /by ", " /from ", " /to "};
+
+    /**
+     * Tests that one scan finds the command word, the arguments and the first of each flag.
+     */
+    @Test
+    public void scan_eventLine_findsWordArgumentsAndFlags() {
+        String line = "event  talk /from 2pm /to 3pm /to 4pm";
+        Tokenizer tokens = new Tokenizer(line, FLAGS);
+
+        assertTrue(tokens.isWord("event"));
+        assertFalse(tokens.isWord("even"));
+        assertEquals(line.indexOf("talk"), tokens.argumentStart());
+        assertEquals(-1, tokens.flagPosition(0));
+        assertEquals(line.indexOf(" /from "), tokens.flagPosition(1));
+        assertEquals(line.indexOf(" /to "), tokens.flagPosition(2));
+    }
+
+    /**
+     * Tests that a line without arguments has its arguments start at the end.
+     */
+    @Test
+    public void scan_singleWord_argumentsStartAtEnd() {
+        Tokenizer tokens = new Tokenizer("list", FLAGS);
+
+        assertTrue(tokens.isWord("list"));
+        assertEquals(4, tokens.argumentStart());
+    }
+
+    /**
+     * Tests that splitting trims every field and keeps empty ones.
+     */
+    @Test
+    public void split_storageLine_returnsTrimmedFields() {
+        assertArrayEquals(new String[]{"E", "0", "talk", "", "3pm"},
+                Tokenizer.split(" E | 0 |talk||  3pm ", '|', 5));
+        assertArrayEquals(new String[]{"T", "1", "a", "b", "c", "d"},
+                Tokenizer.split("T|1|a|b|c|d", '|', 2));
+        assertArrayEquals(new String[]{"plain"}, Tokenizer.split("plain", '|', 5));
+    }
+}
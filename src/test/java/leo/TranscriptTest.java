@@ -0,0 +1,58 @@
+package leo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Essential test suite for the Transcript class.
+ * Focuses on reading back ranges of appended messages.
+ */
+public class TranscriptTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that a range of messages is read back with speakers and multi-line text intact.
+     */
+    @Test
+    public void read_appendedMessages_returnsRangeInOrder() throws IOException {
+        try (Transcript transcript = new Transcript(tempDir.resolve("data").resolve("transcript.txt"))) {
+            transcript.append(ChatMessage.fromUser("list"));
+            transcript.append(ChatMessage.fromLeo("Here are the tasks:\n 1. [T][ ] read C:\\books"));
+            transcript.append(ChatMessage.fromUser("bye"));
+
+            List<ChatMessage> messages = transcript.read(1, 3);
+
+            assertEquals(3, transcript.size());
+            assertEquals(2, messages.size());
+            assertEquals(ChatMessage.Speaker.LEO, messages.get(0).getSpeaker());
+            assertEquals("Here are the tasks:\n 1. [T][ ] read C:\\books", messages.get(0).getText());
+            assertEquals(ChatMessage.Speaker.USER, messages.get(1).getSpeaker());
+            assertEquals("bye", messages.get(1).getText());
+        }
+    }
+
+    /**
+     * Tests that opening a transcript starts it empty, replacing an earlier session's.
+     */
+    @Test
+    public void constructor_existingFile_startsEmpty() throws IOException {
+        Path path = tempDir.resolve("transcript.txt");
+        try (Transcript first = new Transcript(path)) {
+            first.append(ChatMessage.fromUser("todo read book"));
+        }
+
+        try (Transcript second = new Transcript(path)) {
+            second.append(ChatMessage.fromUser("list"));
+            assertEquals(1, second.size());
+            assertEquals("list", second.read(0, 1).get(0).getText());
+        }
+    }
+}
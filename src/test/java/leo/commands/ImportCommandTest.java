@@ -0,0 +1,95 @@
+package leo.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import leo.LeoException;
+import leo.ResponseBuffer;
+import leo.Ui;
+import leo.storage.Storage;
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+
+/**
+ * Test suite for the ImportCommand class.
+ */
+public class ImportCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that valid lines are added and saved while bad lines are reported and skipped.
+     */
+    @Test
+    public void execute_commandFile_addsValidLinesAndReportsErrors() throws IOException, LeoException {
+        Path input = tempDir.resolve("tasks.txt");
+        Files.write(input, List.of("todo read book", "", "deadline pay /by tomorrow",
+                "mark 1", "event talk /from 2pm /to 4pm"));
+        String dataFile = tempDir.resolve("data.txt").toString();
+        Storage storage = new Storage(dataFile, true);
+        TaskList tasks = new TaskList(storage.load());
+        ResponseBuffer response = new ResponseBuffer();
+
+        new ImportCommand(input.toString()).execute(tasks, new Ui(response), storage);
+
+        assertEquals(2, tasks.size());
+        String output = response.drain();
+        assertTrue(output.contains("Imported 2 tasks"));
+        assertTrue(output.contains("Line 3: Invalid date format"));
+        assertTrue(output.contains("Line 4: Only todo, deadline and event lines can be imported"));
+
+        List<Task> saved = new Storage(dataFile, true).load();
+        assertEquals(2, saved.size());
+        assertEquals("[E][ ] talk (from: 2pm to: 4pm)", saved.get(1).toString());
+    }
+
+    /**
+     * Tests that CSV rows become the matching add commands, including quoted fields.
+     */
+    @Test
+    public void csvToCommand_quotedFields_buildsCommand() throws LeoException {
+        assertEquals("todo say \"hi\", then leave", ImportCommand.csvToCommand("todo,\"say \"\"hi\"\", then leave\""));
+        assertEquals("deadline pay /by 2026-01-01", ImportCommand.csvToCommand("deadline,pay,2026-01-01"));
+        assertEquals("event talk /from 2pm /to 4pm", ImportCommand.csvToCommand("event,talk,2pm,4pm"));
+        assertThrows(LeoException.class, () -> ImportCommand.csvToCommand("chore,sweep"));
+    }
+
+    /**
+     * Tests that a CSV file written by export is imported with its completion status.
+     */
+    @Test
+    public void execute_exportedCsv_keepsDoneStatus() throws IOException, LeoException {
+        Path input = tempDir.resolve("tasks.csv");
+        Files.write(input, List.of("type,description,start,end,done", "todo,read book,,,true",
+                "deadline,pay,2026-01-01,,false"));
+        TaskList tasks = new TaskList();
+
+        new ImportCommand(input.toString()).execute(tasks, new Ui(new ResponseBuffer()),
+                new Storage(tempDir.resolve("data.txt").toString()));
+
+        assertEquals("[T][X] read book", tasks.get(0).toString());
+        assertEquals("[D][ ] pay (by: Jan 1 2026)", tasks.get(1).toString());
+    }
+
+    /**
+     * Tests that importing a missing file throws LeoException and adds nothing.
+     */
+    @Test
+    public void execute_missingFile_throwsException() {
+        TaskList tasks = new TaskList();
+        String missing = tempDir.resolve("missing.txt").toString();
+        assertThrows(LeoException.class,
+                () -> new ImportCommand(missing).execute(tasks, new Ui(new ResponseBuffer()), new Storage(missing)));
+        assertEquals(0, tasks.size());
+    }
+}
@@ -0,0 +1,72 @@
+package leo.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test suite for the LatencyHistogram class.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests that quantiles are reported within the bucket precision of the true values.
+     */
+    @Test
+    public void valueAtQuantile_uniformValues_withinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000_000, histogram.maxNanos());
+        assertWithin(50_000_000, histogram.valueAtQuantile(0.5));
+        assertWithin(99_000_000, histogram.valueAtQuantile(0.99));
+        assertWithin(50_000_500, histogram.meanNanos());
+    }
+
+    /**
+     * Tests that every bucket index maps back to a range that holds the value.
+     */
+    @Test
+    public void indexOf_values_roundTripThroughBuckets() {
+        for (long value = 0; value < 1L << 41; value = value * 3 / 2 + 1) {
+            long highest = LatencyHistogram.highestValueIn(LatencyHistogram.indexOf(value));
+            assertTrue(highest >= value && highest <= value + value / 32 + 1, "value " + value);
+        }
+    }
+
+    /**
+     * Tests that recordings from several threads are all counted.
+     */
+    @Test
+    public void record_concurrentThreads_countsEveryValue() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.count());
+        assertEquals(9_999, histogram.maxNanos());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 32, "expected about " + expected + " but was " + actual);
+    }
+}
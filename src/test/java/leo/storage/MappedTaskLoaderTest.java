@@ -0,0 +1,66 @@
+package leo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import leo.tasks.Task;
+import leo.tasks.ToDo;
+
+/**
+ * Essential test suite for the MappedTaskLoader class.
+ * Focuses on mapped loads split into several regions and chunks.
+ */
+public class MappedTaskLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Tests that a file mapped in several regions, each decoded in several chunks whose bounds
+     * fall mid-line, loads every task in file order, whether its line ends in LF or CRLF.
+     */
+    @Test
+    public void load_manyChunksAndRegions_keepsFileOrder() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        int lineCount = 400;
+        for (int i = 0; i < lineCount; i++) {
+            String description = "task " + i + " " + "x".repeat(i * 7 % 40);
+            expected.add(description);
+            content.append(description);
+            if (i == lineCount - 1) {
+                break; // the last line has no line break
+            }
+            content.append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 50 == 0) {
+                content.append("\n"); // blank lines are skipped
+            }
+        }
+        Path path = tempDir.resolve("tasks.txt");
+        Files.write(path, content.toString().getBytes(StandardCharsets.UTF_8));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // About 12 regions of up to 1000 bytes, each cut into about 7 chunks
+            MappedTaskLoader loader = new MappedTaskLoader(ToDo::new, pool, 0, 1000, 128);
+            List<Task> loaded = loader.load(path);
+
+            assertEquals(expected.size(), loaded.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), loaded.get(i).getDescription());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package leo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Essential test suite for the SaveWorker class.
+ * Focuses on retrying failed background writes.
+ */
+public class SaveWorkerTest {
+
+    /**
+     * Tests that records whose background write failed are written by a later retry,
+     * without another save or an explicit flush.
+     */
+    @Test
+    public void submitRecords_writeFailsTwice_retriesUntilWritten() throws IOException, InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        List<String> written = new CopyOnWriteArrayList<>();
+        CountDownLatch isWritten = new CountDownLatch(1);
+        SaveWorker worker = new SaveWorker(10, snapshot -> { }, records -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new IOException("disk unavailable");
+            }
+            written.addAll(records);
+            isWritten.countDown();
+        });
+
+        worker.submitRecords(List.of("A | 0 | first", "A | 1 | second"));
+
+        assertTrue(isWritten.await(5, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+        assertEquals(List.of("A | 0 | first", "A | 1 | second"), written);
+        worker.close();
+        assertEquals(3, attempts.get());
+    }
+}
@@ -0,0 +1,393 @@
+package leo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import leo.LeoException;
+import leo.tasks.Deadline;
+import leo.tasks.Event;
+import leo.tasks.Task;
+import leo.tasks.TaskList;
+import leo.tasks.ToDo;
+
+/**
+ * Essential test suite for the Storage class.
+ * Focuses on round-tripping tasks and journal replay.
+ */
+public class StorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String dataFile() {
+        return tempDir.resolve("data").resolve("tasks.txt").toString();
+    }
+
+    private List<Task> sampleTasks() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+        tasks.add(new Deadline("return book", LocalDate.of(2025, 9, 20)));
+        tasks.add(new Event("project meeting", "Mon 2pm", "4pm"));
+        return tasks;
+    }
+
+    /**
+     * Tests that saved tasks are loaded back with the same content.
+     */
+    @Test
+    public void save_thenLoad_roundTripsTasks() throws IOException, LeoException {
+        Storage storage = new Storage(dataFile());
+        List<Task> tasks = sampleTasks();
+        tasks.get(1).markAsDone();
+        storage.save(tasks);
+
+        List<Task> loaded = new Storage(dataFile()).load();
+        assertEquals(3, loaded.size());
+        assertEquals(tasks.get(0).toString(), loaded.get(0).toString());
+        assertEquals(tasks.get(1).toString(), loaded.get(1).toString());
+        assertEquals(tasks.get(2).toString(), loaded.get(2).toString());
+    }
+
+    /**
+     * Tests that journaled mutations are replayed on load without rewriting the snapshot.
+     */
+    @Test
+    public void record_journalMode_replaysMutationsOnLoad() throws IOException, LeoException {
+        Storage storage = new Storage(dataFile(), true);
+        List<Task> tasks = storage.load();
+        Path snapshot = Path.of(dataFile());
+        long snapshotSize = Files.size(snapshot);
+
+        for (Task task : sampleTasks()) {
+            tasks.add(task);
+            storage.record(tasks, JournalEntry.added(task));
+        }
+        tasks.get(0).markAsDone();
+        storage.record(tasks, JournalEntry.marked(0));
+        tasks.remove(1);
+        storage.record(tasks, JournalEntry.deleted(1));
+
+        assertEquals(snapshotSize, Files.size(snapshot));
+
+        List<Task> loaded = new Storage(dataFile(), true).load();
+        assertEquals(2, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+        assertEquals("read book", loaded.get(0).getDescription());
+        assertEquals("project meeting", loaded.get(1).getDescription());
+    }
+
+    /**
+     * Tests that a task put back by an insert record is replayed at its index with its ID.
+     */
+    @Test
+    public void record_insertEntry_replaysAtIndex() throws IOException, LeoException {
+        Storage storage = new Storage(dataFile(), true);
+        TaskList tasks = new TaskList(storage.load(), false);
+        for (Task task : sampleTasks()) {
+            tasks.add(task);
+            storage.record(tasks.list(), JournalEntry.added(task));
+        }
+        Task removed = tasks.remove(1);
+        storage.record(tasks.list(), JournalEntry.deleted(1, removed));
+        tasks.insert(1, removed);
+        storage.record(tasks.list(), JournalEntry.inserted(1, removed));
+
+        List<Task> loaded = new Storage(dataFile(), true).load();
+        assertEquals(3, loaded.size());
+        assertEquals("return book", loaded.get(1).getDescription());
+        assertEquals(removed.getId(), loaded.get(1).getId());
+    }
+
+    /**
+     * Tests that a saved undo history is loaded back, but only for the list it was saved with.
+     */
+    @Test
+    public void persistUndoHistory_reload_undoesOnlyMatchingList() throws IOException, LeoException {
+        Storage storage = new Storage(dataFile(), true);
+        storage.persistUndoHistory();
+        TaskList tasks = new TaskList(storage.load(), false);
+        for (Task task : sampleTasks()) {
+            tasks.add(task);
+            storage.getUndoHistory().record(JournalEntry.added(task));
+            storage.record(tasks.list(), JournalEntry.added(task));
+        }
+        JournalEntry deleted = JournalEntry.deleted(0, tasks.remove(0));
+        storage.getUndoHistory().record(deleted);
+        storage.record(tasks.list(), deleted);
+        storage.flush();
+
+        Storage reopened = new Storage(dataFile(), true);
+        reopened.persistUndoHistory();
+        TaskList reloaded = new TaskList(reopened.load(), false);
+        reopened.getUndoHistory().undo(reloaded);
+        assertEquals(3, reloaded.size());
+        assertEquals("read book", reloaded.get(0).getDescription());
+
+        // A change the history never saw makes the saved history stale
+        storage.record(tasks.list(), JournalEntry.marked(0));
+        storage.flush();
+        Storage stale = new Storage(dataFile(), true);
+        stale.persistUndoHistory();
+        TaskList staleTasks = new TaskList(stale.load(), false);
+        LeoException exception = assertThrows(LeoException.class, () -> stale.getUndoHistory().undo(staleTasks));
+        assertEquals("Nothing to undo", exception.getMessage());
+    }
+
+    /**
+     * Tests that an undo file whose step has a negative entry count is ignored on load.
+     */
+    @Test
+    public void load_undoStepWithNegativeCount_ignoresHistory() throws IOException, LeoException {
+        assertDamagedUndoFileIgnored("U -1");
+    }
+
+    /**
+     * Tests that an undo file whose step claims more entries than it holds is ignored on load.
+     */
+    @Test
+    public void load_undoStepWithHugeCount_ignoresHistory() throws IOException, LeoException {
+        assertDamagedUndoFileIgnored("U 2000000000");
+    }
+
+    private void assertDamagedUndoFileIgnored(String damagedHeader) throws IOException, LeoException {
+        Storage storage = new Storage(dataFile(), true);
+        storage.persistUndoHistory();
+        TaskList tasks = new TaskList(storage.load(), false);
+        Task task = new ToDo("read book");
+        tasks.add(task);
+        storage.getUndoHistory().record(JournalEntry.added(task));
+        storage.record(tasks.list(), JournalEntry.added(task));
+        storage.flush();
+
+        // Keep the stamp and the first entry, so only the count is damaged
+        Path undoPath = Path.of(dataFile() + ".undo");
+        List<String> lines = Files.readAllLines(undoPath);
+        Files.write(undoPath, List.of(lines.get(0), damagedHeader, lines.get(2)));
+
+        Storage reopened = new Storage(dataFile(), true);
+        reopened.persistUndoHistory();
+        TaskList reloaded = new TaskList(reopened.load(), false);
+        assertEquals(1, reloaded.size());
+        LeoException exception = assertThrows(LeoException.class, () -> reopened.getUndoHistory().undo(reloaded));
+        assertEquals("Nothing to undo", exception.getMessage());
+    }
+
+    /**
+     * Tests that the journal is folded into the snapshot once it reaches the threshold.
+     */
+    @Test
+    public void record_thresholdReached_compactsIntoSnapshot() throws IOException, LeoException {
+        Storage storage = new Storage(dataFile(), true, 2);
+        List<Task> tasks = storage.load();
+
+        for (Task task : sampleTasks()) {
+            tasks.add(task);
+            storage.record(tasks, JournalEntry.added(task));
+        }
+
+        List<Task> fromSnapshotOnly = new Storage(dataFile()).load();
+        assertEquals(2, fromSnapshotOnly.size());
+
+        List<Task> loaded = new Storage(dataFile(), true, 2).load();
+        assertEquals(3, loaded.size());
+    }
+
+    /**
+     * Tests that a journal left over from an older snapshot is not replayed again.
+     */
+    @Test
+    public void load_staleJournal_isIgnored() throws IOException, LeoException {
+        Storage storage = new Storage(dataFile(), true);
+        List<Task> tasks = storage.load();
+        Task task = new ToDo("read book");
+        tasks.add(task);
+        storage.record(tasks, JournalEntry.added(task));
+
+        Path journalPath = Path.of(dataFile() + ".journal");
+        List<String> staleJournal = Files.readAllLines(journalPath);
+        storage.save(tasks);
+        Files.write(journalPath, staleJournal);
+
+        List<Task> loaded = new Storage(dataFile(), true).load();
+        assertEquals(1, loaded.size());
+        assertFalse(loaded.get(0).isDone());
+    }
+
+    /**
+     * Tests that converting to binary keeps every task and is detected on the next load.
+     */
+    @Test
+    public void convertTo_binary_roundTripsAndIsDetected() throws IOException, LeoException {
+        List<Task> tasks = sampleTasks();
+        tasks.get(2).markAsDone();
+        new Storage(dataFile()).save(tasks);
+
+        new Storage(dataFile(), true).convertTo(StorageFormat.BINARY);
+        assertEquals(StorageFormat.BINARY, StorageFormat.detect(Path.of(dataFile())));
+
+        Storage storage = new Storage(dataFile(), true);
+        List<Task> loaded = storage.load();
+        assertEquals(StorageFormat.BINARY, storage.getFormat());
+        assertEquals(3, loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i).toString());
+        }
+
+        // Saving again keeps the binary format
+        storage.save(loaded);
+        assertEquals(StorageFormat.BINARY, StorageFormat.detect(Path.of(dataFile())));
+    }
+
+    /**
+     * Tests that task IDs survive text and binary snapshots and journaled adds.
+     */
+    @Test
+    public void save_tasksWithIds_keepsIdsInEveryFormat() throws IOException, LeoException {
+        List<Task> tasks = sampleTasks();
+        long[] ids = {5, 9, 12};
+        for (int i = 0; i < ids.length; i++) {
+            tasks.get(i).setId(ids[i]);
+        }
+        new Storage(dataFile()).save(tasks);
+
+        Storage storage = new Storage(dataFile(), true);
+        List<Task> loaded = storage.load();
+        Task task = new ToDo("write essay");
+        task.setId(13);
+        loaded.add(task);
+        storage.record(loaded, JournalEntry.added(task));
+
+        List<Task> fromText = new Storage(dataFile(), true).load();
+        List<Task> fromBinary = new Storage(dataFile(), true).convertTo(StorageFormat.BINARY);
+        for (List<Task> reloaded : List.of(fromText, fromBinary)) {
+            assertEquals(4, reloaded.size());
+            for (int i = 0; i < ids.length; i++) {
+                assertEquals(ids[i], reloaded.get(i).getId());
+            }
+            assertEquals(13, reloaded.get(3).getId());
+        }
+    }
+
+    /**
+     * Tests that tasks saved without IDs are numbered the same way on every load,
+     * even after a journaled delete.
+     */
+    @Test
+    public void load_linesWithoutIds_assignsStableIds() throws IOException, LeoException {
+        Path path = Path.of(dataFile());
+        Files.createDirectories(path.getParent());
+        Files.write(path, List.of("T | 0 | a", "T | 0 | b", "D | 1 | c | 2025-09-20"));
+
+        Storage storage = new Storage(dataFile(), true);
+        List<Task> tasks = storage.load();
+        assertEquals(3, tasks.get(2).getId());
+        tasks.remove(0);
+        storage.record(tasks, JournalEntry.deleted(0));
+
+        List<Task> loaded = new Storage(dataFile(), true).load();
+        assertEquals(2, loaded.get(0).getId());
+        assertEquals(3, loaded.get(1).getId());
+        assertTrue(loaded.get(1).isDone());
+    }
+
+    /**
+     * Tests that journaled mutations also replay on top of a binary snapshot.
+     */
+    @Test
+    public void record_binarySnapshot_replaysJournal() throws IOException, LeoException {
+        new Storage(dataFile()).save(sampleTasks());
+        Storage storage = new Storage(dataFile(), true);
+        List<Task> tasks = storage.convertTo(StorageFormat.BINARY);
+
+        Task task = new ToDo("write essay");
+        tasks.add(task);
+        storage.record(tasks, JournalEntry.added(task));
+
+        List<Task> loaded = new Storage(dataFile(), true).load();
+        assertEquals(4, loaded.size());
+        assertEquals("write essay", loaded.get(3).getDescription());
+    }
+
+    /**
+     * Tests that asynchronous saves are held back until flushed and then written together.
+     */
+    @Test
+    public void record_asyncSaves_writtenOnFlush() throws IOException, LeoException {
+        Storage storage = new Storage(dataFile(), true);
+        List<Task> tasks = storage.load();
+        storage.startAsyncSaves(60_000);
+        Path journalPath = Path.of(dataFile() + ".journal");
+        long journalSize = Files.size(journalPath);
+
+        for (Task task : sampleTasks()) {
+            tasks.add(task);
+            storage.record(tasks, JournalEntry.added(task));
+        }
+        assertEquals(journalSize, Files.size(journalPath));
+
+        storage.flush();
+        List<Task> loaded = new Storage(dataFile(), true).load();
+        assertEquals(3, loaded.size());
+        storage.close();
+    }
+
+    /**
+     * Tests that closing writes pending asynchronous saves and that later saves are written at once.
+     */
+    @Test
+    public void close_asyncSaves_writesPendingThenSavesSynchronously() throws IOException, LeoException {
+        Storage storage = new Storage(dataFile(), true);
+        List<Task> tasks = storage.load();
+        storage.startAsyncSaves(60_000);
+        List<Task> samples = sampleTasks();
+        tasks.add(samples.get(0));
+        storage.record(tasks, JournalEntry.added(samples.get(0)));
+
+        storage.close();
+        assertEquals(1, new Storage(dataFile(), true).load().size());
+
+        tasks.add(samples.get(1));
+        storage.record(tasks, JournalEntry.added(samples.get(1)));
+        assertEquals(2, new Storage(dataFile(), true).load().size());
+    }
+
+    /**
+     * Tests that a temp file left by an interrupted save does not replace the last complete save.
+     */
+    @Test
+    public void load_leftoverTempFile_keepsLastCompleteSave() throws IOException, LeoException {
+        new Storage(dataFile()).save(sampleTasks());
+        Path temp = Path.of(dataFile() + ".tmp");
+        Files.writeString(temp, "T | 0 | half writt");
+
+        List<Task> loaded = new Storage(dataFile()).load();
+        assertEquals(3, loaded.size());
+        assertFalse(Files.exists(temp));
+    }
+
+    /**
+     * Tests that a leftover temp file is restored when the storage file itself is missing.
+     */
+    @Test
+    public void load_onlyTempFileLeft_restoresIt() throws IOException, LeoException {
+        new Storage(dataFile()).save(sampleTasks());
+        Path temp = Path.of(dataFile() + ".tmp");
+        Files.move(Path.of(dataFile()), temp);
+
+        List<Task> loaded = new Storage(dataFile()).load();
+        assertEquals(3, loaded.size());
+        assertFalse(Files.exists(temp));
+    }
+}
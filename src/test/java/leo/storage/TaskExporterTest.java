@@ -0,0 +1,108 @@
+package leo.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import leo.tasks.Deadline;
+import leo.tasks.Event;
+import leo.tasks.TaskList;
+import leo.tasks.ToDo;
+
+/**
+ * Test suite for the TaskExporter class.
+ */
+public class TaskExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TaskList tasks;
+
+    @BeforeEach
+    public void setUp() {
+        tasks = new TaskList();
+        tasks.add(new ToDo("say \"hi\", then leave"));
+        tasks.add(new Deadline("return book", LocalDate.of(2025, 9, 20)));
+        tasks.add(new Event("project meeting", "2025-09-22 14:00", "2025-09-22 16:00"));
+        tasks.add(new Event("lunch", "noon", "1pm"));
+        tasks.setDone(1, true);
+    }
+
+    /**
+     * Tests that CSV export writes a header and one quoted row per task.
+     */
+    @Test
+    public void export_csv_writesRowPerTask() throws IOException {
+        Path target = tempDir.resolve("tasks.csv");
+        assertEquals(4, TaskExporter.export(tasks, target, TaskExporter.Format.CSV));
+
+        assertEquals(List.of("type,description,start,end,done",
+                "todo,\"say \"\"hi\"\", then leave\",,,false",
+                "deadline,return book,2025-09-20,,true",
+                "event,project meeting,2025-09-22 14:00,2025-09-22 16:00,false",
+                "event,lunch,noon,1pm,false"), Files.readAllLines(target));
+    }
+
+    /**
+     * Tests that JSON Lines export escapes strings and writes one object per line.
+     */
+    @Test
+    public void export_jsonLines_writesObjectPerLine() throws IOException {
+        Path target = tempDir.resolve("tasks.jsonl");
+        TaskExporter.export(tasks, target, TaskExporter.Format.JSON_LINES);
+
+        List<String> lines = Files.readAllLines(target);
+        assertEquals(4, lines.size());
+        assertEquals("{\"type\":\"todo\",\"description\":\"say \\\"hi\\\", then leave\",\"done\":false}", lines.get(0));
+        assertEquals("{\"type\":\"deadline\",\"description\":\"return book\",\"by\":\"2025-09-20\",\"done\":true}",
+                lines.get(1));
+    }
+
+    /**
+     * Tests that iCalendar export writes deadlines as VTODO, scheduled events as VEVENT,
+     * leaves out events without dates and folds long lines.
+     */
+    @Test
+    public void export_icalendar_writesTodosAndEvents() throws IOException {
+        tasks.add(new ToDo("x".repeat(100)));
+        Path target = tempDir.resolve("tasks.ics");
+        assertEquals(4, TaskExporter.export(tasks, target, TaskExporter.Format.ICALENDAR));
+
+        String calendar = Files.readString(target, StandardCharsets.UTF_8);
+        assertTrue(calendar.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(calendar.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(calendar.contains("SUMMARY:say \"hi\"\\, then leave\r\n"));
+        assertTrue(calendar.contains("DUE;VALUE=DATE:20250920\r\nSTATUS:COMPLETED\r\n"));
+        assertTrue(calendar.contains("BEGIN:VEVENT\r\n"));
+        assertTrue(calendar.contains("DTSTART:20250922T140000\r\nDTEND:20250922T160000\r\n"));
+        assertFalse(calendar.contains("lunch"));
+        for (String line : calendar.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+        assertTrue(calendar.contains("\r\n x"));
+    }
+
+    /**
+     * Tests that the format is picked from the file extension.
+     */
+    @Test
+    public void fromFileName_extensions_matchFormats() {
+        assertEquals(TaskExporter.Format.CSV, TaskExporter.Format.fromFileName("out/Tasks.CSV"));
+        assertEquals(TaskExporter.Format.JSON_LINES, TaskExporter.Format.fromFileName("tasks.jsonl"));
+        assertEquals(TaskExporter.Format.ICALENDAR, TaskExporter.Format.fromFileName("tasks.ics"));
+        assertNull(TaskExporter.Format.fromFileName("tasks.txt"));
+    }
+}
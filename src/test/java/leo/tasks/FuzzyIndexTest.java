@@ -0,0 +1,78 @@
+package leo.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Essential test suite for the FuzzyIndex class.
+ * Focuses on edit distances and on the index agreeing with a full scan.
+ */
+public class FuzzyIndexTest {
+
+    /**
+     * Tests that insertions, deletions, substitutions and swaps each count as one edit.
+     */
+    @Test
+    public void distance_singleEdits_countAsOne() {
+        assertEquals(0, FuzzyIndex.distance("report", "report", 2));
+        assertEquals(1, FuzzyIndex.distance("reprot", "report", 2));
+        assertEquals(1, FuzzyIndex.distance("repot", "report", 2));
+        assertEquals(1, FuzzyIndex.distance("reports", "report", 2));
+        assertEquals(1, FuzzyIndex.distance("rebort", "report", 2));
+        assertEquals(2, FuzzyIndex.distance("rpeotr", "report", 2));
+        assertEquals(2, FuzzyIndex.distance("import", "report", 2));
+        assertEquals(3, FuzzyIndex.distance("budget", "report", 2));
+        assertEquals(2, FuzzyIndex.distance("a", "abcd", 1));
+    }
+
+    /**
+     * Tests that the index ranks the same tasks as checking every description, across removals,
+     * whether or not the removed tasks have been purged.
+     */
+    @Test
+    public void find_randomWords_matchesFullScan() {
+        String[] words = {"report", "repot", "reprot", "export", "sport", "budget", "budgte", "nudge",
+            "kitchen", "kitchn", "chicken", "a", "ab", "abc"};
+        Random random = new Random(7);
+        FuzzyIndex index = new FuzzyIndex();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            Task task = new ToDo(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]);
+            task.setId(i);
+            tasks.add(task);
+            index.add(task);
+        }
+        for (int i = 0; i < 200; i++) {
+            tasks.remove(random.nextInt(tasks.size()));
+            if (i == 100) {
+                index.purge(tasks::contains);
+            }
+        }
+
+        for (String query : new String[]{"report", "reprot", "budget", "kitchen", "ab", "zzz"}) {
+            List<Long> expected = new ArrayList<>();
+            RankedTasks ranked = new RankedTasks(7);
+            int maxDistance = FuzzyIndex.maxDistance(query.length());
+            for (Task task : tasks) {
+                int distance = FuzzyIndex.bestDistance(task.getDescription(), query, maxDistance);
+                if (distance <= maxDistance) {
+                    ranked.offer(task, distance);
+                }
+            }
+            for (Task task : ranked.toList()) {
+                expected.add(task.getId());
+            }
+
+            List<Long> actual = new ArrayList<>();
+            for (Task task : index.find(query, 7, tasks::contains)) {
+                actual.add(task.getId());
+            }
+            assertEquals(expected, actual, query);
+        }
+    }
+}
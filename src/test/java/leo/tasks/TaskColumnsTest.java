@@ -0,0 +1,124 @@
+package leo.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Essential test suite for the TaskColumns class.
+ * Focuses on rows reading back as the tasks that were added, across removals.
+ */
+public class TaskColumnsTest {
+
+    private static Task createTask(int i) {
+        Task task;
+        switch (i % 3) {
+            case 0:
+                task = new ToDo("read book " + i);
+                break;
+            case 1:
+                task = new Deadline("return bücher " + i, LocalDate.of(2024, 1, 1).plusDays(i));
+                break;
+            default:
+                task = new Event("meeting " + "x".repeat(i % 200) + i, "Mon 2pm", "4pm");
+        }
+        if (i % 4 == 0) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Tests that each task type reads back with the same fields and status.
+     */
+    @Test
+    public void get_addedTasks_returnsEqualViews() {
+        TaskColumns columns = new TaskColumns();
+        for (int i = 0; i < 3; i++) {
+            columns.add(createTask(i));
+        }
+
+        assertInstanceOf(ToDo.class, columns.get(0));
+        assertEquals(createTask(1).toString(), columns.get(1).toString());
+        Event event = (Event) columns.get(2);
+        assertEquals("Mon 2pm", event.getFrom());
+        assertEquals("4pm", event.getTo());
+        assertTrue(columns.get(0).isDone());
+        assertFalse(columns.get(1).isDone());
+    }
+
+    /**
+     * Tests that setting the status changes the row, not only the returned view.
+     */
+    @Test
+    public void setDone_row_changesLaterViews() {
+        TaskColumns columns = new TaskColumns();
+        columns.add(new ToDo("read book"));
+
+        columns.setDone(0, true);
+        assertTrue(columns.get(0).isDone());
+        columns.setDone(0, false);
+        assertFalse(columns.get(0).isDone());
+    }
+
+    /**
+     * Tests that random removals keep every remaining row in step with a plain list.
+     */
+    @Test
+    public void remove_randomRows_matchesArrayList() {
+        TaskColumns columns = new TaskColumns();
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Task task = createTask(i);
+            columns.add(task);
+            expected.add(task);
+        }
+
+        Random random = new Random(7);
+        for (int i = 0; i < 100; i++) {
+            int index = random.nextInt(expected.size());
+            assertEquals(expected.remove(index).toString(), columns.remove(index).toString());
+        }
+        List<Task> removed = columns.removeRows(new int[]{0, 17, 18, 250, columns.size() - 1});
+        expected.remove(expected.size() - 1);
+        expected.remove(250);
+        expected.remove(18);
+        expected.remove(17);
+        expected.remove(0);
+        columns.add(createTask(1000));
+        expected.add(createTask(1000));
+
+        assertEquals(5, removed.size());
+        assertEquals(expected.size(), columns.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), columns.get(i).toString());
+        }
+    }
+
+    /**
+     * Tests that a columnar task list finds and changes tasks like the object-backed one.
+     */
+    @Test
+    public void taskList_columnar_findsAndMarksTasks() {
+        List<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            initial.add(createTask(i));
+        }
+        TaskList taskList = new TaskList(initial, true);
+
+        assertEquals(new TaskList(initial).find("BÜCHER").size(), taskList.find("BÜCHER").size());
+        assertEquals("read book 39", taskList.find("book 39").get(0).getDescription());
+        assertTrue(taskList.setDone(39, true).isDone());
+        assertTrue(taskList.get(39).isDone());
+        assertEquals(2, taskList.removeAll(new int[]{0, 20}).size());
+        assertEquals(38, taskList.size());
+    }
+}
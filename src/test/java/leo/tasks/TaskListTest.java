@@ -6,7 +6,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -138,6 +145,36 @@ public class TaskListTest {
         assertTrue(results.isEmpty());
     }
 
+    /**
+     * Tests that indexed find results stay correct after tasks are added and removed.
+     */
+    @Test
+    public void find_afterAddAndRemove_reflectsCurrentTasks() {
+        assertEquals(1, taskList.find("book").size());
+
+        ToDo notebook = new ToDo("buy NOTEBOOK");
+        taskList.add(notebook);
+        List<Task> results = taskList.find("book");
+        assertEquals(2, results.size());
+        assertSame(todo1, results.get(0));
+        assertSame(notebook, results.get(1));
+
+        taskList.remove(0);
+        results = taskList.find("book");
+        assertEquals(1, results.size());
+        assertSame(notebook, results.get(0));
+    }
+
+    /**
+     * Tests that indexed find matches across word boundaries like a plain substring search.
+     */
+    @Test
+    public void find_keywordSpanningWords_returnsMatchingTasks() {
+        List<Task> results = taskList.find("m meet");
+        assertEquals(1, results.size());
+        assertSame(event1, results.get(0));
+    }
+
     // Test other essential TaskList methods
     /**
      * Tests that adding a task increases the list size.
@@ -178,6 +215,245 @@ public class TaskListTest {
         assertEquals(3, taskList.size());
     }
 
+    /**
+     * Tests that removing several indices keeps the remaining tasks in order.
+     */
+    @Test
+    public void removeAll_sortedIndices_removesInOnePass() {
+        List<Task> removed = taskList.removeAll(new int[]{0, 2});
+        assertEquals(2, removed.size());
+        assertSame(todo1, removed.get(0));
+        assertSame(deadline1, removed.get(1));
+        assertEquals(2, taskList.size());
+        assertSame(todo2, taskList.get(0));
+        assertSame(event1, taskList.get(1));
+        assertTrue(taskList.find("assignment").isEmpty());
+    }
+
+    /**
+     * Tests that adds from several threads are all kept and stay searchable while finds run.
+     */
+    @Test
+    public void add_concurrentThreads_keepsEveryTask() throws InterruptedException {
+        int threadCount = 4;
+        int tasksPerThread = 500;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int threadId = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < tasksPerThread; i++) {
+                    taskList.add(new ToDo("chore " + threadId + "-" + i));
+                    taskList.find("chore");
+                    taskList.snapshot();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4 + threadCount * tasksPerThread, taskList.size());
+        assertEquals(threadCount * tasksPerThread, taskList.find("chore").size());
+    }
+
+    /**
+     * Tests that scans running while another thread deletes, adds and compacts each see the list
+     * as it was at one moment, with either backend.
+     */
+    @Test
+    public void snapshot_concurrentDeletesAndCompactions_seesWholeList() throws InterruptedException {
+        for (boolean isColumnar : new boolean[]{false, true}) {
+            int taskCount = 5000;
+            TaskList tasks = new TaskList(null, isColumnar);
+            for (int i = 0; i < taskCount; i++) {
+                tasks.add(new ToDo("chore " + i));
+            }
+            tasks.find("chore");
+            TaskQuery todos = TaskQuery.all().withType(TaskType.TODO);
+            List<String> failures = new CopyOnWriteArrayList<>();
+            Thread writer = new Thread(() -> {
+                Random random = new Random(9);
+                for (int i = 0; i < 3000; i++) {
+                    tasks.remove(random.nextInt(tasks.size()));
+                    tasks.add(new ToDo("chore again " + i));
+                }
+            });
+            Thread reader = new Thread(() -> {
+                while (writer.isAlive()) {
+                    // Each delete is followed by an add, so a whole list has one of two sizes
+                    int snapshotSize = tasks.snapshot().size();
+                    int todoCount = tasks.find(todos).size();
+                    if (snapshotSize < taskCount - 1 || snapshotSize > taskCount) {
+                        failures.add("snapshot of " + snapshotSize);
+                    }
+                    if (todoCount < taskCount - 1 || todoCount > taskCount) {
+                        failures.add("scan of " + todoCount);
+                    }
+                    if (tasks.find("chore").size() > taskCount) {
+                        failures.add("indexed find of " + tasks.find("chore").size());
+                    }
+                }
+            });
+            writer.start();
+            reader.start();
+            writer.join();
+            reader.join();
+
+            assertEquals(List.of(), failures);
+            assertEquals(taskCount, tasks.snapshot().size());
+            assertEquals(taskCount, tasks.find("chore").size());
+        }
+    }
+
+    /**
+     * Tests that a ranged snapshot copies only the requested tasks and stops at the end of the list.
+     */
+    @Test
+    public void snapshot_rangePastEnd_returnsRemainingTasks() {
+        List<Task> page = taskList.snapshot(2, 10);
+        assertEquals(2, page.size());
+        assertSame(deadline1, page.get(0));
+        assertSame(event1, page.get(1));
+        assertTrue(taskList.snapshot(4, 6).isEmpty());
+    }
+
+    /**
+     * Tests that a search on an interrupted thread is cancelled.
+     */
+    @Test
+    public void find_interruptedThread_throwsCancellationException() {
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> taskList.find("ea"));
+            assertThrows(CancellationException.class, () -> taskList.find("meeting"));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * Tests that a scan of a list long enough to be split across cores returns matches in list order.
+     */
+    @Test
+    public void find_longList_returnsMatchesInListOrder() {
+        List<Task> all = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            String description = (i % 7 == 0 ? "Go home " : "stay ") + i;
+            all.add(new ToDo(description));
+            if (i % 7 == 0 && i != 7) {
+                expected.add(description);
+            }
+        }
+
+        for (boolean isColumnar : new boolean[]{false, true}) {
+            TaskList tasks = new TaskList(all, isColumnar);
+            tasks.remove(7);
+            for (List<Task> matches : List.of(tasks.find("GO"), tasks.find(TaskQuery.all().withKeyword("go")))) {
+                List<String> actual = new ArrayList<>();
+                for (Task task : matches) {
+                    actual.add(task.getDescription());
+                }
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    /**
+     * Tests that due queries return unfinished deadlines in date order and follow mark and remove.
+     */
+    @Test
+    public void findDue_range_returnsUnfinishedDeadlinesByDate() {
+        Deadline early = new Deadline("pay rent", LocalDate.of(2024, 12, 1));
+        Deadline late = new Deadline("file taxes", LocalDate.of(2025, 4, 15));
+        taskList.add(late);
+        taskList.add(early);
+
+        List<Task> due = taskList.findDue(null, LocalDate.of(2025, 1, 1));
+        assertEquals(2, due.size());
+        assertSame(early, due.get(0));
+        assertSame(deadline1, due.get(1));
+
+        taskList.setDone(2, true);
+        assertEquals(List.of(early), taskList.findDue(null, LocalDate.of(2025, 1, 1)));
+        assertEquals(List.of(early), taskList.findDue(LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 2)));
+        taskList.setDone(2, false);
+        taskList.remove(5);
+        assertEquals(List.of(deadline1, late), taskList.findDue(null, LocalDate.of(2026, 1, 1)));
+    }
+
+    /**
+     * Tests that a columnar list answers due queries like the indexed one.
+     */
+    @Test
+    public void findDue_columnarList_matchesIndexedList() {
+        taskList.add(new Deadline("pay rent", LocalDate.of(2024, 12, 1)));
+        taskList.setDone(0, true);
+        TaskList columnar = new TaskList(taskList.snapshot(), true);
+
+        List<Task> expected = taskList.findDue(null, LocalDate.of(2025, 1, 1));
+        List<Task> actual = columnar.findDue(null, LocalDate.of(2025, 1, 1));
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+        }
+    }
+
+    /**
+     * Tests that schedule queries return overlapping events by start time and follow remove.
+     */
+    @Test
+    public void findEvents_range_returnsOverlappingEventsByStart() {
+        Event allDay = new Event("retreat", "2026-03-02", "2026-03-03");
+        Event morning = new Event("standup", "2026-03-02 09:00", "2026-03-02 0930");
+        Event earlier = new Event("flight", "2026-03-01 22:00", "2026-03-02 01:00");
+        Event nextWeek = new Event("review", "2026-03-09 10:00", "2026-03-09 11:00");
+        taskList.add(allDay);
+        taskList.add(morning);
+        taskList.add(earlier);
+        taskList.add(nextWeek);
+
+        LocalDateTime dayStart = LocalDateTime.of(2026, 3, 2, 0, 0);
+        assertEquals(List.of(earlier, allDay, morning), taskList.findEvents(dayStart, dayStart.plusDays(1)));
+        assertEquals(List.of(allDay), taskList.findEvents(dayStart.plusDays(1), dayStart.plusDays(2)));
+        assertEquals(List.of(nextWeek), taskList.findEvents(dayStart.plusDays(7), dayStart.plusDays(8)));
+
+        // The end is exclusive, so an event ending at the range start is not included
+        assertEquals(List.of(allDay, morning), taskList.findEvents(dayStart.plusHours(1), dayStart.plusHours(10)));
+
+        taskList.remove(5);
+        taskList.add(new ToDo("2026-03-02"));
+        assertEquals(List.of(earlier, allDay), taskList.findEvents(dayStart, dayStart.plusHours(2)));
+    }
+
+    /**
+     * Tests that every overlapping pair of events is reported once and unscheduled events are ignored.
+     */
+    @Test
+    public void findClashes_overlappingEvents_returnsEachPair() {
+        Event lunch = new Event("lunch", "2026-03-02 12:00", "2026-03-02 13:00");
+        Event call = new Event("call", "2026-03-02 12:30", "2026-03-02 14:00");
+        Event talk = new Event("talk", "2026-03-02 13:30", "2026-03-02 15:00");
+        Event after = new Event("gym", "2026-03-02 15:00", "2026-03-02 16:00");
+        taskList.add(talk);
+        taskList.add(lunch);
+        taskList.add(after);
+        taskList.add(call);
+
+        List<Task[]> clashes = taskList.findClashes();
+        assertEquals(2, clashes.size());
+        assertSame(lunch, clashes.get(0)[0]);
+        assertSame(call, clashes.get(0)[1]);
+        assertSame(call, clashes.get(1)[0]);
+        assertSame(talk, clashes.get(1)[1]);
+
+        TaskList columnar = new TaskList(taskList.snapshot(), true);
+        assertEquals(2, columnar.findClashes().size());
+    }
+
     /**
      * Tests that validating invalid index throws LeoException.
      */
@@ -186,4 +462,295 @@ public class TaskListTest {
         assertThrows(LeoException.class, () -> taskList.validateIndex(-1));
         assertThrows(LeoException.class, () -> taskList.validateIndex(4));
     }
+
+    /**
+     * Tests that deleting a task keeps every other task's ID and finds it at its new index.
+     */
+    @Test
+    public void indexOfId_afterRemove_followsTask() {
+        long eventId = event1.getId();
+        assertEquals(4, List.of(todo1.getId(), todo2.getId(), deadline1.getId(), eventId).stream()
+                .distinct().count());
+
+        taskList.remove(1);
+        assertEquals(2, taskList.indexOfId(eventId));
+        assertEquals(eventId, taskList.get(2).getId());
+        assertEquals(-1, taskList.indexOfId(todo2.getId()));
+
+        Task added = new ToDo("plan trip");
+        taskList.add(added);
+        assertTrue(added.getId() > eventId);
+        assertEquals(3, taskList.indexOfId(added.getId()));
+    }
+
+    /**
+     * Tests that tasks loaded with IDs keep them, and duplicate or missing IDs get new ones.
+     */
+    @Test
+    public void constructor_loadedIds_keepsDistinctIds() {
+        Task first = new ToDo("a");
+        first.setId(7);
+        Task duplicate = new ToDo("b");
+        duplicate.setId(7);
+        Task missing = new ToDo("c");
+
+        TaskList loaded = new TaskList(List.of(first, duplicate, missing));
+        assertEquals(7, first.getId());
+        assertEquals(0, loaded.indexOfId(7));
+        assertEquals(1, loaded.indexOfId(duplicate.getId()));
+        assertEquals(2, loaded.indexOfId(missing.getId()));
+        assertTrue(duplicate.getId() > 7 && missing.getId() > 7);
+    }
+
+    /**
+     * Tests that random deletes, adds and status changes, with compactions in between,
+     * keep both backends in step with a plain list.
+     */
+    @Test
+    public void remove_randomOperations_matchesArrayList() {
+        for (boolean isColumnar : new boolean[]{false, true}) {
+            Random random = new Random(42);
+            TaskList tasks = new TaskList(null, isColumnar);
+            List<Task> expected = new ArrayList<>();
+            List<Boolean> expectedDone = new ArrayList<>();
+            for (int step = 0; step < 3000; step++) {
+                int action = random.nextInt(5);
+                if (action >= 3 || expected.isEmpty()) {
+                    Task task = new ToDo("task " + step);
+                    tasks.add(task);
+                    expected.add(task);
+                    expectedDone.add(false);
+                } else if (action == 1) {
+                    int index = random.nextInt(expected.size());
+                    expectedDone.remove(index);
+                    assertEquals(expected.remove(index).getId(), tasks.remove(index).getId());
+                } else if (action == 2) {
+                    int index = random.nextInt(expected.size());
+                    boolean isDone = !expectedDone.get(index);
+                    expectedDone.set(index, isDone);
+                    assertEquals(isDone, tasks.setDone(index, isDone).isDone());
+                }
+
+                if (!expected.isEmpty()) {
+                    int probe = random.nextInt(expected.size());
+                    assertEquals(probe, tasks.indexOfId(expected.get(probe).getId()));
+                }
+            }
+
+            assertEquals(expected.size(), tasks.size());
+            List<Task> actual = tasks.snapshot();
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), actual.get(i).getId());
+                assertEquals(expected.get(i).getDescription(), tasks.get(i).getDescription());
+                assertEquals(expectedDone.get(i), actual.get(i).isDone());
+            }
+            assertEquals(expected.get(10).getId(), tasks.snapshot(10, 20).get(0).getId());
+            assertEquals(expected.get(0).getId(), tasks.find("task").get(0).getId());
+        }
+    }
+
+    /**
+     * Tests that putting removed tasks back restores their positions, IDs and search results,
+     * whether their slots are still tombstoned or the list was compacted in between.
+     */
+    @Test
+    public void insert_removedTasks_restoresPositionsAndIds() {
+        for (boolean isColumnar : new boolean[]{false, true}) {
+            TaskList tasks = new TaskList(null, isColumnar);
+            for (int i = 0; i < 20; i++) {
+                tasks.add(new ToDo("task " + i));
+            }
+            List<Task> before = tasks.snapshot();
+
+            Task removed = tasks.remove(5);
+            tasks.insert(5, removed);
+            removed = tasks.remove(5);
+            // Enough to compact the list, which keeps only the slots deleted by this call
+            int[] indices = {0, 1, 2, 3, 4, 5, 6, 7};
+            List<Task> removedAll = tasks.removeAll(indices);
+            for (int i = 0; i < indices.length; i++) {
+                tasks.insert(indices[i], removedAll.get(i));
+            }
+            tasks.insert(5, removed);
+
+            assertEquals(before.size(), tasks.size());
+            for (int i = 0; i < before.size(); i++) {
+                assertEquals(before.get(i).getId(), tasks.get(i).getId());
+                assertEquals(i, tasks.indexOfId(before.get(i).getId()));
+            }
+            assertEquals(before.get(5).getId(), tasks.find("task 5").get(0).getId());
+        }
+    }
+
+    /**
+     * Tests that tasks deleted and put back in any order, while compactions keep the slots of
+     * restorable tasks, leave both backends in step with a plain list.
+     */
+    @Test
+    public void insert_restorableDeletesAcrossCompactions_matchesArrayList() {
+        for (boolean isColumnar : new boolean[]{false, true}) {
+            Random random = new Random(21);
+            TaskList tasks = new TaskList(null, isColumnar);
+            Set<Long> restorable = new HashSet<>();
+            tasks.setRestorable(restorable::contains);
+            tasks.find("task");
+            List<Task> expected = new ArrayList<>();
+            List<Task> removedTasks = new ArrayList<>();
+            List<Integer> removedIndices = new ArrayList<>();
+            for (int step = 0; step < 3000; step++) {
+                int action = random.nextInt(6);
+                if (action == 0 || expected.size() < 10) {
+                    Task task = new ToDo("task " + step);
+                    tasks.add(task);
+                    expected.add(task);
+                } else if (action <= 2) {
+                    int index = random.nextInt(expected.size());
+                    Task removed = tasks.remove(index);
+                    assertEquals(expected.remove(index).getId(), removed.getId());
+                    removedTasks.add(removed);
+                    removedIndices.add(index);
+                    restorable.add(removed.getId());
+                } else if (action <= 4 && !removedTasks.isEmpty()) {
+                    int last = removedTasks.size() - 1;
+                    Task restored = removedTasks.remove(last);
+                    int index = Math.min(removedIndices.remove(last), expected.size());
+                    restorable.remove(restored.getId());
+                    tasks.insert(index, restored);
+                    expected.add(index, restored);
+                } else if (!removedTasks.isEmpty()) {
+                    // The oldest delete can no longer be undone, so its slot may be dropped
+                    restorable.remove(removedTasks.remove(0).getId());
+                    removedIndices.remove(0);
+                }
+
+                int probe = random.nextInt(expected.size());
+                assertEquals(probe, tasks.indexOfId(expected.get(probe).getId()));
+            }
+
+            List<Task> actual = tasks.snapshot();
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            }
+            assertEquals(expected.size(), tasks.find("task").size());
+        }
+    }
+
+    /**
+     * Tests that indexed searches skip deleted tasks before the indexes are purged, and find a task
+     * put back or added again exactly once.
+     */
+    @Test
+    public void find_deletedTasksBeforePurge_skipsThemAndFindsRestoredOnce() {
+        TaskList tasks = new TaskList();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(new Deadline("report " + i, LocalDate.of(2025, 1, 1).plusDays(i)));
+        }
+        LocalDate end = LocalDate.of(2026, 1, 1);
+        tasks.find("report");
+        tasks.findSimilar("reprot", 1);
+        tasks.findDue(null, end);
+
+        Task removed = tasks.remove(3);
+        Task readded = tasks.remove(tasks.size() - 1);
+        assertEquals(18, tasks.find("report").size());
+        assertEquals(18, tasks.findSimilar("reprot", 20).size());
+        assertEquals(18, tasks.findDue(null, end).size());
+        assertEquals(18, tasks.find(TaskQuery.all().withDone(false).withDueBefore(end)).size());
+
+        tasks.insert(3, removed);
+        tasks.add(readded);
+        assertEquals(20, tasks.find("report").size());
+        assertEquals(20, tasks.findSimilar("reprot", 20).size());
+        assertEquals(List.of(removed), tasks.find("report 3"));
+        assertEquals(removed, tasks.findDue(null, end).get(3));
+        assertEquals(readded, tasks.findDue(null, end).get(19));
+    }
+
+    /**
+     * Tests that a misspelled word finds the closest tasks first, then in list order, with either backend.
+     */
+    @Test
+    public void findSimilar_misspelledWord_ranksClosestFirst() {
+        for (boolean isColumnar : new boolean[]{false, true}) {
+            TaskList tasks = new TaskList(null, isColumnar);
+            for (String description : new String[]{"read book", "repot plants", "write report", "Reprot typo",
+                "support team"}) {
+                tasks.add(new ToDo(description));
+            }
+
+            List<Task> matches = tasks.findSimilar("reprot", 10);
+            assertEquals(3, matches.size());
+            assertEquals("Reprot typo", matches.get(0).getDescription());
+            assertEquals("repot plants", matches.get(1).getDescription());
+            assertEquals("write report", matches.get(2).getDescription());
+            assertEquals(2, tasks.findSimilar("REPROT", 2).size());
+
+            tasks.remove(3);
+            assertEquals("repot plants", tasks.findSimilar("reprot", 10).get(0).getDescription());
+        }
+    }
+
+    /**
+     * Tests that a query over type, status, due date and keyword matches the same tasks as a plain filter,
+     * in list order, whichever index answers it and with either backend.
+     */
+    @Test
+    public void findQuery_fieldTerms_matchesFilterInListOrder() {
+        Random random = new Random(24);
+        String[] words = {"report", "budget", "call mum", "review", "rep"};
+        List<Task> all = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            String description = words[random.nextInt(words.length)] + " " + i;
+            Task task;
+            switch (random.nextInt(3)) {
+                case 0:
+                    task = new ToDo(description);
+                    break;
+                case 1:
+                    task = new Deadline(description, LocalDate.of(2026, 10, 1).plusDays(random.nextInt(60)));
+                    break;
+                default:
+                    task = new Event(description, "2pm", "3pm");
+                    break;
+            }
+            if (random.nextInt(4) == 0) {
+                task.markAsDone();
+            }
+            all.add(task);
+        }
+
+        LocalDate cutoff = LocalDate.of(2026, 11, 1);
+        TaskQuery[] queries = {
+            TaskQuery.all().withType(TaskType.DEADLINE).withDone(false).withDueBefore(cutoff).withKeyword("REPORT"),
+            TaskQuery.all().withDone(false).withDueFrom(cutoff).withDueBefore(cutoff.plusDays(1)),
+            TaskQuery.all().withType(TaskType.EVENT).withKeyword("call"),
+            TaskQuery.all().withDone(true).withKeyword("re"),
+            TaskQuery.all().withType(TaskType.TODO).withDueBefore(cutoff),
+            TaskQuery.all(),
+        };
+        for (boolean isColumnar : new boolean[]{false, true}) {
+            TaskList tasks = new TaskList(all, isColumnar);
+            tasks.remove(7);
+            List<Task> live = tasks.snapshot();
+            for (TaskQuery query : queries) {
+                List<String> expected = new ArrayList<>();
+                for (Task task : live) {
+                    boolean isMatch = true;
+                    for (TaskQuery.Field field : query.fields()) {
+                        isMatch &= query.matches(field, task);
+                    }
+                    if (isMatch) {
+                        expected.add(task.toString());
+                    }
+                }
+                List<String> actual = new ArrayList<>();
+                for (Task task : tasks.find(query)) {
+                    actual.add(task.toString());
+                }
+                assertEquals(expected, actual);
+            }
+        }
+        assertEquals(0, new TaskList(all).find(TaskQuery.all().withType(TaskType.TODO).withDueBefore(cutoff)).size());
+    }
 }